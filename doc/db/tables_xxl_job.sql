@@ -21,6 +21,9 @@ CREATE TABLE `xxl_job_info` (
   `executor_handler` varchar(255) DEFAULT NULL COMMENT '执行器任务handler',
   `executor_param` varchar(512) DEFAULT NULL COMMENT '执行器任务参数',
   `executor_block_strategy` varchar(50) DEFAULT NULL COMMENT '阻塞处理策略',
+  `misfire_strategy` varchar(50) NOT NULL DEFAULT 'DO_NOTHING' COMMENT '调度过期策略',
+  `spread_window` int(11) NOT NULL DEFAULT '0' COMMENT '调度分散窗口，单位秒，0-不分散',
+  `calendar_id` int(11) NOT NULL DEFAULT '0' COMMENT '排除日历ID，0-不排除',
   `executor_timeout` int(11) NOT NULL DEFAULT '0' COMMENT '任务执行超时时间，单位秒',
   `executor_fail_retry_count` int(11) NOT NULL DEFAULT '0' COMMENT '失败重试次数',
   `glue_type` varchar(50) NOT NULL COMMENT 'GLUE类型',
@@ -31,7 +34,9 @@ CREATE TABLE `xxl_job_info` (
   `trigger_status` tinyint(4) NOT NULL DEFAULT '0' COMMENT '调度状态：0-停止，1-运行',
   `trigger_last_time` bigint(13) NOT NULL DEFAULT '0' COMMENT '上次调度时间',
   `trigger_next_time` bigint(13) NOT NULL DEFAULT '0' COMMENT '下次调度时间',
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  KEY `i_trigger_next_time` (`trigger_status`,`trigger_next_time`,`trigger_last_time`,`job_group`,`job_cron`,`misfire_strategy`,`spread_window`,`calendar_id`),
+  KEY `i_update_time` (`update_time`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 CREATE TABLE `xxl_job_log` (
@@ -81,6 +86,7 @@ CREATE TABLE `xxl_job_registry` (
   `registry_group` varchar(50) NOT NULL,
   `registry_key` varchar(255) NOT NULL,
   `registry_value` varchar(255) NOT NULL,
+  `registry_load` varchar(255) DEFAULT NULL COMMENT '执行器负载，随注册心跳上报',
   `update_time` datetime DEFAULT NULL,
   PRIMARY KEY (`id`),
   KEY `i_g_k_v` (`registry_group`,`registry_key`,`registry_value`)
@@ -95,6 +101,16 @@ CREATE TABLE `xxl_job_group` (
   PRIMARY KEY (`id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+CREATE TABLE `xxl_job_calendar` (
+  `id` int(11) NOT NULL AUTO_INCREMENT,
+  `name` varchar(64) NOT NULL COMMENT '日历名称',
+  `exclude_days` text COMMENT '排除日期，yyyy-MM-dd 或 yyyy-MM-dd~yyyy-MM-dd，多个逗号分隔',
+  `exclude_times` varchar(512) DEFAULT NULL COMMENT '每日排除时段，HH:mm-HH:mm，多个逗号分隔',
+  `update_time` datetime DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `i_name` (`name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
 CREATE TABLE `xxl_job_user` (
   `id` int(11) NOT NULL AUTO_INCREMENT,
   `username` varchar(50) NOT NULL COMMENT '账号',
@@ -105,8 +121,16 @@ CREATE TABLE `xxl_job_user` (
   UNIQUE KEY `i_username` (`username`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+CREATE TABLE `xxl_job_sequence` (
+  `seq_name` varchar(50) NOT NULL COMMENT '序列名称',
+  `max_id` bigint(20) NOT NULL DEFAULT '0' COMMENT '已分配的最大ID',
+  PRIMARY KEY (`seq_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
 CREATE TABLE `xxl_job_lock` (
   `lock_name` varchar(50) NOT NULL COMMENT '锁名称',
+  `lock_owner` varchar(100) NOT NULL DEFAULT '' COMMENT '租约持有者',
+  `lease_expire` bigint(13) NOT NULL DEFAULT '0' COMMENT '租约过期时间',
   PRIMARY KEY (`lock_name`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
@@ -115,6 +139,8 @@ INSERT INTO `xxl_job_group`(`id`, `app_name`, `title`, `address_type`, `address_
 INSERT INTO `xxl_job_info`(`id`, `job_group`, `job_cron`, `job_desc`, `add_time`, `update_time`, `author`, `alarm_email`, `fei_shu_url`, `executor_route_strategy`, `executor_handler`, `executor_param`, `executor_block_strategy`, `executor_timeout`, `executor_fail_retry_count`, `glue_type`, `glue_source`, `glue_remark`, `glue_updatetime`, `child_jobid`) VALUES (1, 1, '0 0 0 * * ? *', '测试任务1', '2018-11-03 22:21:31', '2018-11-03 22:21:31', 'XXL', '', '', 'FIRST', 'demoJobHandler', '', 'SERIAL_EXECUTION', 0, 0, 'BEAN', '', 'GLUE代码初始化', '2018-11-03 22:21:31', '');
 INSERT INTO `xxl_job_user`(`id`, `username`, `password`, `role`, `permission`) VALUES (1, 'admin', '21232f297a57a5a743894a0e4a801fc3', 1, NULL);
 INSERT INTO `xxl_job_lock` ( `lock_name`) VALUES ( 'schedule_lock');
+INSERT INTO `xxl_job_lock` ( `lock_name`) VALUES ( 'schedule_leader');
+INSERT INTO `xxl_job_sequence` ( `seq_name`, `max_id`) VALUES ( 'job_log', 0);
 
 commit;
 
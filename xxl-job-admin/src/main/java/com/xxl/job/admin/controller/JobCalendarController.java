@@ -0,0 +1,96 @@
+package com.xxl.job.admin.controller;
+
+import com.xxl.job.admin.controller.annotation.PermissionLimit;
+import com.xxl.job.admin.core.model.XxlJobCalendar;
+import com.xxl.job.admin.core.scheduler.JobCalendar;
+import com.xxl.job.admin.core.thread.JobCalendarHelper;
+import com.xxl.job.admin.core.util.I18nUtil;
+import com.xxl.job.admin.dao.XxlJobCalendarDao;
+import com.xxl.job.core.biz.model.ReturnT;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import javax.annotation.Resource;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * job calendar controller, json
+ */
+@Controller
+@RequestMapping("/jobcalendar")
+public class JobCalendarController {
+
+	@Resource
+	private XxlJobCalendarDao xxlJobCalendarDao;
+
+	@RequestMapping("/list")
+	@ResponseBody
+	public ReturnT<List<XxlJobCalendar>> list() {
+		return new ReturnT<List<XxlJobCalendar>>(xxlJobCalendarDao.findAll());
+	}
+
+	@RequestMapping("/save")
+	@ResponseBody
+	@PermissionLimit(adminuser = true)
+	public ReturnT<String> save(XxlJobCalendar xxlJobCalendar) {
+		ReturnT<String> validResult = valid(xxlJobCalendar);
+		if (validResult != null) {
+			return validResult;
+		}
+
+		xxlJobCalendar.setUpdateTime(new Date());
+		int ret = xxlJobCalendarDao.save(xxlJobCalendar);
+		JobCalendarHelper.getInstance().refresh();
+		return (ret>0)?ReturnT.SUCCESS:ReturnT.FAIL;
+	}
+
+	@RequestMapping("/update")
+	@ResponseBody
+	@PermissionLimit(adminuser = true)
+	public ReturnT<String> update(XxlJobCalendar xxlJobCalendar) {
+		if (xxlJobCalendarDao.load(xxlJobCalendar.getId()) == null) {
+			return new ReturnT<String>(500, I18nUtil.getString("jobcalendar_field_name")+I18nUtil.getString("system_not_found"));
+		}
+		ReturnT<String> validResult = valid(xxlJobCalendar);
+		if (validResult != null) {
+			return validResult;
+		}
+
+		xxlJobCalendar.setUpdateTime(new Date());
+		int ret = xxlJobCalendarDao.update(xxlJobCalendar);
+		JobCalendarHelper.getInstance().refresh();
+		return (ret>0)?ReturnT.SUCCESS:ReturnT.FAIL;
+	}
+
+	@RequestMapping("/remove")
+	@ResponseBody
+	@PermissionLimit(adminuser = true)
+	public ReturnT<String> remove(int id) {
+		int ret = xxlJobCalendarDao.remove(id);
+		JobCalendarHelper.getInstance().refresh();
+		return (ret>0)?ReturnT.SUCCESS:ReturnT.FAIL;
+	}
+
+	private ReturnT<String> valid(XxlJobCalendar xxlJobCalendar) {
+		if (xxlJobCalendar.getName()==null || xxlJobCalendar.getName().trim().length()==0) {
+			return new ReturnT<String>(500, I18nUtil.getString("system_please_input")+I18nUtil.getString("jobcalendar_field_name"));
+		}
+		if (xxlJobCalendar.getName().length() > 64) {
+			return new ReturnT<String>(500, I18nUtil.getString("jobcalendar_field_name")+I18nUtil.getString("system_unvalid"));
+		}
+		XxlJobCalendar existCalendar = xxlJobCalendarDao.loadByName(xxlJobCalendar.getName());
+		if (existCalendar != null && existCalendar.getId() != xxlJobCalendar.getId()) {
+			return new ReturnT<String>(500, I18nUtil.getString("jobcalendar_field_name_exists"));
+		}
+		try {
+			JobCalendar.compile(xxlJobCalendar, TimeZone.getDefault());
+		} catch (IllegalArgumentException e) {
+			return new ReturnT<String>(500, I18nUtil.getString("jobcalendar_field_unvalid")+" | "+e.getMessage());
+		}
+		return null;
+	}
+
+}
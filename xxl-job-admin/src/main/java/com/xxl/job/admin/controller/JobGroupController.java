@@ -2,6 +2,8 @@ package com.xxl.job.admin.controller;
 
 import com.xxl.job.admin.core.model.XxlJobGroup;
 import com.xxl.job.admin.core.model.XxlJobRegistry;
+import com.xxl.job.admin.core.route.ExecutorCircuitBreaker;
+import com.xxl.job.admin.core.trigger.JobSnapshotCache;
 import com.xxl.job.admin.core.util.I18nUtil;
 import com.xxl.job.admin.dao.XxlJobGroupDao;
 import com.xxl.job.admin.dao.XxlJobInfoDao;
@@ -49,11 +51,20 @@ public class JobGroupController {
 		List<XxlJobGroup> list = xxlJobGroupDao.pageList(start, length, appname, title);
 		int list_count = xxlJobGroupDao.pageListCount(start, length, appname, title);
 
+		// executor circuit breaker, of this admin
+		List<String> addressList = new ArrayList<String>();
+		for (XxlJobGroup group: list) {
+			if (group.getRegistryList() != null) {
+				addressList.addAll(group.getRegistryList());
+			}
+		}
+
 		// package result
 		Map<String, Object> maps = new HashMap<String, Object>();
 		maps.put("recordsTotal", list_count);		// 总记录数
 		maps.put("recordsFiltered", list_count);	// 过滤后的总记录数
 		maps.put("data", list);  					// 分页列表
+		maps.put("breakerMap", ExecutorCircuitBreaker.getBreakerStats(addressList));	// 执行器熔断状态
 		return maps;
 	}
 
@@ -127,6 +138,7 @@ public class JobGroupController {
 		}
 
 		int ret = xxlJobGroupDao.update(xxlJobGroup);
+		JobSnapshotCache.getInstance().invalidateGroup(xxlJobGroup.getId());
 		return (ret>0)?ReturnT.SUCCESS:ReturnT.FAIL;
 	}
 
@@ -168,6 +180,7 @@ public class JobGroupController {
 		}
 
 		int ret = xxlJobGroupDao.remove(id);
+		JobSnapshotCache.getInstance().invalidateGroup(id);
 		return (ret>0)?ReturnT.SUCCESS:ReturnT.FAIL;
 	}
 
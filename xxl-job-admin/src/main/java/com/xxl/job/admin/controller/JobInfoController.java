@@ -1,14 +1,17 @@
 package com.xxl.job.admin.controller;
 
-import com.xxl.job.admin.core.cron.CronExpression;
+import com.xxl.job.admin.core.cron.CronExpressionCache;
+import com.xxl.job.admin.core.cron.FastCronExpression;
 import com.xxl.job.admin.core.exception.XxlJobException;
 import com.xxl.job.admin.core.model.XxlJobGroup;
 import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.model.XxlJobUser;
 import com.xxl.job.admin.core.route.ExecutorRouteStrategyEnum;
+import com.xxl.job.admin.core.scheduler.MisfireStrategyEnum;
 import com.xxl.job.admin.core.thread.JobTriggerPoolHelper;
 import com.xxl.job.admin.core.trigger.TriggerTypeEnum;
 import com.xxl.job.admin.core.util.I18nUtil;
+import com.xxl.job.admin.dao.XxlJobCalendarDao;
 import com.xxl.job.admin.dao.XxlJobGroupDao;
 import com.xxl.job.admin.service.LoginService;
 import com.xxl.job.admin.service.XxlJobService;
@@ -38,6 +41,8 @@ public class JobInfoController {
 	@Resource
 	private XxlJobGroupDao xxlJobGroupDao;
 	@Resource
+	private XxlJobCalendarDao xxlJobCalendarDao;
+	@Resource
 	private XxlJobService xxlJobService;
 	
 	@RequestMapping
@@ -47,6 +52,7 @@ public class JobInfoController {
 		model.addAttribute("ExecutorRouteStrategyEnum", ExecutorRouteStrategyEnum.values());	    // 路由策略-列表
 		model.addAttribute("GlueTypeEnum", GlueTypeEnum.values());								// Glue类型-字典
 		model.addAttribute("ExecutorBlockStrategyEnum", ExecutorBlockStrategyEnum.values());	    // 阻塞处理策略-字典
+		model.addAttribute("MisfireStrategyEnum", MisfireStrategyEnum.values());	    			// 调度过期策略-字典
 
 		// 执行器列表
 		List<XxlJobGroup> jobGroupList_all =  xxlJobGroupDao.findAll();
@@ -58,6 +64,7 @@ public class JobInfoController {
 		}
 
 		model.addAttribute("JobGroupList", jobGroupList);
+		model.addAttribute("CalendarList", xxlJobCalendarDao.findAll());
 		model.addAttribute("jobGroup", jobGroup);
 
 		return "jobinfo/jobinfo.index";
@@ -147,7 +154,7 @@ public class JobInfoController {
 	public ReturnT<List<String>> nextTriggerTime(String cron) {
 		List<String> result = new ArrayList<>();
 		try {
-			CronExpression cronExpression = new CronExpression(cron);
+			FastCronExpression cronExpression = CronExpressionCache.get(cron);
 			Date lastTime = new Date();
 			for (int i = 0; i < 5; i++) {
 				lastTime = cronExpression.getNextValidTimeAfter(lastTime);
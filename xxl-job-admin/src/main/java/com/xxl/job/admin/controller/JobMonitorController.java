@@ -0,0 +1,99 @@
+package com.xxl.job.admin.controller;
+
+import com.xxl.job.admin.controller.annotation.PermissionLimit;
+import com.xxl.job.admin.core.route.ExecutorLoadCache;
+import com.xxl.job.admin.core.thread.ExecutorProbeHelper;
+import com.xxl.job.admin.core.thread.JobLogBatchHelper;
+import com.xxl.job.admin.core.thread.JobMisfireHelper;
+import com.xxl.job.admin.core.thread.JobScheduleHelper;
+import com.xxl.job.admin.core.thread.JobTriggerBatchHelper;
+import com.xxl.job.admin.core.thread.JobTriggerPoolHelper;
+import com.xxl.job.admin.core.thread.JobTriggerSpillHelper;
+import com.xxl.job.admin.core.trigger.JobSnapshotCache;
+import com.xxl.job.admin.core.trigger.JobTriggerTracker;
+import com.xxl.job.core.biz.model.ReturnT;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.Map;
+
+/**
+ * admin runtime metrics, json
+ */
+@Controller
+@RequestMapping("/monitor")
+public class JobMonitorController {
+
+	@RequestMapping("/schedule")
+	@ResponseBody
+	@PermissionLimit(adminuser = true)
+	public ReturnT<Map<String, Object>> schedule() {
+		return new ReturnT<Map<String, Object>>(JobScheduleHelper.getInstance().getScheduleStats());
+	}
+
+	@RequestMapping("/misfire")
+	@ResponseBody
+	@PermissionLimit(adminuser = true)
+	public ReturnT<Map<String, Object>> misfire() {
+		return new ReturnT<Map<String, Object>>(JobMisfireHelper.getInstance().getMisfireStats());
+	}
+
+	@RequestMapping("/logBatch")
+	@ResponseBody
+	@PermissionLimit(adminuser = true)
+	public ReturnT<Map<String, Object>> logBatch() {
+		return new ReturnT<Map<String, Object>>(JobLogBatchHelper.getInstance().getBatchStats());
+	}
+
+	@RequestMapping("/triggerPool")
+	@ResponseBody
+	@PermissionLimit(adminuser = true)
+	public ReturnT<Map<String, Object>> triggerPool() {
+		return new ReturnT<Map<String, Object>>(JobTriggerPoolHelper.getPoolStats());
+	}
+
+	@RequestMapping("/triggerSpill")
+	@ResponseBody
+	@PermissionLimit(adminuser = true)
+	public ReturnT<Map<String, Object>> triggerSpill() {
+		return new ReturnT<Map<String, Object>>(JobTriggerSpillHelper.getInstance().getSpillStats());
+	}
+
+	@RequestMapping("/triggerBatch")
+	@ResponseBody
+	@PermissionLimit(adminuser = true)
+	public ReturnT<Map<String, Object>> triggerBatch() {
+		return new ReturnT<Map<String, Object>>(JobTriggerBatchHelper.getInstance().getBatchStats());
+	}
+
+	@RequestMapping("/jobTracker")
+	@ResponseBody
+	@PermissionLimit(adminuser = true)
+	public ReturnT<Map<String, Object>> jobTracker(@RequestParam(required = false, defaultValue = "100") int limit) {
+		return new ReturnT<Map<String, Object>>(JobTriggerTracker.getInstance().getTrackerStats(limit));
+	}
+
+	@RequestMapping("/triggerCache")
+	@ResponseBody
+	@PermissionLimit(adminuser = true)
+	public ReturnT<Map<String, Object>> triggerCache() {
+		return new ReturnT<Map<String, Object>>(JobSnapshotCache.getInstance().getCacheStats());
+	}
+
+	@RequestMapping("/executorLoad")
+	@ResponseBody
+	@PermissionLimit(adminuser = true)
+	public ReturnT<Map<String, Object>> executorLoad() {
+		return new ReturnT<Map<String, Object>>(ExecutorLoadCache.getLoadStats());
+	}
+
+	@RequestMapping("/executorProbe")
+	@ResponseBody
+	@PermissionLimit(adminuser = true)
+	public ReturnT<Map<String, Object>> executorProbe() {
+		return new ReturnT<Map<String, Object>>(ExecutorProbeHelper.getInstance().getProbeStats());
+	}
+
+}
@@ -6,6 +6,7 @@ import com.xxl.job.admin.core.model.XxlJobGroup;
 import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.model.XxlJobLog;
 import com.xxl.job.admin.core.util.I18nUtil;
+import com.xxl.job.admin.core.util.JobLogMsgUtil;
 import com.xxl.job.core.biz.model.ReturnT;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -42,11 +43,11 @@ public class EmailJobAlarm implements JobAlarm {
             // alarmContent
             String alarmContent = "Alarm Job LogId=" + jobLog.getId();
             if (StringUtils.isNotBlank(jobLog.getTriggerMsg())) {
-                alarmContent += " TriggerMsg=" + jobLog.getTriggerMsg();
+                alarmContent += " TriggerMsg=" + JobLogMsgUtil.renderTriggerMsg(jobLog);
             }
 
             if (jobLog.getHandleCode()>0 && jobLog.getHandleCode() != ReturnT.SUCCESS_CODE) {
-                alarmContent += " HandleCode=" + jobLog.getHandleMsg();
+                alarmContent += " HandleCode=" + JobLogMsgUtil.renderHandleMsg(jobLog);
             }
 
 
@@ -64,6 +64,63 @@ public class XxlJobAdminConfig implements InitializingBean, DisposableBean {
     @Value("${xxl.job.triggerpool.slow.max}")
     private int triggerPoolSlowMax;
 
+    @Value("${xxl.job.triggerpool.mode:classic}")
+    private String triggerPoolMode;
+
+    @Value("${xxl.job.triggerpool.fair.groupmax:20}")
+    private int triggerPoolFairGroupMax;
+
+    @Value("${xxl.job.triggerpool.fair.groups:}")
+    private String triggerPoolFairGroups;
+
+    @Value("${xxl.job.triggerpool.virtual.groupmax:100}")
+    private int triggerPoolVirtualGroupMax;
+
+    @Value("${xxl.job.triggerpool.spill.path:/data/applogs/xxl-job/spill}")
+    private String triggerPoolSpillPath;
+
+    @Value("${xxl.job.triggerpool.spill.qps:50}")
+    private int triggerPoolSpillQps;
+
+    @Value("${xxl.job.triggerpool.spill.cronmaxage:300}")
+    private int triggerPoolSpillCronMaxAge;
+
+    @Value("${xxl.job.schedule.buckets:1}")
+    private int scheduleBuckets;
+
+    @Value("${xxl.job.schedule.mode:db}")
+    private String scheduleMode;
+
+    @Value("${xxl.job.misfire.catchup.max:10}")
+    private int misfireCatchupMax;
+
+    @Value("${xxl.job.misfire.catchup.qps:20}")
+    private int misfireCatchupQps;
+
+    @Value("${xxl.job.trigger.cachettl:10}")
+    private int triggerCacheTtl;
+
+    @Value("${xxl.job.trigger.async:false}")
+    private boolean triggerAsync;
+
+    @Value("${xxl.job.trigger.maxconnections:64}")
+    private int triggerMaxConnections;
+
+    @Value("${xxl.job.trigger.batch:false}")
+    private boolean triggerBatch;
+
+    @Value("${xxl.job.trigger.probetimeout:2000}")
+    private int triggerProbeTimeout;
+
+    @Value("${xxl.job.trigger.probecachettl:2000}")
+    private int triggerProbeCacheTtl;
+
+    @Value("${xxl.job.trigger.breakerfailures:5}")
+    private int triggerBreakerFailures;
+
+    @Value("${xxl.job.trigger.breakeropentime:30}")
+    private int triggerBreakerOpenTime;
+
     @Value("${xxl.job.logretentiondays}")
     private int logretentiondays;
 
@@ -83,6 +140,8 @@ public class XxlJobAdminConfig implements InitializingBean, DisposableBean {
     @Resource
     private XxlJobLogReportDao xxlJobLogReportDao;
     @Resource
+    private XxlJobCalendarDao xxlJobCalendarDao;
+    @Resource
     private JavaMailSender mailSender;
     @Resource
     private DataSource dataSource;
@@ -119,6 +178,154 @@ public class XxlJobAdminConfig implements InitializingBean, DisposableBean {
         return triggerPoolSlowMax;
     }
 
+    /**
+     * trigger pool mode: classic (fast/slow pool), fair (per job-group queue, weighted fair), virtual (virtual thread per trigger, JDK 21+)
+     */
+    public String getTriggerPoolMode() {
+        if ("fair".equalsIgnoreCase(triggerPoolMode)) {
+            return "fair";
+        }
+        if ("virtual".equalsIgnoreCase(triggerPoolMode)) {
+            return "virtual";
+        }
+        return "classic";
+    }
+
+    public int getTriggerPoolFairGroupMax() {
+        if (triggerPoolFairGroupMax < 1) {
+            return 1;
+        }
+        return triggerPoolFairGroupMax;
+    }
+
+    public String getTriggerPoolFairGroups() {
+        return triggerPoolFairGroups;
+    }
+
+    public int getTriggerPoolVirtualGroupMax() {
+        if (triggerPoolVirtualGroupMax < 1) {
+            return 1;
+        }
+        return triggerPoolVirtualGroupMax;
+    }
+
+    public String getTriggerPoolSpillPath() {
+        return triggerPoolSpillPath;
+    }
+
+    public int getTriggerPoolSpillQps() {
+        if (triggerPoolSpillQps < 1) {
+            return 1;
+        }
+        if (triggerPoolSpillQps > 1000) {
+            return 1000;
+        }
+        return triggerPoolSpillQps;
+    }
+
+    public int getTriggerPoolSpillCronMaxAge() {
+        return triggerPoolSpillCronMaxAge;
+    }
+
+    public int getScheduleBuckets() {
+        if (scheduleBuckets < 1) {
+            return 1;
+        }
+        return scheduleBuckets;
+    }
+
+    /**
+     * schedule mode: db (scan db each second), memory (leader holds in-memory schedule index)
+     */
+    public String getScheduleMode() {
+        if ("memory".equalsIgnoreCase(scheduleMode)) {
+            return "memory";
+        }
+        return "db";
+    }
+
+    public int getMisfireCatchupMax() {
+        if (misfireCatchupMax < 1) {
+            return 1;
+        }
+        return misfireCatchupMax;
+    }
+
+    public int getMisfireCatchupQps() {
+        if (misfireCatchupQps < 1) {
+            return 1;
+        }
+        return misfireCatchupQps;
+    }
+
+    public int getTriggerCacheTtl() {
+        if (triggerCacheTtl < 0) {
+            return 0;   // 0: disable cache
+        }
+        return triggerCacheTtl;
+    }
+
+    public boolean isTriggerAsync() {
+        return triggerAsync;
+    }
+
+    /**
+     * async trigger, max connections per executor address
+     */
+    public int getTriggerMaxConnections() {
+        if (triggerMaxConnections < 1) {
+            return 1;
+        }
+        if (triggerMaxConnections > 1024) {
+            return 1024;
+        }
+        return triggerMaxConnections;
+    }
+
+    public boolean isTriggerBatch() {
+        return triggerBatch;
+    }
+
+    /**
+     * failover/busyover probe deadline, ms
+     */
+    public int getTriggerProbeTimeout() {
+        if (triggerProbeTimeout < 100) {
+            return 100;
+        }
+        if (triggerProbeTimeout > 30000) {
+            return 30000;
+        }
+        return triggerProbeTimeout;
+    }
+
+    public int getTriggerProbeCacheTtl() {
+        if (triggerProbeCacheTtl < 0) {
+            return 0;   // 0: disable cache
+        }
+        return triggerProbeCacheTtl;
+    }
+
+    public int getTriggerBreakerFailures() {
+        if (triggerBreakerFailures < 0) {
+            return 0;   // 0: disable circuit breaker
+        }
+        return triggerBreakerFailures;
+    }
+
+    /**
+     * executor circuit open time, second
+     */
+    public int getTriggerBreakerOpenTime() {
+        if (triggerBreakerOpenTime < 1) {
+            return 1;
+        }
+        if (triggerBreakerOpenTime > 600) {
+            return 600;
+        }
+        return triggerBreakerOpenTime;
+    }
+
     public int getLogretentiondays() {
         if (logretentiondays < 7) {
             return -1;  // Limit greater than or equal to 7, otherwise close
@@ -146,6 +353,10 @@ public class XxlJobAdminConfig implements InitializingBean, DisposableBean {
         return xxlJobLogReportDao;
     }
 
+    public XxlJobCalendarDao getXxlJobCalendarDao() {
+        return xxlJobCalendarDao;
+    }
+
     public JavaMailSender getMailSender() {
         return mailSender;
     }
@@ -0,0 +1,74 @@
+package com.xxl.job.admin.core.cron;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.text.ParseException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * compiled cron cache, keyed by cron expression string
+ *
+ *      a、CronExpression is immutable after parse ("getTimeAfter" only reads the compiled fields), so one instance is shared by all threads;
+ *          it is held as FastCronExpression (bitmask evaluator, fallback to CronExpression);
+ *      b、bounded by CACHE_MAX_SIZE, idle entry expires after CACHE_EXPIRE_MINUTES;
+ *      c、job cron edited: old expression is invalidated, new expression compiled on first use;
+ */
+public class CronExpressionCache {
+
+    public static final int CACHE_MAX_SIZE = 10000;
+    public static final int CACHE_EXPIRE_MINUTES = 60;
+
+    private static final Cache<String, FastCronExpression> cronCache = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_MAX_SIZE)
+            .expireAfterAccess(CACHE_EXPIRE_MINUTES, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * load compiled cron, parse and cache when absent
+     *
+     * @param cron
+     * @return
+     * @throws ParseException
+     */
+    public static FastCronExpression get(final String cron) throws ParseException {
+        if (cron == null) {
+            throw new IllegalArgumentException("cronExpression cannot be null");
+        }
+        FastCronExpression cronExpression = cronCache.getIfPresent(cron);
+        if (cronExpression != null) {
+            return cronExpression;
+        }
+        try {
+            return cronCache.get(cron, new Callable<FastCronExpression>() {
+                @Override
+                public FastCronExpression call() throws Exception {
+                    return new FastCronExpression(cron);
+                }
+            });
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ParseException) {
+                throw (ParseException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * invalidate compiled cron
+     *
+     * @param cron
+     */
+    public static void invalidate(String cron) {
+        if (cron != null) {
+            cronCache.invalidate(cron);
+        }
+    }
+
+    public static long size() {
+        return cronCache.size();
+    }
+
+}
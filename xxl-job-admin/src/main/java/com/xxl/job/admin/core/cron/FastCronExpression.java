@@ -0,0 +1,319 @@
+package com.xxl.job.admin.core.cron;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.TreeSet;
+
+/**
+ * bitmask cron evaluator, same result as "CronExpression.getNextValidTimeAfter"
+ *
+ *      a、fields are compiled into bitmasks (second/minute 60 bit, hour 24 bit, day-of-month 31 bit, month 12 bit, day-of-week 7 bit),
+ *          next fire time is found by bit scan on local time fields, no Calendar allocated;
+ *      b、local time <-> epoch uses the zone offset of a transition-free window, the window is cached until time runs out of it;
+ *      c、fallback to CronExpression: "L / W / #", limited year field, or the next fire time crosses a zone offset transition (DST)
+ *          or falls in the repeated local hour before it;
+ *
+ * thread-safe, share one instance for the same expression.
+ */
+public final class FastCronExpression {
+
+    private static final int MIN_YEAR = 1970;
+
+    private final CronExpression cronExpression;
+    private final TimeZone timeZone;
+    private final boolean fastPath;
+
+    private final long secondMask;      // bit 0-59
+    private final long minuteMask;      // bit 0-59
+    private final long hourMask;        // bit 0-23
+    private final long dayOfMonthMask;  // bit 1-31, 0 when day-of-month is "?"
+    private final long monthMask;       // bit 1-12
+    private final long dayOfWeekMask;   // bit 1-7 (1=SUN), 0 when day-of-week is "?"
+
+    private volatile OffsetWindow offsetWindow;
+
+    public FastCronExpression(String cron) throws ParseException {
+        this(new CronExpression(cron));
+    }
+
+    public FastCronExpression(CronExpression cronExpression) {
+        this.cronExpression = cronExpression;
+        this.timeZone = cronExpression.getTimeZone();
+
+        this.secondMask = toMask(cronExpression.seconds, 0, 59);
+        this.minuteMask = toMask(cronExpression.minutes, 0, 59);
+        this.hourMask = toMask(cronExpression.hours, 0, 23);
+        this.dayOfMonthMask = toMask(cronExpression.daysOfMonth, 1, 31);
+        this.monthMask = toMask(cronExpression.months, 1, 12);
+        this.dayOfWeekMask = toMask(cronExpression.daysOfWeek, 1, 7);
+
+        boolean dayOfMSpec = !cronExpression.daysOfMonth.contains(CronExpression.NO_SPEC);
+        boolean dayOfWSpec = !cronExpression.daysOfWeek.contains(CronExpression.NO_SPEC);
+        this.fastPath = !cronExpression.lastdayOfMonth
+                && !cronExpression.nearestWeekday
+                && !cronExpression.lastdayOfWeek
+                && cronExpression.nthdayOfWeek == 0
+                && (dayOfMSpec != dayOfWSpec)
+                && isAllYear(cronExpression.years)
+                && secondMask != 0 && minuteMask != 0 && hourMask != 0 && monthMask != 0
+                && (dayOfMSpec ? dayOfMonthMask != 0 : dayOfWeekMask != 0);
+    }
+
+    private static long toMask(TreeSet<Integer> set, int min, int max) {
+        long mask = 0;
+        for (Integer value : set) {
+            // skip "?" / "*" marker
+            if (value >= min && value <= max) {
+                mask |= 1L << value;
+            }
+        }
+        return mask;
+    }
+
+    private static boolean isAllYear(TreeSet<Integer> years) {
+        for (int year = MIN_YEAR; year <= CronExpression.MAX_YEAR; year++) {
+            if (!years.contains(year)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public CronExpression getCronExpression() {
+        return cronExpression;
+    }
+
+    /**
+     * whether this expression is evaluated by bitmask (else always fallback)
+     */
+    public boolean isFastPath() {
+        return fastPath;
+    }
+
+    /**
+     * next fire time after the given time
+     *
+     * @param date
+     * @return  null: never fire
+     */
+    public Date getNextValidTimeAfter(Date date) {
+        if (fastPath) {
+            long nextTime = nextTimeAfter(date.getTime());
+            if (nextTime != -1) {
+                return nextTime == Long.MIN_VALUE ? null : new Date(nextTime);
+            }
+        }
+        return cronExpression.getNextValidTimeAfter(date);
+    }
+
+
+    // ---------------------- compute ----------------------
+
+    /**
+     * @return  epoch ms; Long.MIN_VALUE: never fire; -1: not supported, fallback
+     */
+    private long nextTimeAfter(long afterTime) {
+        // move ahead one second, cron does not deal with milliseconds
+        long fromTime = afterTime + 1000;
+
+        OffsetWindow window = offsetWindow;
+        if (window == null || fromTime < window.start || fromTime >= window.end) {
+            window = loadOffsetWindow(fromTime);
+            if (window == null) {
+                return -1;
+            }
+            offsetWindow = window;
+        }
+
+        long localSeconds = Math.floorDiv(fromTime + window.offset, 1000L);
+        long epochDay = Math.floorDiv(localSeconds, 86400L);
+        int secondOfDay = (int) Math.floorMod(localSeconds, 86400L);
+
+        // epoch day -> y/m/d
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097L);
+        long doe = z - era * 146097;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+
+        int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int mon = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int year = (int) (yoe + era * 400 + (mon <= 2 ? 1 : 0));
+        int hr = secondOfDay / 3600;
+        int min = secondOfDay % 3600 / 60;
+        int sec = secondOfDay % 60;
+
+        if (year < MIN_YEAR) {
+            return -1;
+        }
+
+        while (true) {
+            if (year > CronExpression.MAX_YEAR) {
+                return Long.MIN_VALUE;
+            }
+
+            // month
+            int t = nextBit(monthMask, mon);
+            if (t < 0) {
+                year++;
+                mon = 1;
+                day = 1;
+                hr = min = sec = 0;
+                continue;
+            }
+            if (t != mon) {
+                mon = t;
+                day = 1;
+                hr = min = sec = 0;
+            }
+
+            // day
+            t = nextDay(year, mon, day);
+            if (t < 0) {
+                mon++;
+                day = 1;
+                hr = min = sec = 0;
+                continue;
+            }
+            if (t != day) {
+                day = t;
+                hr = min = sec = 0;
+            }
+
+            // hour
+            t = nextBit(hourMask, hr);
+            if (t < 0) {
+                day++;
+                hr = min = sec = 0;
+                continue;
+            }
+            if (t != hr) {
+                hr = t;
+                min = sec = 0;
+            }
+
+            // minute
+            t = nextBit(minuteMask, min);
+            if (t < 0) {
+                hr++;
+                min = sec = 0;
+                continue;
+            }
+            if (t != min) {
+                min = t;
+                sec = 0;
+            }
+
+            // second
+            t = nextBit(secondMask, sec);
+            if (t < 0) {
+                min++;
+                sec = 0;
+                continue;
+            }
+            sec = t;
+            break;
+        }
+
+        long nextTime = (daysFromCivil(year, mon, day) * 86400L + hr * 3600 + min * 60 + sec) * 1000L - window.offset;
+        if (nextTime >= window.end) {
+            // cross offset transition, fallback
+            return -1;
+        }
+        return nextTime;
+    }
+
+    private int nextDay(int year, int mon, int day) {
+        int lastDay = lastDayOfMonth(year, mon);
+        if (day > lastDay) {
+            return -1;
+        }
+        if (dayOfMonthMask != 0) {
+            long mask = dayOfMonthMask & (-1L << day) & ((1L << (lastDay + 1)) - 1);
+            return mask == 0 ? -1 : Long.numberOfTrailingZeros(mask);
+        }
+
+        // day of week, 1=SUN (1970-01-01 is THU)
+        int dow = (int) Math.floorMod(daysFromCivil(year, mon, day) + 4, 7L) + 1;
+        for (int i = 0; i < 7 && day + i <= lastDay; i++) {
+            if ((dayOfWeekMask & (1L << ((dow - 1 + i) % 7 + 1))) != 0) {
+                return day + i;
+            }
+        }
+        return -1;
+    }
+
+    private static int nextBit(long mask, int from) {
+        if (from > 63) {
+            return -1;
+        }
+        long bits = mask & (-1L << from);
+        return bits == 0 ? -1 : Long.numberOfTrailingZeros(bits);
+    }
+
+    private static int lastDayOfMonth(int year, int mon) {
+        switch (mon) {
+            case 2:
+                return ((year % 4 == 0 && year % 100 != 0) || year % 400 == 0) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static long daysFromCivil(int year, int mon, int day) {
+        long y = mon <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400L);
+        long yoe = y - era * 400;
+        long doy = (153 * (mon > 2 ? mon - 3 : mon + 9) + 2) / 5 + day - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+
+    // ---------------------- offset window ----------------------
+
+    private static class OffsetWindow {
+        private final long start;
+        private final long end;
+        private final int offset;
+
+        OffsetWindow(long start, long end, int offset) {
+            this.start = start;
+            this.end = end;
+            this.offset = offset;
+        }
+    }
+
+    private OffsetWindow loadOffsetWindow(long time) {
+        try {
+            ZoneRules rules = timeZone.toZoneId().getRules();
+            Instant instant = Instant.ofEpochMilli(time);
+            int offset = rules.getOffset(instant).getTotalSeconds() * 1000;
+            if (offset != timeZone.getOffset(time)) {
+                // zone rules not match TimeZone, fallback
+                return null;
+            }
+            ZoneOffsetTransition transition = rules.nextTransition(instant);
+            long end = Long.MAX_VALUE;
+            if (transition != null) {
+                // local time repeated before an overlap transition (clock turned back) is ambiguous, exclude it
+                int overlap = transition.getOffsetBefore().getTotalSeconds() - transition.getOffsetAfter().getTotalSeconds();
+                end = (transition.toEpochSecond() - Math.max(overlap, 0)) * 1000;
+            }
+            return new OffsetWindow(time, end, offset);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.xxl.job.admin.core.model;
+
+import java.util.Date;
+
+/**
+ * job calendar, exclude fire-time on holidays / maintenance windows
+ */
+public class XxlJobCalendar {
+
+	private int id;
+	private String name;			// 日历名称
+	private String excludeDays;		// 排除日期，yyyy-MM-dd 或 yyyy-MM-dd~yyyy-MM-dd，多个逗号分隔
+	private String excludeTimes;	// 每日排除时段，HH:mm-HH:mm，多个逗号分隔
+	private Date updateTime;
+
+	public int getId() {
+		return id;
+	}
+
+	public void setId(int id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getExcludeDays() {
+		return excludeDays;
+	}
+
+	public void setExcludeDays(String excludeDays) {
+		this.excludeDays = excludeDays;
+	}
+
+	public String getExcludeTimes() {
+		return excludeTimes;
+	}
+
+	public void setExcludeTimes(String excludeTimes) {
+		this.excludeTimes = excludeTimes;
+	}
+
+	public Date getUpdateTime() {
+		return updateTime;
+	}
+
+	public void setUpdateTime(Date updateTime) {
+		this.updateTime = updateTime;
+	}
+
+}
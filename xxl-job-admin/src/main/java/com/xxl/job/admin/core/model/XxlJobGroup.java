@@ -1,7 +1,7 @@
 package com.xxl.job.admin.core.model;
 
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -16,11 +16,8 @@ public class XxlJobGroup {
     private String addressList;     // 执行器地址列表，多地址逗号分隔(手动录入)
 
     // registry list
-    private List<String> registryList;  // 执行器地址列表(系统注册)
+    private List<String> registryList;  // 执行器地址列表(系统注册)，由 addressList 预解析，只读
     public List<String> getRegistryList() {
-        if (addressList!=null && addressList.trim().length()>0) {
-            registryList = new ArrayList<String>(Arrays.asList(addressList.split(",")));
-        }
         return registryList;
     }
 
@@ -62,6 +59,9 @@ public class XxlJobGroup {
 
     public void setAddressList(String addressList) {
         this.addressList = addressList;
+        this.registryList = (addressList!=null && addressList.trim().length()>0)
+                ? Collections.unmodifiableList(Arrays.asList(addressList.split(",")))
+                : null;
     }
 
 }
@@ -26,6 +26,9 @@ public class XxlJobInfo {
 	private String executorHandler;		    // 执行器，任务Handler名称
 	private String executorParam;		    // 执行器，任务参数
 	private String executorBlockStrategy;	// 阻塞处理策略
+	private String misfireStrategy;			// 调度过期策略	#com.xxl.job.admin.core.scheduler.MisfireStrategyEnum
+	private int spreadWindow;				// 调度分散窗口，单位秒，0-不分散	#com.xxl.job.admin.core.scheduler.FireTimeSpread
+	private int calendarId;					// 排除日历ID，0-不排除	#com.xxl.job.admin.core.model.XxlJobCalendar
 	private int executorTimeout;     		// 任务执行超时时间，单位秒
 	private int executorFailRetryCount;		// 失败重试次数
 	
@@ -137,6 +140,30 @@ public class XxlJobInfo {
 		this.executorBlockStrategy = executorBlockStrategy;
 	}
 
+	public String getMisfireStrategy() {
+		return misfireStrategy;
+	}
+
+	public void setMisfireStrategy(String misfireStrategy) {
+		this.misfireStrategy = misfireStrategy;
+	}
+
+	public int getSpreadWindow() {
+		return spreadWindow;
+	}
+
+	public void setSpreadWindow(int spreadWindow) {
+		this.spreadWindow = spreadWindow;
+	}
+
+	public int getCalendarId() {
+		return calendarId;
+	}
+
+	public void setCalendarId(int calendarId) {
+		this.calendarId = calendarId;
+	}
+
 	public int getExecutorTimeout() {
 		return executorTimeout;
 	}
@@ -0,0 +1,217 @@
+package com.xxl.job.admin.core.route;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
+import com.xxl.job.admin.core.thread.ExecutorProbeHelper;
+import com.xxl.job.core.biz.ExecutorBiz;
+import com.xxl.job.core.biz.model.ReturnT;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * executor circuit breaker, per address
+ *
+ *      a、fed by trigger / beat / idleBeat outcome: remoting fail, or call as slow as client timeout, is failure；business fail (job fail, busy) is not；
+ *      b、CLOSED: "xxl.job.trigger.breakerfailures" continuous failures, trip to OPEN；
+ *      c、OPEN: excluded by every route strategy, trigger to it (sharding broadcast) fail fast, until "xxl.job.trigger.breakeropentime"；
+ *      d、HALF_OPEN: open time passed, one beat probe in background, success to CLOSED, fail back to OPEN；
+ *      e、health: error rate and latency, moving average, shown on executor page；
+ */
+public class ExecutorCircuitBreaker {
+    private static Logger logger = LoggerFactory.getLogger(ExecutorCircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final String REMOTING_FAIL = "xxl-rpc remoting";
+    private static final long SLOW_TIME = 3000;             // ms, as client read timeout
+    private static final long IDLE_TIMEOUT = 10 * 60 * 1000;
+    private static final double EWMA_ALPHA = 0.2;
+
+    private static final ConcurrentMap<String, Breaker> breakerMap = new ConcurrentHashMap<String, Breaker>();
+
+    private static boolean isEnabled() {
+        return XxlJobAdminConfig.getAdminConfig().getTriggerBreakerFailures() > 0;
+    }
+
+    private static boolean isFail(ReturnT<?> result, long cost) {
+        if (result == null || cost >= SLOW_TIME) {
+            return true;
+        }
+        return result.getCode() != ReturnT.SUCCESS_CODE
+                && result.getMsg() != null
+                && result.getMsg().startsWith(REMOTING_FAIL);
+    }
+
+    /**
+     * address allowed to call, open circuit excluded
+     *
+     * @param address
+     * @return
+     */
+    public static boolean allow(String address) {
+        if (!isEnabled()) {
+            return true;
+        }
+        Breaker breaker = breakerMap.get(address);
+        if (breaker == null) {
+            return true;
+        }
+
+        State state = breaker.state.get();
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.OPEN
+                && System.currentTimeMillis() - breaker.openTime >= XxlJobAdminConfig.getAdminConfig().getTriggerBreakerOpenTime() * 1000L
+                && breaker.state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            halfOpenProbe(address, breaker);
+        }
+        return false;
+    }
+
+    /**
+     * address list allowed to route
+     *
+     * @param addressList
+     * @return  same list when none excluded
+     */
+    public static List<String> filter(List<String> addressList) {
+        if (addressList==null || breakerMap.isEmpty() || !isEnabled()) {
+            return addressList;
+        }
+        List<String> allowList = null;
+        for (int i = 0; i < addressList.size(); i++) {
+            String address = addressList.get(i);
+            if (!allow(address)) {
+                if (allowList == null) {
+                    allowList = new ArrayList<String>(addressList.subList(0, i));
+                }
+            } else if (allowList != null) {
+                allowList.add(address);
+            }
+        }
+        return allowList!=null?allowList:addressList;
+    }
+
+    /**
+     * record call outcome
+     *
+     * @param address
+     * @param result
+     * @param cost      ms
+     */
+    public static void record(String address, ReturnT<?> result, long cost) {
+        if (address==null || !isEnabled()) {
+            return;
+        }
+        boolean fail = isFail(result, cost);
+        Breaker breaker = breakerMap.get(address);
+        if (breaker == null) {
+            Breaker newBreaker = new Breaker();
+            breaker = breakerMap.putIfAbsent(address, newBreaker);
+            if (breaker == null) {
+                breaker = newBreaker;
+            }
+        }
+
+        // health
+        long now = System.currentTimeMillis();
+        breaker.lastTime = now;
+        breaker.errorRate += EWMA_ALPHA * ((fail?1:0) - breaker.errorRate);
+        breaker.latency += EWMA_ALPHA * (cost - breaker.latency);
+
+        // state, open / half-open resolved by probe
+        if (breaker.state.get() != State.CLOSED) {
+            return;
+        }
+        if (!fail) {
+            breaker.failures.set(0);
+            return;
+        }
+        if (breaker.failures.incrementAndGet() >= XxlJobAdminConfig.getAdminConfig().getTriggerBreakerFailures()) {
+            breaker.openTime = now;
+            if (breaker.state.compareAndSet(State.CLOSED, State.OPEN)) {
+                logger.warn(">>>>>>>>>>> xxl-job, executor circuit open, address:{}, failures:{}", address, breaker.failures.get());
+            }
+        }
+    }
+
+    private static void halfOpenProbe(final String address, final Breaker breaker) {
+        ExecutorProbeHelper.getInstance().probeAsync(address, "beat", new ExecutorProbeHelper.Probe() {
+            @Override
+            public ReturnT<String> probe(String address, int timeoutMillis) throws Exception {
+                ExecutorBiz executorBiz = XxlJobScheduler.getExecutorBiz(address);
+                return executorBiz.beat(timeoutMillis);
+            }
+        }).whenComplete(new BiConsumer<ReturnT<String>, Throwable>() {
+            @Override
+            public void accept(ReturnT<String> result, Throwable throwable) {
+                breaker.lastTime = System.currentTimeMillis();
+                if (throwable==null && result!=null && result.getCode()==ReturnT.SUCCESS_CODE) {
+                    breaker.failures.set(0);
+                    if (breaker.state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+                        logger.info(">>>>>>>>>>> xxl-job, executor circuit closed, address:{}", address);
+                    }
+                } else {
+                    breaker.openTime = System.currentTimeMillis();
+                    breaker.state.compareAndSet(State.HALF_OPEN, State.OPEN);
+                }
+            }
+        });
+    }
+
+    /**
+     * remove breaker of address not called for long (offline executor)
+     */
+    public static void removeIdle() {
+        long idleTime = System.currentTimeMillis() - IDLE_TIMEOUT;
+        for (Iterator<Breaker> it = breakerMap.values().iterator(); it.hasNext(); ) {
+            if (it.next().lastTime < idleTime) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * breaker state and health of address
+     *
+     * @param addressList
+     * @return  address - {state, failures, errorRate, latency}, address not called yet is CLOSED
+     */
+    public static Map<String, Object> getBreakerStats(List<String> addressList) {
+        Map<String, Object> stats = new LinkedHashMap<String, Object>();
+        for (String address : addressList) {
+            Breaker breaker = breakerMap.get(address);
+            Map<String, Object> itemStats = new LinkedHashMap<String, Object>();
+            itemStats.put("state", breaker!=null?breaker.state.get().name():State.CLOSED.name());
+            itemStats.put("failures", breaker!=null?breaker.failures.get():0);
+            itemStats.put("errorRate", breaker!=null?Math.round(breaker.errorRate * 100) / 100.0:0);
+            itemStats.put("latency", breaker!=null?Math.round(breaker.latency):0);
+            stats.put(address, itemStats);
+        }
+        return stats;
+    }
+
+    private static class Breaker {
+        private final AtomicReference<State> state = new AtomicReference<State>(State.CLOSED);
+        private final AtomicInteger failures = new AtomicInteger(0);       // continuous failures
+        private volatile long openTime;
+        private volatile long lastTime = System.currentTimeMillis();
+        private volatile double errorRate;      // moving average, racy update is ok
+        private volatile double latency;        // moving average, ms
+    }
+
+}
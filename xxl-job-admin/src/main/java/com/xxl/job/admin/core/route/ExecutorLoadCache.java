@@ -0,0 +1,119 @@
+package com.xxl.job.admin.core.route;
+
+import com.xxl.job.core.biz.model.RegistryLoad;
+import com.xxl.job.core.enums.RegistryConfig;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * executor load, reported by executor registry beat
+ *
+ *      a、fresh when registry beat arrive (this admin), or registry monitor load registry table (other admin)；
+ *      b、load is reported every beat, triggers dispatched by this admin since last report are counted in, until next report；
+ *      c、no report, or report older than dead timeout, is treated as unknown；
+ */
+public class ExecutorLoadCache {
+
+    private static final ConcurrentMap<String, LoadItem> loadMap = new ConcurrentHashMap<String, LoadItem>();
+
+    /**
+     * fresh executor load, older report ignored
+     *
+     * @param address
+     * @param registryLoad
+     * @param reportTime
+     */
+    public static void fresh(String address, RegistryLoad registryLoad, long reportTime) {
+        if (address==null || registryLoad==null) {
+            return;
+        }
+        LoadItem newItem = new LoadItem(registryLoad, reportTime);
+        while (true) {
+            LoadItem item = loadMap.get(address);
+            if (item == null) {
+                if (loadMap.putIfAbsent(address, newItem) == null) {
+                    return;
+                }
+            } else if (item.reportTime >= reportTime) {
+                return;
+            } else if (loadMap.replace(address, item, newItem)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * load of executor
+     *
+     * @param address
+     * @return null when unknown
+     */
+    public static LoadItem load(String address) {
+        LoadItem item = loadMap.get(address);
+        if (item==null || item.reportTime < System.currentTimeMillis() - RegistryConfig.DEAD_TIMEOUT * 1000L) {
+            return null;
+        }
+        return item;
+    }
+
+    /**
+     * remove dead report
+     */
+    public static void removeDead() {
+        long deadTime = System.currentTimeMillis() - RegistryConfig.DEAD_TIMEOUT * 1000L;
+        for (Iterator<LoadItem> it = loadMap.values().iterator(); it.hasNext(); ) {
+            if (it.next().reportTime < deadTime) {
+                it.remove();
+            }
+        }
+    }
+
+    public static Map<String, Object> getLoadStats() {
+        Map<String, Object> stats = new LinkedHashMap<String, Object>();
+        for (Map.Entry<String, LoadItem> entry : loadMap.entrySet()) {
+            LoadItem item = entry.getValue();
+            Map<String, Object> itemStats = new LinkedHashMap<String, Object>();
+            itemStats.put("load", item.registryLoad.format());
+            itemStats.put("reportTime", item.reportTime);
+            itemStats.put("dispatched", item.dispatched.get());
+            stats.put(entry.getKey(), itemStats);
+        }
+        return stats;
+    }
+
+    public static class LoadItem {
+        private final RegistryLoad registryLoad;
+        private final long reportTime;
+        private final AtomicInteger dispatched = new AtomicInteger(0);      // dispatched by this admin since report
+
+        private LoadItem(RegistryLoad registryLoad, long reportTime) {
+            this.registryLoad = registryLoad;
+            this.reportTime = reportTime;
+        }
+
+        public RegistryLoad getRegistryLoad() {
+            return registryLoad;
+        }
+
+        public long getReportTime() {
+            return reportTime;
+        }
+
+        /**
+         * reported backlog, plus dispatched since report
+         */
+        public int backlog() {
+            return registryLoad.backlog() + dispatched.get();
+        }
+
+        public void dispatch() {
+            dispatched.incrementAndGet();
+        }
+    }
+
+}
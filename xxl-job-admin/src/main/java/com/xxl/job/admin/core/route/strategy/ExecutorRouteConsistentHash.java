@@ -4,44 +4,53 @@ import com.xxl.job.admin.core.route.ExecutorRouter;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.biz.model.TriggerParam;
 
-import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * 分组下机器地址相同，不同JOB均匀散列在不同机器上，保证分组下机器分配JOB平均；且每个JOB固定调度其中一台机器；
  *      a、virtual node：解决不均衡问题
- *      b、hash method replace hashCode：String的hashCode可能重复，需要进一步扩大hashCode的取值范围
+ *      b、hash method replace hashCode：String的hashCode可能重复，需要进一步扩大hashCode的取值范围（md5，与历史版本一致）
+ *      c、ring cache：同一地址列表的哈希环只构建一次（按地址列表指纹缓存，地址变化即使用新环），环为有序数组，二分查找；JOB哈希值同样缓存；
  * Created by xuxueli on 17/3/10.
  */
 public class ExecutorRouteConsistentHash extends ExecutorRouter {
 
     private static int VIRTUAL_NODE_NUM = 100;
+    private static int RING_CACHE_MAX = 1024;
+    private static int JOB_HASH_CACHE_MAX = 100000;
+
+    private final ConcurrentMap<Long, Ring> ringCache = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Long> jobHashCache = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<MessageDigest> MD5 = new ThreadLocal<MessageDigest>() {
+        @Override
+        protected MessageDigest initialValue() {
+            try {
+                return MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException("MD5 not supported", e);
+            }
+        }
+    };
 
     /**
-     * get hash code on 2^32 ring (md5散列的方式计算hash值)
+     * get hash code on 2^32 ring (md5散列的方式计算hash值，与历史版本一致，升级后JOB仍调度原机器)
      * @param key
      * @return
      */
     private static long hash(String key) {
 
         // md5 byte
-        MessageDigest md5;
-        try {
-            md5 = MessageDigest.getInstance("MD5");
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("MD5 not supported", e);
-        }
+        MessageDigest md5 = MD5.get();
         md5.reset();
-        byte[] keyBytes = null;
-        try {
-            keyBytes = key.getBytes("UTF-8");
-        } catch (UnsupportedEncodingException e) {
-            throw new RuntimeException("Unknown string :" + key, e);
-        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
 
         md5.update(keyBytes);
         byte[] digest = md5.digest();
@@ -60,20 +69,47 @@ public class ExecutorRouteConsistentHash extends ExecutorRouter {
 
         // ------A1------A2-------A3------
         // -----------J1------------------
-        TreeMap<Long, String> addressRing = new TreeMap<Long, String>();
-        for (String address: addressList) {
-            for (int i = 0; i < VIRTUAL_NODE_NUM; i++) {
-                long addressHash = hash("SHARD-" + address + "-NODE-" + i);
-                addressRing.put(addressHash, address);
+        Ring addressRing = ring(addressList);
+
+        long jobHash = jobHash(jobId);
+        return addressRing.addresses[addressRing.addressIndexes[addressRing.ceilingIndex(jobHash)]];
+    }
+
+    /**
+     * hash of job, md5 computed once for each job
+     */
+    private long jobHash(int jobId) {
+        Long jobHash = jobHashCache.get(jobId);
+        if (jobHash == null) {
+            jobHash = hash(String.valueOf(jobId));
+            if (jobHashCache.size() >= JOB_HASH_CACHE_MAX) {
+                jobHashCache.clear();
             }
+            jobHashCache.put(jobId, jobHash);
         }
+        return jobHash;
+    }
 
-        long jobHash = hash(String.valueOf(jobId));
-        SortedMap<Long, String> lastRing = addressRing.tailMap(jobHash);
-        if (!lastRing.isEmpty()) {
-            return lastRing.get(lastRing.firstKey());
+    /**
+     * ring of address list, built once for each distinct address list
+     */
+    private Ring ring(List<String> addressList) {
+        long fingerprint = addressList.size();
+        for (String address : addressList) {
+            fingerprint = fingerprint * 31 + address.hashCode();
         }
-        return addressRing.firstEntry().getValue();
+
+        Ring addressRing = ringCache.get(fingerprint);
+        if (addressRing != null && addressRing.match(addressList)) {
+            return addressRing;
+        }
+
+        addressRing = new Ring(addressList);
+        if (ringCache.size() >= RING_CACHE_MAX) {
+            ringCache.clear();     // address lists changed a lot, drop stale rings
+        }
+        ringCache.put(fingerprint, addressRing);
+        return addressRing;
     }
 
     @Override
@@ -82,4 +118,72 @@ public class ExecutorRouteConsistentHash extends ExecutorRouter {
         return new ReturnT<String>(address);
     }
 
+
+    // ---------------------- ring ----------------------
+
+    private static class Ring {
+        private final String[] addresses;
+        private final long[] hashes;            // sorted
+        private final int[] addressIndexes;     // address index of each hash
+
+        private Ring(List<String> addressList) {
+            this.addresses = new ArrayList<String>(addressList).toArray(new String[0]);
+
+            // node = hash << 31 | address index (positive long), sorted by hash
+            long[] nodes = new long[addresses.length * VIRTUAL_NODE_NUM];
+            int n = 0;
+            for (int a = 0; a < addresses.length; a++) {
+                for (int i = 0; i < VIRTUAL_NODE_NUM; i++) {
+                    nodes[n++] = (hash("SHARD-" + addresses[a] + "-NODE-" + i) << 31) | a;
+                }
+            }
+            Arrays.sort(nodes);
+
+            // same hash: the later address wins, as TreeMap ring did
+            int count = 0;
+            for (int i = 0; i < nodes.length; i++) {
+                if (i + 1 < nodes.length && (nodes[i] >>> 31) == (nodes[i + 1] >>> 31)) {
+                    continue;
+                }
+                nodes[count++] = nodes[i];
+            }
+
+            this.hashes = new long[count];
+            this.addressIndexes = new int[count];
+            for (int i = 0; i < count; i++) {
+                hashes[i] = nodes[i] >>> 31;
+                addressIndexes[i] = (int) (nodes[i] & 0x7fffffffL);
+            }
+        }
+
+        private boolean match(List<String> addressList) {
+            if (addressList.size() != addresses.length) {
+                return false;
+            }
+            for (int i = 0; i < addresses.length; i++) {
+                if (!addresses[i].equals(addressList.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * first node at or after hash, wrap to 0
+         */
+        private int ceilingIndex(long hash) {
+            int low = 0;
+            int high = hashes.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (hashes[mid] < hash) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low < hashes.length ? low : 0;
+        }
+    }
+
 }
@@ -4,76 +4,108 @@ import com.xxl.job.admin.core.route.ExecutorRouter;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.biz.model.TriggerParam;
 
-import java.util.*;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * 单个JOB对应的每个执行器，使用频率最低的优先被选举
  *      a(*)、LFU(Least Frequently Used)：最不经常使用，频率/次数
  *      b、LRU(Least Recently Used)：最近最久未使用，时间
  *
+ *      每个JOB维护地址数组及对应的原子计数，选举时扫描最小计数（随机起点，打散相同计数），无锁、无排序、无定期清空；
+ *      地址列表变化时重建，保留地址计数延续，新增地址计数取当前最小值（加入轮转，不会被集中选中）；
+ *
  * Created by xuxueli on 17/3/10.
  */
 public class ExecutorRouteLFU extends ExecutorRouter {
 
-    private static ConcurrentMap<Integer, HashMap<String, Integer>> jobLfuMap = new ConcurrentHashMap<Integer, HashMap<String, Integer>>();
-    private static long CACHE_VALID_TIME = 0;
+    private static ConcurrentMap<Integer, LfuItem> jobLfuMap = new ConcurrentHashMap<Integer, LfuItem>();
 
     public String route(int jobId, List<String> addressList) {
 
-        // cache clear
-        if (System.currentTimeMillis() > CACHE_VALID_TIME) {
-            jobLfuMap.clear();
-            CACHE_VALID_TIME = System.currentTimeMillis() + 1000*60*60*24;
+        // lfu item init, rebuild when address list changed
+        LfuItem lfuItem = jobLfuMap.get(jobId);
+        if (lfuItem == null || !lfuItem.match(addressList)) {
+            LfuItem newLfuItem = new LfuItem(addressList, lfuItem);
+            if (lfuItem == null) {
+                LfuItem existLfuItem = jobLfuMap.putIfAbsent(jobId, newLfuItem);
+                lfuItem = existLfuItem!=null?existLfuItem:newLfuItem;
+            } else {
+                lfuItem = jobLfuMap.replace(jobId, lfuItem, newLfuItem)?newLfuItem:jobLfuMap.get(jobId);
+            }
+            if (lfuItem==null || !lfuItem.match(addressList)) {
+                lfuItem = newLfuItem;       // changed again by other thread, route by own item
+            }
         }
 
-        // lfu item init
-        HashMap<String, Integer> lfuItemMap = jobLfuMap.get(jobId);     // Key排序可以用TreeMap+构造入参Compare；Value排序暂时只能通过ArrayList；
-        if (lfuItemMap == null) {
-            lfuItemMap = new HashMap<String, Integer>();
-            jobLfuMap.putIfAbsent(jobId, lfuItemMap);   // 避免重复覆盖
-        }
+        // load least used count address
+        int index = lfuItem.leastIndex();
+        lfuItem.counts.incrementAndGet(index);
+        return lfuItem.addresses[index];
+    }
+
+    @Override
+    public ReturnT<String> route(TriggerParam triggerParam, List<String> addressList) {
+        String address = route(triggerParam.getJobId(), addressList);
+        return new ReturnT<String>(address);
+    }
+
+    private static class LfuItem {
+        private final String[] addresses;
+        private final AtomicLongArray counts;
+
+        private LfuItem(List<String> addressList, LfuItem oldItem) {
+            this.addresses = addressList.toArray(new String[0]);
+            this.counts = new AtomicLongArray(addresses.length);
 
-        // put new
-        for (String address: addressList) {
-            if (!lfuItemMap.containsKey(address) || lfuItemMap.get(address) >1000000 ) {
-                lfuItemMap.put(address, new Random().nextInt(addressList.size()));  // 初始化时主动Random一次，缓解首次压力
+            if (oldItem != null) {
+                long minCount = oldItem.counts.get(oldItem.leastIndex());
+                for (int i = 0; i < addresses.length; i++) {
+                    int oldIndex = oldItem.indexOf(addresses[i]);
+                    counts.set(i, oldIndex>=0?oldItem.counts.get(oldIndex):minCount);
+                }
             }
         }
-        // remove old
-        List<String> delKeys = new ArrayList<>();
-        for (String existKey: lfuItemMap.keySet()) {
-            if (!addressList.contains(existKey)) {
-                delKeys.add(existKey);
+
+        private boolean match(List<String> addressList) {
+            if (addressList.size() != addresses.length) {
+                return false;
             }
-        }
-        if (delKeys.size() > 0) {
-            for (String delKey: delKeys) {
-                lfuItemMap.remove(delKey);
+            for (int i = 0; i < addresses.length; i++) {
+                if (!addresses[i].equals(addressList.get(i))) {
+                    return false;
+                }
             }
+            return true;
         }
 
-        // load least userd count address
-        List<Map.Entry<String, Integer>> lfuItemList = new ArrayList<Map.Entry<String, Integer>>(lfuItemMap.entrySet());
-        Collections.sort(lfuItemList, new Comparator<Map.Entry<String, Integer>>() {
-            @Override
-            public int compare(Map.Entry<String, Integer> o1, Map.Entry<String, Integer> o2) {
-                return o1.getValue().compareTo(o2.getValue());
+        private int indexOf(String address) {
+            for (int i = 0; i < addresses.length; i++) {
+                if (addresses[i].equals(address)) {
+                    return i;
+                }
             }
-        });
-
-        Map.Entry<String, Integer> addressItem = lfuItemList.get(0);
-        String minAddress = addressItem.getKey();
-        addressItem.setValue(addressItem.getValue() + 1);
-
-        return addressItem.getKey();
-    }
+            return -1;
+        }
 
-    @Override
-    public ReturnT<String> route(TriggerParam triggerParam, List<String> addressList) {
-        String address = route(triggerParam.getJobId(), addressList);
-        return new ReturnT<String>(address);
+        private int leastIndex() {
+            int length = addresses.length;
+            int start = length>1?ThreadLocalRandom.current().nextInt(length):0;
+            int leastIndex = start;
+            long leastCount = counts.get(start);
+            for (int i = 1; i < length; i++) {
+                int index = (start + i) % length;
+                long count = counts.get(index);
+                if (count < leastCount) {
+                    leastIndex = index;
+                    leastCount = count;
+                }
+            }
+            return leastIndex;
+        }
     }
 
 }
@@ -4,67 +4,58 @@ import com.xxl.job.admin.core.route.ExecutorRouter;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.biz.model.TriggerParam;
 
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * 单个JOB对应的每个执行器，最久为使用的优先被选举
  *      a、LFU(Least Frequently Used)：最不经常使用，频率/次数
  *      b(*)、LRU(Least Recently Used)：最近最久未使用，时间
  *
+ *      每个JOB维护地址数组及对应的最近使用序号（JOB内递增时钟），选举时扫描最小序号并CAS抢占为最新序号，抢占失败重新扫描；无锁、无定期清空；
+ *      地址列表变化时重建，保留地址序号延续，新增地址序号为0（最久未使用，优先选举）；
+ *
  * Created by xuxueli on 17/3/10.
  */
 public class ExecutorRouteLRU extends ExecutorRouter {
 
-    private static ConcurrentMap<Integer, LinkedHashMap<String, String>> jobLRUMap = new ConcurrentHashMap<Integer, LinkedHashMap<String, String>>();
-    private static long CACHE_VALID_TIME = 0;
+    private static ConcurrentMap<Integer, LruItem> jobLRUMap = new ConcurrentHashMap<Integer, LruItem>();
 
     public String route(int jobId, List<String> addressList) {
 
-        // cache clear
-        if (System.currentTimeMillis() > CACHE_VALID_TIME) {
-            jobLRUMap.clear();
-            CACHE_VALID_TIME = System.currentTimeMillis() + 1000*60*60*24;
-        }
-
-        // init lru
-        LinkedHashMap<String, String> lruItem = jobLRUMap.get(jobId);
-        if (lruItem == null) {
-            /**
-             * LinkedHashMap
-             *      a、accessOrder：true=访问顺序排序（get/put时排序）；false=插入顺序排期；
-             *      b、removeEldestEntry：新增元素时将会调用，返回true时会删除最老元素；可封装LinkedHashMap并重写该方法，比如定义最大容量，超出是返回true即可实现固定长度的LRU算法；
-             */
-            lruItem = new LinkedHashMap<String, String>(16, 0.75f, true);
-            jobLRUMap.putIfAbsent(jobId, lruItem);
-        }
-
-        // put new
-        for (String address: addressList) {
-            if (!lruItem.containsKey(address)) {
-                lruItem.put(address, address);
+        // init lru, rebuild when address list changed
+        LruItem lruItem = jobLRUMap.get(jobId);
+        if (lruItem == null || !lruItem.match(addressList)) {
+            LruItem newLruItem = new LruItem(addressList, lruItem);
+            if (lruItem == null) {
+                LruItem existLruItem = jobLRUMap.putIfAbsent(jobId, newLruItem);
+                lruItem = existLruItem!=null?existLruItem:newLruItem;
+            } else {
+                lruItem = jobLRUMap.replace(jobId, lruItem, newLruItem)?newLruItem:jobLRUMap.get(jobId);
             }
-        }
-        // remove old
-        List<String> delKeys = new ArrayList<>();
-        for (String existKey: lruItem.keySet()) {
-            if (!addressList.contains(existKey)) {
-                delKeys.add(existKey);
+            if (lruItem==null || !lruItem.match(addressList)) {
+                lruItem = newLruItem;       // changed again by other thread, route by own item
             }
         }
-        if (delKeys.size() > 0) {
-            for (String delKey: delKeys) {
-                lruItem.remove(delKey);
+
+        // load eldest, and mark it newest
+        while (true) {
+            int eldestIndex = 0;
+            long eldestStamp = lruItem.stamps.get(0);
+            for (int i = 1; i < lruItem.addresses.length; i++) {
+                long stamp = lruItem.stamps.get(i);
+                if (stamp < eldestStamp) {
+                    eldestIndex = i;
+                    eldestStamp = stamp;
+                }
+            }
+            if (lruItem.stamps.compareAndSet(eldestIndex, eldestStamp, lruItem.clock.incrementAndGet())) {
+                return lruItem.addresses[eldestIndex];
             }
         }
-
-        // load
-        String eldestKey = lruItem.entrySet().iterator().next().getKey();
-        String eldestValue = lruItem.get(eldestKey);
-        return eldestValue;
     }
 
     @Override
@@ -73,4 +64,39 @@ public class ExecutorRouteLRU extends ExecutorRouter {
         return new ReturnT<String>(address);
     }
 
+    private static class LruItem {
+        private final String[] addresses;
+        private final AtomicLongArray stamps;       // last used clock of each address
+        private final AtomicLong clock;
+
+        private LruItem(List<String> addressList, LruItem oldItem) {
+            this.addresses = addressList.toArray(new String[0]);
+            this.stamps = new AtomicLongArray(addresses.length);
+            this.clock = new AtomicLong(oldItem!=null?oldItem.clock.get():0);
+
+            if (oldItem != null) {
+                for (int i = 0; i < addresses.length; i++) {
+                    for (int j = 0; j < oldItem.addresses.length; j++) {
+                        if (oldItem.addresses[j].equals(addresses[i])) {
+                            stamps.set(i, oldItem.stamps.get(j));
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+
+        private boolean match(List<String> addressList) {
+            if (addressList.size() != addresses.length) {
+                return false;
+            }
+            for (int i = 0; i < addresses.length; i++) {
+                if (!addresses[i].equals(addressList.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
 }
@@ -0,0 +1,72 @@
+package com.xxl.job.admin.core.route.strategy;
+
+import com.xxl.job.admin.core.route.ExecutorLoadCache;
+import com.xxl.job.admin.core.route.ExecutorRouter;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.biz.model.TriggerParam;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 负载最低的执行器优先被选举，负载来自执行器注册心跳上报（JobThread、触发队列、bizThreadPool、系统负载），调度时无额外RPC；
+ *      a、power of two choices：随机选取两台机器，选择负载较低者；避免负载上报存在延迟时，调度集中打到同一台"最空闲"机器；
+ *      b、负载比较：积压（运行中JobThread + 触发队列 + bizThreadPool活跃/排队 + 本调度中心上报后已分配数）优先，相同则比较系统负载；
+ *      c、负载未知（未上报、上报过期、旧版本执行器），退化为随机；
+ */
+public class ExecutorRouteLeastLoaded extends ExecutorRouter {
+
+    public String route(List<String> addressList) {
+        int size = addressList.size();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (size == 1) {
+            dispatch(addressList.get(0));
+            return addressList.get(0);
+        }
+
+        // two choices
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        String address = addressList.get(first);
+        ExecutorLoadCache.LoadItem firstLoad = ExecutorLoadCache.load(address);
+        ExecutorLoadCache.LoadItem secondLoad = ExecutorLoadCache.load(addressList.get(second));
+        if (firstLoad!=null && secondLoad!=null && lessLoaded(secondLoad, firstLoad)) {
+            address = addressList.get(second);
+            firstLoad = secondLoad;
+        }
+
+        if (firstLoad != null) {
+            firstLoad.dispatch();
+        }
+        return address;
+    }
+
+    private static void dispatch(String address) {
+        ExecutorLoadCache.LoadItem loadItem = ExecutorLoadCache.load(address);
+        if (loadItem != null) {
+            loadItem.dispatch();
+        }
+    }
+
+    private static boolean lessLoaded(ExecutorLoadCache.LoadItem one, ExecutorLoadCache.LoadItem other) {
+        int oneBacklog = one.backlog();
+        int otherBacklog = other.backlog();
+        if (oneBacklog != otherBacklog) {
+            return oneBacklog < otherBacklog;
+        }
+        double oneSystemLoad = one.getRegistryLoad().getSystemLoad();
+        double otherSystemLoad = other.getRegistryLoad().getSystemLoad();
+        return oneSystemLoad>=0 && otherSystemLoad>=0 && oneSystemLoad < otherSystemLoad;
+    }
+
+    @Override
+    public ReturnT<String> route(TriggerParam triggerParam, List<String> addressList) {
+        String address = route(addressList);
+        return new ReturnT<String>(address);
+    }
+
+}
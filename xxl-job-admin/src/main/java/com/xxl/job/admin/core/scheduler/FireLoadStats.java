@@ -0,0 +1,57 @@
+package com.xxl.job.admin.core.scheduler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * fire load of last WINDOW_SECONDS, count by second, show how flat the fire load is
+ *
+ *      a、"record" on each fire, slot = second % WINDOW_SECONDS, reset when slot second expired;
+ *      b、"peakPerSecond / avgPerSecond" near 1 means smooth load, large value means burst (e.g. top-of-minute);
+ */
+public class FireLoadStats {
+
+    public static final int WINDOW_SECONDS = 60;
+
+    private final long[] slotSeconds = new long[WINDOW_SECONDS];
+    private final int[] slotCounts = new int[WINDOW_SECONDS];
+    private long totalCount;
+
+    /**
+     * record one fire
+     *
+     * @param fireTime  ms
+     */
+    public synchronized void record(long fireTime) {
+        long second = fireTime / 1000;
+        int slot = (int) (second % WINDOW_SECONDS);
+        if (slotSeconds[slot] != second) {
+            slotSeconds[slot] = second;
+            slotCounts[slot] = 0;
+        }
+        slotCounts[slot]++;
+        totalCount++;
+    }
+
+    public synchronized Map<String, Object> snapshot(long nowTime) {
+        long nowSecond = nowTime / 1000;
+        int peak = 0;
+        long sum = 0;
+        for (int i = 0; i < WINDOW_SECONDS; i++) {
+            // completed seconds in window only
+            if (slotSeconds[i] < nowSecond && slotSeconds[i] >= nowSecond - WINDOW_SECONDS) {
+                peak = Math.max(peak, slotCounts[i]);
+                sum += slotCounts[i];
+            }
+        }
+        double avg = (double) sum / WINDOW_SECONDS;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("firePeakPerSecond", peak);
+        stats.put("fireAvgPerSecond", avg);
+        stats.put("firePeakToAvg", avg > 0 ? peak / avg : 0);
+        stats.put("fireTotalCount", totalCount);
+        return stats;
+    }
+
+}
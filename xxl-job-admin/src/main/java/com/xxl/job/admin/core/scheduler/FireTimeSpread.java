@@ -0,0 +1,64 @@
+package com.xxl.job.admin.core.scheduler;
+
+import com.xxl.job.admin.core.cron.CronExpressionCache;
+import com.xxl.job.admin.core.model.XxlJobInfo;
+
+import java.text.ParseException;
+import java.util.Date;
+
+/**
+ * fire-time spread, shift job fire-time by a fixed offset in its spread window, avoid top-of-minute thundering herd
+ *
+ *      a、offset = hash(jobId) % spreadWindow, deterministic (same offset on all admins and after restart), ms precision;
+ *      b、fire-time = cron-time + offset, next fire-time is found by cron from (fromTime - offset), so chain of fire-time keeps the offset;
+ *      c、spreadWindow <= 0: no offset, same as cron;
+ */
+public class FireTimeSpread {
+
+    public static final int MAX_SPREAD_WINDOW = 300;        // max spread window, second
+
+    /**
+     * fire-time offset of job, ms
+     *
+     * @param jobId
+     * @param spreadWindow  second
+     * @return
+     */
+    public static long offsetMs(int jobId, int spreadWindow) {
+        if (spreadWindow <= 0) {
+            return 0;
+        }
+        int window = Math.min(spreadWindow, MAX_SPREAD_WINDOW) * 1000;
+        return (mix(jobId) & 0x7fffffff) % window;
+    }
+
+    /**
+     * next fire-time after given time, cron-time + offset
+     *
+     * @param jobInfo
+     * @param fromTime
+     * @return  null: never fire
+     * @throws ParseException
+     */
+    public static Date getNextValidTimeAfter(XxlJobInfo jobInfo, Date fromTime) throws ParseException {
+        long offset = offsetMs(jobInfo.getId(), jobInfo.getSpreadWindow());
+        Date cronTime = CronExpressionCache.get(jobInfo.getJobCron()).getNextValidTimeAfter(new Date(fromTime.getTime() - offset));
+        if (cronTime == null) {
+            return null;
+        }
+        return offset == 0 ? cronTime : new Date(cronTime.getTime() + offset);
+    }
+
+    /**
+     * murmur3 fmix32, spread sequential job ids over window
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+}
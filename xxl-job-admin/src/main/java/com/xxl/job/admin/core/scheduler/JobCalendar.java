@@ -0,0 +1,213 @@
+package com.xxl.job.admin.core.scheduler;
+
+import com.xxl.job.admin.core.model.XxlJobCalendar;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * compiled job calendar, excluded days and daily excluded minutes as bitmaps
+ *
+ *      a、day bitmap: 1 bit per local day, from the first excluded day, at most MAX_DAY_SPAN days;
+ *      b、minute bitmap: 1440 bit of minute-of-day, excluded every day (maintenance window);
+ *      c、"isExcluded" is O(1): local day bit + minute bit, no allocation;
+ *
+ * immutable, thread-safe.
+ */
+public class JobCalendar {
+
+    public static final int MAX_DAY_SPAN = 3660;        // about 10 years
+    private static final long DAY_MS = 24 * 60 * 60 * 1000L;
+    private static final long MINUTE_MS = 60 * 1000L;
+    private static final int MINUTES_OF_DAY = 24 * 60;
+
+    private final int id;
+    private final TimeZone timeZone;
+    private final long firstDay;            // epoch day of day bit 0
+    private final long[] dayBits;
+    private final long[] minuteBits = new long[(MINUTES_OF_DAY + 63) / 64];
+    private final boolean allMinutes;       // every minute of day excluded, never fire
+
+    private JobCalendar(int id, TimeZone timeZone, long firstDay, long[] dayBits, List<int[]> minuteRanges) {
+        this.id = id;
+        this.timeZone = timeZone;
+        this.firstDay = firstDay;
+        this.dayBits = dayBits;
+
+        int count = 0;
+        for (int[] range : minuteRanges) {
+            for (int minute = range[0]; minute < range[1]; minute++) {
+                if (!minuteBit(minute)) {
+                    minuteBits[minute >>> 6] |= 1L << minute;
+                    count++;
+                }
+            }
+        }
+        this.allMinutes = count == MINUTES_OF_DAY;
+    }
+
+    /**
+     * compile calendar
+     *
+     * @param calendar
+     * @param timeZone
+     * @return
+     * @throws IllegalArgumentException     invalid day / time format
+     */
+    public static JobCalendar compile(XxlJobCalendar calendar, TimeZone timeZone) {
+
+        // days
+        List<long[]> dayRanges = new ArrayList<>();
+        long minDay = Long.MAX_VALUE;
+        long maxDay = Long.MIN_VALUE;
+        for (String item : split(calendar.getExcludeDays())) {
+            String[] range = item.split("~");
+            if (range.length > 2) {
+                throw new IllegalArgumentException("exclude day unvalid: " + item);
+            }
+            long from = parseDay(range[0]);
+            long to = range.length == 2 ? parseDay(range[1]) : from;
+            if (to < from) {
+                throw new IllegalArgumentException("exclude day unvalid: " + item);
+            }
+            dayRanges.add(new long[]{from, to});
+            minDay = Math.min(minDay, from);
+            maxDay = Math.max(maxDay, to);
+        }
+        long[] dayBits = new long[0];
+        if (!dayRanges.isEmpty()) {
+            if (maxDay - minDay >= MAX_DAY_SPAN) {
+                throw new IllegalArgumentException("exclude day span more than " + MAX_DAY_SPAN + " days");
+            }
+            dayBits = new long[(int) ((maxDay - minDay) / 64 + 1)];
+            for (long[] range : dayRanges) {
+                for (long day = range[0]; day <= range[1]; day++) {
+                    int bit = (int) (day - minDay);
+                    dayBits[bit >>> 6] |= 1L << bit;
+                }
+            }
+        }
+
+        // times
+        List<int[]> minuteRanges = new ArrayList<>();
+        for (String item : split(calendar.getExcludeTimes())) {
+            String[] range = item.split("-");
+            if (range.length != 2) {
+                throw new IllegalArgumentException("exclude time unvalid: " + item);
+            }
+            int from = parseMinute(range[0]);
+            int to = parseMinute(range[1]);
+            if (from == to) {
+                throw new IllegalArgumentException("exclude time unvalid: " + item);
+            } else if (from < to) {
+                minuteRanges.add(new int[]{from, to});
+            } else {
+                // cross midnight
+                minuteRanges.add(new int[]{from, MINUTES_OF_DAY});
+                minuteRanges.add(new int[]{0, to});
+            }
+        }
+
+        return new JobCalendar(calendar.getId(), timeZone, dayRanges.isEmpty() ? 0 : minDay, dayBits, minuteRanges);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * every minute of day excluded
+     */
+    public boolean isAllExcluded() {
+        return allMinutes;
+    }
+
+    /**
+     * fire-time excluded by calendar
+     */
+    public boolean isExcluded(long time) {
+        long localTime = time + timeZone.getOffset(time);
+        return dayBit(Math.floorDiv(localTime, DAY_MS))
+                || minuteBit((int) (Math.floorMod(localTime, DAY_MS) / MINUTE_MS));
+    }
+
+    /**
+     * first time not excluded, at or after given time
+     *
+     * @return  -1: all excluded
+     */
+    public long nextIncluded(long time) {
+        if (allMinutes) {
+            return -1;
+        }
+        while (true) {
+            int offset = timeZone.getOffset(time);
+            long localTime = time + offset;
+            long day = Math.floorDiv(localTime, DAY_MS);
+            if (dayBit(day)) {
+                // next local day
+                time = (day + 1) * DAY_MS - offset;
+                continue;
+            }
+            int minute = (int) (Math.floorMod(localTime, DAY_MS) / MINUTE_MS);
+            if (!minuteBit(minute)) {
+                return time;
+            }
+            int includedMinute = minute;
+            while (includedMinute < MINUTES_OF_DAY && minuteBit(includedMinute)) {
+                includedMinute++;
+            }
+            time = day * DAY_MS + includedMinute * MINUTE_MS - offset;
+        }
+    }
+
+    private boolean dayBit(long day) {
+        long bit = day - firstDay;
+        return bit >= 0 && bit < (long) dayBits.length * 64 && (dayBits[(int) (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    private boolean minuteBit(int minute) {
+        return (minuteBits[minute >>> 6] & (1L << minute)) != 0;
+    }
+
+
+    // ---------------------- parse ----------------------
+
+    private static List<String> split(String value) {
+        List<String> items = new ArrayList<>();
+        if (value != null) {
+            for (String item : value.split(",")) {
+                if (item.trim().length() > 0) {
+                    items.add(item.trim());
+                }
+            }
+        }
+        return items;
+    }
+
+    private static long parseDay(String day) {
+        try {
+            return LocalDate.parse(day.trim()).toEpochDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("exclude day unvalid: " + day);
+        }
+    }
+
+    private static int parseMinute(String time) {
+        String[] hm = time.trim().split(":");
+        try {
+            int hour = Integer.parseInt(hm[0]);
+            int minute = hm.length > 1 ? Integer.parseInt(hm[1]) : 0;
+            if (hm.length <= 2 && hour >= 0 && minute >= 0 && minute < 60 && hour * 60 + minute <= MINUTES_OF_DAY) {
+                return hour * 60 + minute;
+            }
+        } catch (NumberFormatException e) {
+            // unvalid
+        }
+        throw new IllegalArgumentException("exclude time unvalid: " + time);
+    }
+
+}
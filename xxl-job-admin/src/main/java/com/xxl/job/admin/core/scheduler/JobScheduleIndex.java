@@ -0,0 +1,143 @@
+package com.xxl.job.admin.core.scheduler;
+
+import com.xxl.job.admin.core.model.XxlJobInfo;
+
+import java.util.*;
+
+/**
+ * in-memory schedule index, running jobs ordered by trigger-next-time
+ *
+ *      a、hold schedule columns only (id, job_cron, misfire_strategy, spread_window, calendar_id, trigger_status, trigger_last_time, trigger_next_time);
+ *      b、"pollDue" removes due jobs, the caller computes next-trigger-time and "reschedule" them back;
+ *      c、rescheduled jobs are marked dirty, and written behind to db by "drainDirty";
+ *
+ * not thread-safe, owned by the schedule thread.
+ */
+public class JobScheduleIndex {
+
+    private static final Comparator<XxlJobInfo> NEXT_TIME_ORDER = new Comparator<XxlJobInfo>() {
+        @Override
+        public int compare(XxlJobInfo o1, XxlJobInfo o2) {
+            int ret = Long.compare(o1.getTriggerNextTime(), o2.getTriggerNextTime());
+            return ret != 0 ? ret : Integer.compare(o1.getId(), o2.getId());
+        }
+    };
+
+    private final TreeSet<XxlJobInfo> timeIndex = new TreeSet<>(NEXT_TIME_ORDER);
+    private final Map<Integer, XxlJobInfo> jobIndex = new HashMap<>();
+    private final Set<Integer> dirtyJobIds = new LinkedHashSet<>();
+
+    /**
+     * load job from db
+     *
+     * @param jobInfo
+     * @return  false: job not running, not indexed
+     */
+    public boolean put(XxlJobInfo jobInfo) {
+        remove(jobInfo.getId());
+        if (jobInfo.getTriggerStatus() != 1) {
+            return false;
+        }
+        jobIndex.put(jobInfo.getId(), jobInfo);
+        timeIndex.add(jobInfo);
+        return true;
+    }
+
+    public XxlJobInfo get(int jobId) {
+        return jobIndex.get(jobId);
+    }
+
+    public XxlJobInfo remove(int jobId) {
+        XxlJobInfo jobInfo = jobIndex.remove(jobId);
+        if (jobInfo != null) {
+            timeIndex.remove(jobInfo);
+        }
+        dirtyJobIds.remove(jobId);
+        return jobInfo;
+    }
+
+    /**
+     * remove jobs not in given id set (deleted or stopped)
+     */
+    public void retain(Set<Integer> jobIds) {
+        List<Integer> removeIds = new ArrayList<>();
+        for (Integer jobId : jobIndex.keySet()) {
+            if (!jobIds.contains(jobId)) {
+                removeIds.add(jobId);
+            }
+        }
+        for (Integer jobId : removeIds) {
+            remove(jobId);
+        }
+    }
+
+    /**
+     * poll jobs which trigger-next-time <= maxNextTime, in time order
+     */
+    public List<XxlJobInfo> pollDue(long maxNextTime) {
+        List<XxlJobInfo> dueList = new ArrayList<>();
+        while (!timeIndex.isEmpty() && timeIndex.first().getTriggerNextTime() <= maxNextTime) {
+            XxlJobInfo jobInfo = timeIndex.pollFirst();
+            jobIndex.remove(jobInfo.getId());
+            dueList.add(jobInfo);
+        }
+        return dueList;
+    }
+
+    /**
+     * put back polled job after next-trigger-time refreshed, mark dirty
+     */
+    public void reschedule(XxlJobInfo jobInfo) {
+        if (put(jobInfo)) {
+            dirtyJobIds.add(jobInfo.getId());
+        }
+    }
+
+    /**
+     * drain dirty jobs to write behind
+     */
+    public List<XxlJobInfo> drainDirty() {
+        List<XxlJobInfo> dirtyList = new ArrayList<>(dirtyJobIds.size());
+        for (Integer jobId : dirtyJobIds) {
+            XxlJobInfo jobInfo = jobIndex.get(jobId);
+            if (jobInfo != null) {
+                dirtyList.add(jobInfo);
+            }
+        }
+        dirtyJobIds.clear();
+        return dirtyList;
+    }
+
+    /**
+     * mark dirty again, when write behind fail
+     */
+    public void markDirty(List<XxlJobInfo> jobList) {
+        for (XxlJobInfo jobInfo : jobList) {
+            if (jobIndex.containsKey(jobInfo.getId())) {
+                dirtyJobIds.add(jobInfo.getId());
+            }
+        }
+    }
+
+    public int dirtySize() {
+        return dirtyJobIds.size();
+    }
+
+    public void clear() {
+        timeIndex.clear();
+        jobIndex.clear();
+        dirtyJobIds.clear();
+    }
+
+    public int size() {
+        return jobIndex.size();
+    }
+
+    /**
+     * earliest trigger-next-time, -1 if empty
+     */
+    public long firstNextTime() {
+        return timeIndex.isEmpty() ? -1 : timeIndex.first().getTriggerNextTime();
+    }
+
+}
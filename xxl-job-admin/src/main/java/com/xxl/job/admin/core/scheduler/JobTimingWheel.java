@@ -0,0 +1,215 @@
+package com.xxl.job.admin.core.scheduler;
+
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * hierarchical timing wheel, hold job trigger-time in memory until fire
+ *
+ *      a、level-0 wheel: tick = tickMs (default 1ms), the bucket expiration is "floor(fireTime / tickMs) * tickMs";
+ *      b、overflow wheel: tick = interval of the lower level, created lazily, so any horizon can be held;
+ *      c、only non-empty buckets are queued in a DelayQueue, the ring thread sleeps until the next bucket expires (no empty tick);
+ *
+ * firing-accuracy guarantee (tickMs = 1):
+ *      an entry never fires before its fire-time (ms), and fires at most "1 tick + ring thread dispatch delay" after it;
+ *
+ * thread-safe: "add" may be called from any thread, "advance" must be called from a single (ring) thread.
+ */
+public class JobTimingWheel {
+
+    /**
+     * fire callback, run in ring thread
+     */
+    public interface FireHandler {
+        void fire(int jobId, long fireTime);
+    }
+
+    private final DelayQueue<Bucket> delayQueue = new DelayQueue<>();
+    private final AtomicInteger size = new AtomicInteger(0);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Wheel wheel;
+
+    public JobTimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs < 1 || wheelSize < 2) {
+            throw new IllegalArgumentException("xxl-job, timing wheel tickMs must >= 1 and wheelSize must >= 2.");
+        }
+        this.wheel = new Wheel(tickMs, wheelSize, startMs);
+    }
+
+    /**
+     * add job to wheel
+     *
+     * @param jobId
+     * @param fireTime
+     * @return  false: fire-time already due, caller should fire it directly
+     */
+    public boolean add(int jobId, long fireTime) {
+        lock.readLock().lock();
+        try {
+            boolean ret = wheel.add(new Entry(jobId, fireTime));
+            if (ret) {
+                size.incrementAndGet();
+            }
+            return ret;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * wait at most timeoutMs for due buckets, and fire all due entries
+     *
+     * @param timeoutMs
+     * @param fireHandler
+     * @return  fire count
+     * @throws InterruptedException
+     */
+    public int advance(long timeoutMs, FireHandler fireHandler) throws InterruptedException {
+        Bucket bucket = delayQueue.poll(timeoutMs, TimeUnit.MILLISECONDS);
+        int fireCount = 0;
+        while (bucket != null) {
+            Entry entry;
+            lock.writeLock().lock();
+            try {
+                wheel.advanceClock(bucket.getExpiration());
+                entry = bucket.flush();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            // re-insert into lower level, fire when due
+            while (entry != null) {
+                Entry next = entry.next;
+                entry.next = null;
+                size.decrementAndGet();
+                if (!add(entry.jobId, entry.fireTime)) {
+                    fireHandler.fire(entry.jobId, entry.fireTime);
+                    fireCount++;
+                }
+                entry = next;
+            }
+            bucket = delayQueue.poll();
+        }
+        return fireCount;
+    }
+
+    /**
+     * entry count waiting in wheel
+     */
+    public int size() {
+        return size.get();
+    }
+
+
+    // ---------------------- wheel ----------------------
+
+    private class Wheel {
+        private final long tickMs;
+        private final int wheelSize;
+        private final long interval;
+        private final Bucket[] buckets;
+        private volatile long currentTime;      // multiple of tickMs
+        private volatile Wheel overflowWheel;
+
+        Wheel(long tickMs, int wheelSize, long startMs) {
+            this.tickMs = tickMs;
+            this.wheelSize = wheelSize;
+            this.interval = tickMs * wheelSize;
+            this.buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Bucket();
+            }
+            this.currentTime = startMs - (startMs % tickMs);
+        }
+
+        private Wheel overflowWheel() {
+            if (overflowWheel == null) {
+                synchronized (this) {
+                    if (overflowWheel == null) {
+                        overflowWheel = new Wheel(interval, wheelSize, currentTime);
+                    }
+                }
+            }
+            return overflowWheel;
+        }
+
+        boolean add(Entry entry) {
+            long fireTime = entry.fireTime;
+            if (fireTime < currentTime + tickMs) {
+                // already due
+                return false;
+            } else if (fireTime < currentTime + interval) {
+                long virtualId = fireTime / tickMs;
+                Bucket bucket = buckets[(int) (virtualId % wheelSize)];
+                bucket.add(entry);
+                if (bucket.setExpiration(virtualId * tickMs)) {
+                    // bucket expiration changed, (re)queue it
+                    delayQueue.offer(bucket);
+                }
+                return true;
+            } else {
+                return overflowWheel().add(entry);
+            }
+        }
+
+        void advanceClock(long timeMs) {
+            if (timeMs >= currentTime + tickMs) {
+                currentTime = timeMs - (timeMs % tickMs);
+                if (overflowWheel != null) {
+                    overflowWheel.advanceClock(currentTime);
+                }
+            }
+        }
+    }
+
+    private static class Bucket implements Delayed {
+        private final AtomicLong expiration = new AtomicLong(-1L);
+        private Entry head;
+
+        synchronized void add(Entry entry) {
+            entry.next = head;
+            head = entry;
+        }
+
+        synchronized Entry flush() {
+            Entry entries = head;
+            head = null;
+            expiration.set(-1L);
+            return entries;
+        }
+
+        boolean setExpiration(long expirationMs) {
+            return expiration.getAndSet(expirationMs) != expirationMs;
+        }
+
+        long getExpiration() {
+            return expiration.get();
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Math.max(getExpiration() - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return Long.compare(getExpiration(), ((Bucket) o).getExpiration());
+        }
+    }
+
+    private static class Entry {
+        private final int jobId;
+        private final long fireTime;
+        private Entry next;
+
+        Entry(int jobId, long fireTime) {
+            this.jobId = jobId;
+            this.fireTime = fireTime;
+        }
+    }
+
+}
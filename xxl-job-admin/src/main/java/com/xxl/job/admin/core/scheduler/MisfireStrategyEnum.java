@@ -0,0 +1,46 @@
+package com.xxl.job.admin.core.scheduler;
+
+import com.xxl.job.admin.core.util.I18nUtil;
+
+/**
+ * misfire strategy, when trigger-next-time expired more than "JobScheduleHelper.PRE_READ_MS"
+ */
+public enum MisfireStrategyEnum {
+
+    /**
+     * skip missed triggers, make next-trigger-time from now
+     */
+    DO_NOTHING(I18nUtil.getString("jobconf_misfire_DO_NOTHING")),
+
+    /**
+     * trigger once now, make next-trigger-time from now
+     */
+    FIRE_ONCE_NOW(I18nUtil.getString("jobconf_misfire_FIRE_ONCE_NOW")),
+
+    /**
+     * trigger each missed fire-time (at most "xxl.job.misfire.catchup.max"), make next-trigger-time from now
+     */
+    FIRE_ALL_MISSED(I18nUtil.getString("jobconf_misfire_FIRE_ALL_MISSED"));
+
+    MisfireStrategyEnum(String title) {
+        this.title = title;
+    }
+
+    private String title;
+
+    public String getTitle() {
+        return title;
+    }
+
+    public static MisfireStrategyEnum match(String name, MisfireStrategyEnum defaultItem){
+        if (name != null) {
+            for (MisfireStrategyEnum item: MisfireStrategyEnum.values()) {
+                if (item.name().equals(name)) {
+                    return item;
+                }
+            }
+        }
+        return defaultItem;
+    }
+
+}
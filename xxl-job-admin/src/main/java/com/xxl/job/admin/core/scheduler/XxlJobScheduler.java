@@ -4,8 +4,10 @@ import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
 import com.xxl.job.admin.core.thread.*;
 import com.xxl.job.admin.core.util.I18nUtil;
 import com.xxl.job.core.biz.ExecutorBiz;
+import com.xxl.job.core.biz.client.ExecutorBizAsyncClient;
 import com.xxl.job.core.biz.client.ExecutorBizClient;
 import com.xxl.job.core.enums.ExecutorBlockStrategyEnum;
+import com.xxl.job.core.util.XxlJobAsyncHttpClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,12 +35,39 @@ public class XxlJobScheduler  {
         // admin lose-monitor run
         JobLosedMonitorHelper.getInstance().start();
 
+        // admin log write-behind start
+        JobLogBatchHelper.getInstance().start();
+
+        // admin async executor-client start
+        initExecutorBizAsync();
+
+        // admin trigger batch start
+        JobTriggerBatchHelper.getInstance().start();
+
+        // admin executor probe start
+        ExecutorProbeHelper.getInstance().start();
+
         // admin trigger pool start
         JobTriggerPoolHelper.toStart();
 
+        // admin trigger spill replay start
+        JobTriggerSpillHelper.getInstance().start();
+
         // admin log report start
         JobLogReportHelper.getInstance().start();
 
+        // job calendar start
+        JobCalendarHelper.getInstance().start();
+
+        // misfire catch-up start
+        JobMisfireHelper.getInstance().start();
+
+        // schedule bucket start
+        JobScheduleBucketHelper.getInstance().start();
+
+        // schedule leader start (memory mode)
+        JobScheduleLeaderHelper.getInstance().start();
+
         // start-schedule
         JobScheduleHelper.getInstance().start();
 
@@ -51,12 +80,42 @@ public class XxlJobScheduler  {
         // stop-schedule
         JobScheduleHelper.getInstance().toStop();
 
+        // misfire catch-up stop
+        JobMisfireHelper.getInstance().toStop();
+
+        // job calendar stop
+        JobCalendarHelper.getInstance().toStop();
+
+        // schedule leader stop
+        JobScheduleLeaderHelper.getInstance().toStop();
+
+        // schedule bucket stop
+        JobScheduleBucketHelper.getInstance().toStop();
+
         // admin log report stop
         JobLogReportHelper.getInstance().toStop();
 
+        // admin trigger spill replay stop (keep left in spill file)
+        JobTriggerSpillHelper.getInstance().toStop();
+
         // admin trigger pool stop
         JobTriggerPoolHelper.toStop();
 
+        // admin trigger batch stop (send left batches)
+        JobTriggerBatchHelper.getInstance().toStop();
+
+        // admin executor probe stop
+        ExecutorProbeHelper.getInstance().toStop();
+
+        // admin async executor-client stop (fail in-flight)
+        destroyExecutorBizAsync();
+
+        // admin trigger complete pool stop (write left trigger results, before log write-behind stop)
+        JobTriggerPoolHelper.toStopComplete();
+
+        // admin log write-behind stop (write left logs)
+        JobLogBatchHelper.getInstance().toStop();
+
         // admin lose-monitor stop
         JobLosedMonitorHelper.getInstance().toStop();
 
@@ -98,4 +157,63 @@ public class XxlJobScheduler  {
         return executorBiz;
     }
 
+    // ---------------------- executor-client (async) ----------------------
+    private static final int ASYNC_MAX_PENDING = 10000;     // per executor address, requests waiting for connection
+    private static volatile XxlJobAsyncHttpClient asyncHttpClient;
+    private static ConcurrentMap<String, ExecutorBizAsyncClient> executorBizAsyncRepository = new ConcurrentHashMap<String, ExecutorBizAsyncClient>();
+
+    private void initExecutorBizAsync() {
+        if (!XxlJobAdminConfig.getAdminConfig().isTriggerAsync()) {
+            return;
+        }
+        asyncHttpClient = new XxlJobAsyncHttpClient(Runtime.getRuntime().availableProcessors(),
+                XxlJobAdminConfig.getAdminConfig().getTriggerMaxConnections(),
+                ASYNC_MAX_PENDING);
+        logger.info(">>>>>>>>> xxl-job admin async trigger enabled, maxconnections:{}", XxlJobAdminConfig.getAdminConfig().getTriggerMaxConnections());
+    }
+
+    private void destroyExecutorBizAsync() {
+        XxlJobAsyncHttpClient httpClient = asyncHttpClient;
+        asyncHttpClient = null;
+        executorBizAsyncRepository.clear();
+        if (httpClient != null) {
+            httpClient.close();
+        }
+    }
+
+    /**
+     * async executor-client
+     *
+     * @param address
+     * @return  null: async trigger disabled, or address invalid
+     */
+    public static ExecutorBizAsyncClient getExecutorBizAsync(String address) {
+        // valid
+        XxlJobAsyncHttpClient httpClient = asyncHttpClient;
+        if (httpClient==null || address==null || address.trim().length()==0) {
+            return null;
+        }
+
+        // load-cache
+        address = address.trim();
+        ExecutorBizAsyncClient executorBiz = executorBizAsyncRepository.get(address);
+        if (executorBiz != null) {
+            return executorBiz;
+        }
+
+        // set-cache
+        executorBiz = new ExecutorBizAsyncClient(address, XxlJobAdminConfig.getAdminConfig().getAccessToken(), httpClient);
+
+        executorBizAsyncRepository.put(address, executorBiz);
+        return executorBiz;
+    }
+
+    /**
+     * async trigger, requests waiting for connection or response
+     */
+    public static int getAsyncInflight() {
+        XxlJobAsyncHttpClient httpClient = asyncHttpClient;
+        return httpClient!=null?httpClient.getInflight():0;
+    }
+
 }
@@ -0,0 +1,263 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.route.ExecutorCircuitBreaker;
+import com.xxl.job.core.biz.model.ReturnT;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * executor probe (beat / idleBeat) for FAILOVER / BUSYOVER route
+ *
+ *      a、probe all address concurrently, take the first acceptable reply, overall deadline "xxl.job.trigger.probetimeout"；
+ *      b、probe result cached per address for "xxl.job.trigger.probecachettl", in-flight probe shared by concurrent triggers；
+ *      c、cached acceptable reply is taken in address order, without probing other address；
+ *      d、probe is given the time left to deadline as its own timeout, hung probe gives up (pool thread released) at deadline, not client timeout；
+ */
+public class ExecutorProbeHelper {
+    private static Logger logger = LoggerFactory.getLogger(ExecutorProbeHelper.class);
+
+    private static ExecutorProbeHelper instance = new ExecutorProbeHelper();
+    public static ExecutorProbeHelper getInstance(){
+        return instance;
+    }
+
+    private static final int PROBE_THREADS = 64;
+    private static final int PROBE_QUEUE = 2000;
+    private static final int PROBE_CACHE_MAX = 4096;
+
+    public interface Probe {
+        /**
+         * @param address
+         * @param timeoutMillis     give up after it (time left to deadline)
+         */
+        ReturnT<String> probe(String address, int timeoutMillis) throws Exception;
+    }
+
+    private volatile ThreadPoolExecutor probePool;
+    private final ConcurrentMap<String, ProbeEntry> probeCache = new ConcurrentHashMap<String, ProbeEntry>();
+
+    public void start(){
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                PROBE_THREADS,
+                PROBE_THREADS,
+                60L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(PROBE_QUEUE),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "xxl-job, admin ExecutorProbeHelper-probePool-" + r.hashCode());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        pool.allowCoreThreadTimeOut(true);
+        probePool = pool;
+    }
+
+    public void toStop(){
+        ThreadPoolExecutor pool = probePool;
+        probePool = null;
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+        probeCache.clear();
+        logger.info(">>>>>>>>>>> xxl-job, executor probe pool stop.");
+    }
+
+    /**
+     * probe address list, first acceptable reply
+     *
+     * @param addressList
+     * @param probeKey      probe kind, cache key with address
+     * @param probeTitle    title in result msg
+     * @param consume       remove cached reply when taken (idleBeat, executor will be busy after trigger)
+     * @param probe
+     * @return  content: address taken；fail when no acceptable reply before deadline
+     */
+    public ReturnT<String> probeFirst(List<String> addressList, String probeKey, String probeTitle, boolean consume, Probe probe) {
+        int size = addressList.size();
+        ProbeEntry[] entries = new ProbeEntry[size];
+        long now = System.currentTimeMillis();
+
+        // cached acceptable reply, in address order
+        for (int i = 0; i < size; i++) {
+            ProbeEntry entry = probeCache.get(cacheKey(addressList.get(i), probeKey));
+            if (entry==null || !entry.isValid(now)) {
+                continue;
+            }
+            entries[i] = entry;
+            if (entry.future.isDone() && entry.future.join().getCode() == ReturnT.SUCCESS_CODE) {
+                return take(addressList, probeKey, probeTitle, consume, entries, i);
+            }
+        }
+
+        // probe left address concurrently
+        long deadline = now + XxlJobAdminConfig.getAdminConfig().getTriggerProbeTimeout();
+        final LinkedBlockingQueue<Integer> doneQueue = new LinkedBlockingQueue<Integer>();
+        for (int i = 0; i < size; i++) {
+            if (entries[i] == null) {
+                entries[i] = loadOrProbe(addressList.get(i), probeKey, probe, now, deadline);
+            }
+            final int index = i;
+            entries[i].future.whenComplete(new BiConsumer<ReturnT<String>, Throwable>() {
+                @Override
+                public void accept(ReturnT<String> result, Throwable throwable) {
+                    doneQueue.offer(index);
+                }
+            });
+        }
+
+        // first acceptable reply, before deadline
+        try {
+            for (int done = 0; done < size; done++) {
+                long wait = deadline - System.currentTimeMillis();
+                Integer index = wait>0?doneQueue.poll(wait, TimeUnit.MILLISECONDS):null;
+                if (index == null) {
+                    break;      // deadline
+                }
+                if (entries[index].future.join().getCode() == ReturnT.SUCCESS_CODE) {
+                    return take(addressList, probeKey, probeTitle, consume, entries, index);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        return new ReturnT<String>(ReturnT.FAIL_CODE, resultMsg(addressList, probeTitle, entries));
+    }
+
+    /**
+     * probe single address in background, in-flight or cached probe shared
+     *
+     * @param address
+     * @param probeKey
+     * @param probe
+     * @return
+     */
+    public CompletableFuture<ReturnT<String>> probeAsync(String address, String probeKey, Probe probe) {
+        long now = System.currentTimeMillis();
+        return loadOrProbe(address, probeKey, probe, now, now + XxlJobAdminConfig.getAdminConfig().getTriggerProbeTimeout()).future;
+    }
+
+    private ReturnT<String> take(List<String> addressList, String probeKey, String probeTitle, boolean consume, ProbeEntry[] entries, int index) {
+        String address = addressList.get(index);
+        if (consume) {
+            probeCache.remove(cacheKey(address, probeKey), entries[index]);
+        }
+        ReturnT<String> result = new ReturnT<String>(ReturnT.SUCCESS_CODE, resultMsg(addressList, probeTitle, entries));
+        result.setContent(address);
+        return result;
+    }
+
+    private ProbeEntry loadOrProbe(final String address, String probeKey, final Probe probe, long now, final long deadline) {
+        String cacheKey = cacheKey(address, probeKey);
+        ProbeEntry entry = probeCache.get(cacheKey);
+        if (entry!=null && entry.isValid(now)) {
+            return entry;
+        }
+
+        // probe
+        final ProbeEntry newEntry = new ProbeEntry();
+        Supplier<ReturnT<String>> probeSupplier = new Supplier<ReturnT<String>>() {
+            @Override
+            public ReturnT<String> get() {
+                long probeStart = System.currentTimeMillis();
+                if (probeStart >= deadline) {
+                    // queued in pool past deadline, not probed
+                    newEntry.expireTime = 0;
+                    return new ReturnT<String>(ReturnT.FAIL_CODE, "probe timeout");
+                }
+                ReturnT<String> result;
+                try {
+                    result = probe.probe(address, (int) (deadline - probeStart));
+                } catch (Exception e) {
+                    if (e instanceof InterruptedException || Thread.currentThread().isInterrupted()) {
+                        // interrupted at shutdown (pool shutdownNow), not an executor failure
+                        logger.debug(">>>>>>>>>>> xxl-job, executor probe interrupted, address:{}", address);
+                        newEntry.expireTime = 0;
+                        return new ReturnT<String>(ReturnT.FAIL_CODE, "xxl-job, executor probe interrupted");
+                    }
+                    logger.error(e.getMessage(), e);
+                    result = new ReturnT<String>(ReturnT.FAIL_CODE, ""+e );
+                }
+                if (result == null) {
+                    result = new ReturnT<String>(ReturnT.FAIL_CODE, "probe result is null");
+                }
+                ExecutorCircuitBreaker.record(address, result, System.currentTimeMillis() - probeStart);
+                newEntry.expireTime = System.currentTimeMillis() + XxlJobAdminConfig.getAdminConfig().getTriggerProbeCacheTtl();
+                return result;
+            }
+        };
+        ThreadPoolExecutor pool = probePool;
+        try {
+            newEntry.future = pool!=null
+                    ?CompletableFuture.supplyAsync(probeSupplier, pool)
+                    :CompletableFuture.completedFuture(probeSupplier.get());     // not started, probe in caller thread
+        } catch (RejectedExecutionException e) {
+            newEntry.future = CompletableFuture.completedFuture(new ReturnT<String>(ReturnT.FAIL_CODE, "xxl-job, executor probe pool is EXHAUSTED!"));
+            return newEntry;
+        }
+
+        if (probeCache.size() >= PROBE_CACHE_MAX) {
+            removeExpired(now);
+        }
+        probeCache.put(cacheKey, newEntry);
+        return newEntry;
+    }
+
+    private void removeExpired(long now) {
+        for (Iterator<ProbeEntry> it = probeCache.values().iterator(); it.hasNext(); ) {
+            if (!it.next().isValid(now)) {
+                it.remove();
+            }
+        }
+    }
+
+    private static String cacheKey(String address, String probeKey) {
+        return probeKey.concat("#").concat(address);
+    }
+
+    private static String resultMsg(List<String> addressList, String probeTitle, ProbeEntry[] entries) {
+        StringBuffer resultSB = new StringBuffer();
+        for (int i = 0; i < entries.length; i++) {
+            ReturnT<String> result = entries[i].future.isDone()
+                    ?entries[i].future.join()
+                    :new ReturnT<String>(ReturnT.FAIL_CODE, "probe timeout");
+            resultSB.append( (resultSB.length()>0)?"<br><br>":"")
+                    .append(probeTitle + "：")
+                    .append("<br>address：").append(addressList.get(i))
+                    .append("<br>code：").append(result.getCode())
+                    .append("<br>msg：").append(result.getMsg());
+        }
+        return resultSB.toString();
+    }
+
+    public Map<String, Object> getProbeStats() {
+        Map<String, Object> stats = new LinkedHashMap<String, Object>();
+        ThreadPoolExecutor pool = probePool;
+        stats.put("probeActiveCount", pool!=null?pool.getActiveCount():0);
+        stats.put("probeQueueSize", pool!=null?pool.getQueue().size():0);
+        stats.put("probeCacheSize", probeCache.size());
+        return stats;
+    }
+
+    private static class ProbeEntry {
+        private volatile CompletableFuture<ReturnT<String>> future;
+        private volatile long expireTime = Long.MAX_VALUE;      // probe done time + ttl, in-flight probe never expire
+
+        private boolean isValid(long now) {
+            return future!=null && (!future.isDone() || expireTime > now);
+        }
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.model.XxlJobCalendar;
+import com.xxl.job.admin.core.model.XxlJobInfo;
+import com.xxl.job.admin.core.scheduler.FireTimeSpread;
+import com.xxl.job.admin.core.scheduler.JobCalendar;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * job calendar helper, compiled calendars in memory
+ *
+ *      a、calendars are loaded and compiled each REFRESH_INTERVAL (edited on other admin), or at once by "refresh" after edit;
+ *      b、next fire-time skips excluded fire-time: jump to the end of the excluded span, then find next fire-time by cron;
+ *      c、calendar not found (0, or removed): no exclusion;
+ *      d、calendar excluding all time: job keeps running by cron, each fire-time skipped when fire, never stopped (calendar may be edited back);
+ */
+public class JobCalendarHelper {
+    private static Logger logger = LoggerFactory.getLogger(JobCalendarHelper.class);
+
+    private static JobCalendarHelper instance = new JobCalendarHelper();
+    public static JobCalendarHelper getInstance(){
+        return instance;
+    }
+
+    public static final long REFRESH_INTERVAL = 30;     // second
+    public static final int MAX_SKIP = 1000;            // max excluded spans skipped in one next fire-time
+
+    private volatile Map<Integer, JobCalendar> calendarMap = Collections.emptyMap();
+
+    private Thread refreshThread;
+    private volatile boolean toStop = false;
+
+    public void start(){
+        refresh();
+
+        refreshThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!toStop) {
+                    try {
+                        TimeUnit.SECONDS.sleep(REFRESH_INTERVAL);
+                    } catch (InterruptedException e) {
+                        if (!toStop) {
+                            logger.error(e.getMessage(), e);
+                        }
+                    }
+                    if (!toStop) {
+                        refresh();
+                    }
+                }
+                logger.info(">>>>>>>>>>> xxl-job, JobCalendarHelper#refreshThread stop");
+            }
+        });
+        refreshThread.setDaemon(true);
+        refreshThread.setName("xxl-job, admin JobCalendarHelper#refreshThread");
+        refreshThread.start();
+    }
+
+    public void toStop(){
+        toStop = true;
+        if (refreshThread == null) {
+            return;
+        }
+        // interrupt and wait
+        refreshThread.interrupt();
+        try {
+            refreshThread.join();
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * load and compile all calendars
+     */
+    public void refresh() {
+        try {
+            List<XxlJobCalendar> calendarList = XxlJobAdminConfig.getAdminConfig().getXxlJobCalendarDao().findAll();
+            Map<Integer, JobCalendar> newCalendarMap = new HashMap<>();
+            for (XxlJobCalendar calendar : calendarList) {
+                try {
+                    JobCalendar jobCalendar = JobCalendar.compile(calendar, TimeZone.getDefault());
+                    if (jobCalendar.isAllExcluded()) {
+                        logger.warn(">>>>>>>>>>> xxl-job, job calendar excludes all time, related jobs never fire, calendarId = {}", calendar.getId());
+                    }
+                    newCalendarMap.put(calendar.getId(), jobCalendar);
+                } catch (IllegalArgumentException e) {
+                    logger.error(">>>>>>>>>>> xxl-job, job calendar unvalid, calendarId = {}, {}", calendar.getId(), e.getMessage());
+                }
+            }
+            calendarMap = newCalendarMap;
+        } catch (Exception e) {
+            if (!toStop) {
+                logger.error(">>>>>>>>>>> xxl-job, JobCalendarHelper refresh error:{}", e);
+            }
+        }
+    }
+
+    public JobCalendar getCalendar(int calendarId) {
+        return calendarId > 0 ? calendarMap.get(calendarId) : null;
+    }
+
+    /**
+     * fire-time excluded by job calendar
+     */
+    public boolean isExcluded(int calendarId, long fireTime) {
+        JobCalendar calendar = getCalendar(calendarId);
+        return calendar != null && calendar.isExcluded(fireTime);
+    }
+
+    /**
+     * next fire-time after given time, by cron + spread window, skip calendar excluded
+     *
+     * @param jobInfo
+     * @param fromTime
+     * @return  null: never fire by cron
+     * @throws ParseException
+     */
+    public Date getNextValidTimeAfter(XxlJobInfo jobInfo, Date fromTime) throws ParseException {
+        Date nextTime = FireTimeSpread.getNextValidTimeAfter(jobInfo, fromTime);
+        JobCalendar calendar = getCalendar(jobInfo.getCalendarId());
+        if (calendar == null) {
+            return nextTime;
+        }
+        for (int i = 0; nextTime != null && i < MAX_SKIP; i++) {
+            long includedTime = calendar.nextIncluded(nextTime.getTime());
+            if (includedTime == nextTime.getTime()) {
+                return nextTime;
+            }
+            if (includedTime < 0) {
+                // all excluded, keep it (skipped when fire, and find next again), not stop job
+                return nextTime;
+            }
+            nextTime = FireTimeSpread.getNextValidTimeAfter(jobInfo, new Date(includedTime - 1));
+        }
+        // too many excluded spans, keep it (skipped when fire, and find next again)
+        return nextTime;
+    }
+
+}
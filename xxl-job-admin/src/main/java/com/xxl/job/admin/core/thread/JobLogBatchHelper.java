@@ -0,0 +1,273 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.model.XxlJobLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * job log batch writer, trigger log row (with admin allocated id) is inserted before executor run, trigger result updated after
+ *
+ *      a、"insert" before executor run: trigger thread queues log and waits, flush thread drains at most BATCH_SIZE rows into one multi-row insert (concurrent triggers share one insert);
+ *      b、"update" trigger result after executor run: write behind, flush thread drains at most BATCH_SIZE rows into one multi-row update;
+ *      c、row exists before executor run: callback reaching any admin finds it, admin crash after run never loses the log of a job that ran;
+ *      d、queue full or helper stopped: write directly; batch write fail: retry row by row, one bad row does not drop the batch;
+ *      e、each trigger still writes its row twice (insert + update): saving is in statements (multi-row insert / update shared by concurrent triggers), not in row writes;
+ */
+public class JobLogBatchHelper {
+    private static Logger logger = LoggerFactory.getLogger(JobLogBatchHelper.class);
+
+    private static JobLogBatchHelper instance = new JobLogBatchHelper();
+    public static JobLogBatchHelper getInstance(){
+        return instance;
+    }
+
+    public static final int BATCH_SIZE = 200;
+    public static final int QUEUE_CAPACITY = 20000;
+    public static final long FLUSH_INTERVAL = 50;       // ms, poll interval of flush thread
+
+    private final LinkedBlockingQueue<LogWrite> logQueue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong rowCount = new AtomicLong();
+    private final AtomicLong updateBatchCount = new AtomicLong();
+    private final AtomicLong updateRowCount = new AtomicLong();
+    private final AtomicLong directCount = new AtomicLong();
+    private final AtomicLong failCount = new AtomicLong();
+
+    private Thread flushThread;
+    private volatile boolean toStop = false;
+
+    public void start(){
+        flushThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!toStop) {
+                    try {
+                        LogWrite first = logQueue.poll(FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+                        if (first == null) {
+                            continue;
+                        }
+                        flushLock.lock();
+                        try {
+                            List<LogWrite> batchList = new ArrayList<>(BATCH_SIZE);
+                            batchList.add(first);
+                            logQueue.drainTo(batchList, BATCH_SIZE - 1);
+                            write(batchList);
+                        } finally {
+                            flushLock.unlock();
+                        }
+                    } catch (InterruptedException e) {
+                        if (!toStop) {
+                            logger.error(e.getMessage(), e);
+                        }
+                    } catch (Exception e) {
+                        if (!toStop) {
+                            logger.error(">>>>>>>>>>> xxl-job, JobLogBatchHelper#flushThread error:{}", e);
+                        }
+                    }
+                }
+
+                // write left logs
+                flush();
+                logger.info(">>>>>>>>>>> xxl-job, JobLogBatchHelper#flushThread stop");
+            }
+        });
+        flushThread.setDaemon(true);
+        flushThread.setName("xxl-job, admin JobLogBatchHelper#flushThread");
+        flushThread.start();
+    }
+
+    public void toStop(){
+        toStop = true;
+        if (flushThread == null) {
+            return;
+        }
+        // interrupt and wait
+        flushThread.interrupt();
+        try {
+            flushThread.join();
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * insert trigger log before executor run, batched with concurrent inserts, wait until written
+     *
+     * @param jobLog
+     * @return  false: write fail, executor should not run
+     */
+    public boolean insert(XxlJobLog jobLog) {
+        LogWrite logWrite = new LogWrite(jobLog, new CompletableFuture<Boolean>());
+        if (flushThread == null || toStop || !logQueue.offer(logWrite)) {
+            directCount.incrementAndGet();
+            insertRows(Collections.singletonList(logWrite));
+            return logWrite.future.join();
+        }
+        if (toStop) {
+            flush();        // stopped while queued, flush thread may be gone
+        }
+        return logWrite.future.join();
+    }
+
+    /**
+     * insert trigger logs together before executor run (like shards of one broadcast), multi-row insert in caller thread, no queue wait
+     *
+     * @param jobLogList
+     * @return  written flag of each log, in the same order
+     */
+    public boolean[] insertAll(List<XxlJobLog> jobLogList) {
+        List<LogWrite> logWriteList = new ArrayList<>(jobLogList.size());
+        for (XxlJobLog jobLog : jobLogList) {
+            logWriteList.add(new LogWrite(jobLog, new CompletableFuture<Boolean>()));
+        }
+        for (int from = 0; from < logWriteList.size(); from += BATCH_SIZE) {
+            insertRows(logWriteList.subList(from, Math.min(from + BATCH_SIZE, logWriteList.size())));
+        }
+        boolean[] written = new boolean[logWriteList.size()];
+        for (int i = 0; i < written.length; i++) {
+            written[i] = logWriteList.get(i).future.join();
+        }
+        return written;
+    }
+
+    /**
+     * update trigger result (trigger code / msg) after executor run, write behind
+     */
+    public void update(XxlJobLog jobLog) {
+        if (flushThread == null || toStop || !logQueue.offer(new LogWrite(jobLog, null))) {
+            directCount.incrementAndGet();
+            updateRows(Collections.singletonList(jobLog));
+        }
+    }
+
+    /**
+     * write all queued logs, and wait the batch in writing
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<LogWrite> batchList = new ArrayList<>(BATCH_SIZE);
+            while (logQueue.drainTo(batchList, BATCH_SIZE) > 0) {
+                write(batchList);
+                batchList.clear();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * inserts first (trigger threads wait), then updates; update of a log is queued after its insert written
+     */
+    private void write(List<LogWrite> batchList) {
+        List<LogWrite> insertList = new ArrayList<>();
+        List<XxlJobLog> updateList = new ArrayList<>();
+        for (LogWrite logWrite : batchList) {
+            if (logWrite.future != null) {
+                insertList.add(logWrite);
+            } else {
+                updateList.add(logWrite.jobLog);
+            }
+        }
+        if (!insertList.isEmpty()) {
+            insertRows(insertList);
+        }
+        if (!updateList.isEmpty()) {
+            updateRows(updateList);
+        }
+    }
+
+    /**
+     * insert rows, result of each row completes its waiting trigger
+     */
+    private void insertRows(List<LogWrite> batchList) {
+        try {
+            List<XxlJobLog> jobLogList = new ArrayList<>(batchList.size());
+            for (LogWrite logWrite : batchList) {
+                jobLogList.add(logWrite.jobLog);
+            }
+            XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().saveBatch(jobLogList);
+            batchCount.incrementAndGet();
+            rowCount.addAndGet(batchList.size());
+            for (LogWrite logWrite : batchList) {
+                logWrite.future.complete(true);
+            }
+        } catch (Exception e) {
+            if (batchList.size() == 1) {
+                failCount.incrementAndGet();
+                logger.error(">>>>>>>>>>> xxl-job, job log write fail, logId = {}", batchList.get(0).jobLog.getId(), e);
+                batchList.get(0).future.complete(false);
+                return;
+            }
+            logger.warn(">>>>>>>>>>> xxl-job, job log batch write fail, retry row by row, size = {}", batchList.size(), e);
+            for (LogWrite logWrite : batchList) {
+                insertRows(Collections.singletonList(logWrite));
+            }
+        }
+    }
+
+    private void updateRows(List<XxlJobLog> batchList) {
+        try {
+            XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().updateTriggerResultBatch(batchList);
+            updateBatchCount.incrementAndGet();
+            updateRowCount.addAndGet(batchList.size());
+        } catch (Exception e) {
+            if (batchList.size() == 1) {
+                failCount.incrementAndGet();
+                logger.error(">>>>>>>>>>> xxl-job, job log trigger result write fail, logId = {}", batchList.get(0).getId(), e);
+                return;
+            }
+            logger.warn(">>>>>>>>>>> xxl-job, job log trigger result batch write fail, retry row by row, size = {}", batchList.size(), e);
+            for (XxlJobLog jobLog : batchList) {
+                updateRows(Collections.singletonList(jobLog));
+            }
+        }
+    }
+
+    /**
+     * batch write metrics
+     */
+    public Map<String, Object> getBatchStats() {
+        long batches = batchCount.get();
+        long rows = rowCount.get();
+        long updateBatches = updateBatchCount.get();
+        long updateRows = updateRowCount.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueSize", logQueue.size());
+        stats.put("batchCount", batches);
+        stats.put("rowCount", rows);
+        stats.put("avgBatchSize", batches > 0 ? (double) rows / batches : 0);
+        stats.put("updateBatchCount", updateBatches);
+        stats.put("updateRowCount", updateRows);
+        stats.put("avgUpdateBatchSize", updateBatches > 0 ? (double) updateRows / updateBatches : 0);
+        stats.put("directCount", directCount.get());
+        stats.put("failCount", failCount.get());
+        return stats;
+    }
+
+    private static class LogWrite {
+        private final XxlJobLog jobLog;
+        private final CompletableFuture<Boolean> future;      // insert: completed when written, null: update
+
+        private LogWrite(XxlJobLog jobLog, CompletableFuture<Boolean> future) {
+            this.jobLog = jobLog;
+            this.future = future;
+        }
+    }
+
+}
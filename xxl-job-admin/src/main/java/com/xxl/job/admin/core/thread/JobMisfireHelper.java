@@ -0,0 +1,137 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.trigger.TriggerTypeEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * misfire catch-up helper
+ *
+ *      a、catch-up triggers of misfired jobs are queued, and submitted to trigger pool in batches of each slot;
+ *      b、rate limited by "xxl.job.misfire.catchup.qps", so recovery after db stall / admin gc-pause will not stampede executors;
+ *      c、queue full: catch-up dropped and counted;
+ */
+public class JobMisfireHelper {
+    private static Logger logger = LoggerFactory.getLogger(JobMisfireHelper.class);
+
+    private static JobMisfireHelper instance = new JobMisfireHelper();
+    public static JobMisfireHelper getInstance(){
+        return instance;
+    }
+
+    public static final int CATCHUP_QUEUE_SIZE = 10000;
+    public static final int SLOT_MS = 100;      // submit slot, 10 slots each second
+
+    private final LinkedBlockingQueue<Integer> catchupQueue = new LinkedBlockingQueue<>(CATCHUP_QUEUE_SIZE);
+    private final AtomicLong submitCount = new AtomicLong();
+    private final AtomicLong triggerCount = new AtomicLong();
+    private final AtomicLong dropCount = new AtomicLong();
+
+    private Thread catchupThread;
+    private volatile boolean toStop = false;
+
+    public void start(){
+        catchupThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                List<Integer> batchList = new ArrayList<>();
+                while (!toStop) {
+                    long slotStart = System.currentTimeMillis();
+                    try {
+                        // batch of slot
+                        int batchSize = (XxlJobAdminConfig.getAdminConfig().getMisfireCatchupQps() * SLOT_MS + 999) / 1000;
+                        Integer jobId = catchupQueue.poll(1, TimeUnit.SECONDS);
+                        if (jobId != null) {
+                            batchList.add(jobId);
+                            catchupQueue.drainTo(batchList, batchSize - 1);
+                            for (Integer item : batchList) {
+                                JobTriggerPoolHelper.trigger(item, TriggerTypeEnum.MISFIRE, -1, null, null, null);
+                            }
+                            triggerCount.addAndGet(batchList.size());
+                            batchList.clear();
+
+                            // wait next slot
+                            long slotCost = System.currentTimeMillis() - slotStart;
+                            if (slotCost < SLOT_MS) {
+                                TimeUnit.MILLISECONDS.sleep(SLOT_MS - slotCost);
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        if (!toStop) {
+                            logger.error(e.getMessage(), e);
+                        }
+                    } catch (Exception e) {
+                        if (!toStop) {
+                            logger.error(">>>>>>>>>>> xxl-job, JobMisfireHelper#catchupThread error:{}", e);
+                        }
+                    }
+                }
+
+                if (catchupQueue.size() > 0) {
+                    logger.warn(">>>>>>>>>>> xxl-job, JobMisfireHelper#catchupThread stop, catch-up dropped: {}", catchupQueue.size());
+                }
+                logger.info(">>>>>>>>>>> xxl-job, JobMisfireHelper#catchupThread stop");
+            }
+        });
+        catchupThread.setDaemon(true);
+        catchupThread.setName("xxl-job, admin JobMisfireHelper#catchupThread");
+        catchupThread.start();
+    }
+
+    public void toStop(){
+        if (catchupThread == null) {
+            return;
+        }
+        toStop = true;
+        // interrupt and wait
+        catchupThread.interrupt();
+        try {
+            catchupThread.join();
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * queue catch-up triggers
+     *
+     * @param jobId
+     * @param count
+     * @return  accepted count
+     */
+    public int catchup(int jobId, int count) {
+        int accepted = 0;
+        for (int i = 0; i < count; i++) {
+            if (!catchupQueue.offer(jobId)) {
+                break;
+            }
+            accepted++;
+        }
+        submitCount.addAndGet(accepted);
+        if (accepted < count) {
+            dropCount.addAndGet(count - accepted);
+            logger.warn(">>>>>>>>>>> xxl-job, misfire catch-up queue full, jobId = {}, dropped = {}", jobId, count - accepted);
+        }
+        return accepted;
+    }
+
+    public Map<String, Object> getMisfireStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueSize", catchupQueue.size());
+        stats.put("submitCount", submitCount.get());
+        stats.put("triggerCount", triggerCount.get());
+        stats.put("dropCount", dropCount.get());
+        stats.put("qps", XxlJobAdminConfig.getAdminConfig().getMisfireCatchupQps());
+        return stats;
+    }
+
+}
@@ -3,6 +3,10 @@ package com.xxl.job.admin.core.thread;
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
 import com.xxl.job.admin.core.model.XxlJobGroup;
 import com.xxl.job.admin.core.model.XxlJobRegistry;
+import com.xxl.job.admin.core.route.ExecutorCircuitBreaker;
+import com.xxl.job.admin.core.route.ExecutorLoadCache;
+import com.xxl.job.admin.core.trigger.JobSnapshotCache;
+import com.xxl.job.core.biz.model.RegistryLoad;
 import com.xxl.job.core.enums.RegistryConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,10 +60,17 @@ public class JobRegistryMonitorHelper {
 											registryList.add(item.getRegistryValue());
 										}
 										appAddressMap.put(appname, registryList);
+
+										if (item.getUpdateTime() != null) {
+											ExecutorLoadCache.fresh(item.getRegistryValue(), RegistryLoad.parse(item.getRegistryLoad()), item.getUpdateTime().getTime());
+										}
 									}
 								}
 							}
 
+							ExecutorLoadCache.removeDead();
+							ExecutorCircuitBreaker.removeIdle();
+
 							// fresh group address
 							for (XxlJobGroup group: groupList) {
 								List<String> registryList = appAddressMap.get(group.getAppname());
@@ -75,6 +86,9 @@ public class JobRegistryMonitorHelper {
 								group.setAddressList(addressListStr);
 								XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().update(group);
 							}
+
+							// fresh trigger snapshot
+							JobSnapshotCache.getInstance().invalidateAllGroup();
 						}
 					} catch (Exception e) {
 						if (!toStop) {
@@ -0,0 +1,198 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.core.enums.RegistryConfig;
+import com.xxl.job.core.util.IpUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * schedule bucket helper
+ *
+ *      a、jobs are partitioned into N buckets by "id % N", each bucket has its own lock row "schedule_lock_{bucket}";
+ *      b、each admin beats a lease row (xxl_job_registry, group=ADMIN) and claims buckets by its index in the alive admin list,
+ *          so admin joins / dies rebalance buckets within BUCKET_LEASE_TIMEOUT;
+ *      c、the bucket lock row stays the mutual exclusion, buckets may briefly overlap while rebalancing, but never scan concurrently;
+ *      d、N = 1 (default): the single "schedule_lock" is used, all admins contend as before;
+ */
+public class JobScheduleBucketHelper {
+    private static Logger logger = LoggerFactory.getLogger(JobScheduleBucketHelper.class);
+
+    private static JobScheduleBucketHelper instance = new JobScheduleBucketHelper();
+    public static JobScheduleBucketHelper getInstance(){
+        return instance;
+    }
+
+    public static final String BUCKET_REGISTRY_KEY = "xxl-job-admin-schedule";
+    public static final int BUCKET_BEAT = 5;                            // lease beat, second
+    public static final int BUCKET_LEASE_TIMEOUT = BUCKET_BEAT * 3;     // lease timeout, second
+
+    private final String nodeId = IpUtil.getIp() + "_" + UUID.randomUUID().toString().replaceAll("-", "").substring(0, 8);
+
+    private int bucketCount = 1;
+    private volatile int[] ownBuckets = new int[]{0};
+
+    private Thread bucketThread;
+    private volatile boolean toStop = false;
+
+    public void start(){
+        if ("memory".equals(XxlJobAdminConfig.getAdminConfig().getScheduleMode())) {
+            logger.info(">>>>>>>>> xxl-job, schedule bucket disabled, schedule mode is memory.");
+            return;
+        }
+        bucketCount = XxlJobAdminConfig.getAdminConfig().getScheduleBuckets();
+        if (bucketCount <= 1) {
+            logger.info(">>>>>>>>> xxl-job, schedule bucket disabled, use single schedule_lock.");
+            return;
+        }
+
+        // init bucket lock row, all admins before own any bucket
+        initBucketLock();
+        ownBuckets = allBuckets();
+
+        bucketThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!toStop) {
+                    try {
+                        // lease beat
+                        Date now = new Date();
+                        int ret = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().registryUpdate(RegistryConfig.RegistType.ADMIN.name(), BUCKET_REGISTRY_KEY, nodeId, null, now);
+                        if (ret < 1) {
+                            XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().registrySave(RegistryConfig.RegistType.ADMIN.name(), BUCKET_REGISTRY_KEY, nodeId, null, now);
+                        }
+
+                        // claim bucket
+                        List<String> aliveNodes = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().findAliveValues(RegistryConfig.RegistType.ADMIN.name(), BUCKET_REGISTRY_KEY, BUCKET_LEASE_TIMEOUT, now);
+                        refreshOwnBuckets(aliveNodes);
+                    } catch (Exception e) {
+                        if (!toStop) {
+                            // lease lost or db error, contend all bucket lock (safe, only throughput lost)
+                            ownBuckets = allBuckets();
+                            logger.error(">>>>>>>>>>> xxl-job, JobScheduleBucketHelper#bucketThread error:{}", e);
+                        }
+                    }
+
+                    try {
+                        TimeUnit.SECONDS.sleep(BUCKET_BEAT);
+                    } catch (InterruptedException e) {
+                        if (!toStop) {
+                            logger.error(e.getMessage(), e);
+                        }
+                    }
+                }
+
+                // release lease, rebalance at once
+                try {
+                    XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().registryDelete(RegistryConfig.RegistType.ADMIN.name(), BUCKET_REGISTRY_KEY, nodeId);
+                } catch (Exception e) {
+                    logger.error(e.getMessage(), e);
+                }
+                logger.info(">>>>>>>>>>> xxl-job, JobScheduleBucketHelper#bucketThread stop");
+            }
+        });
+        bucketThread.setDaemon(true);
+        bucketThread.setName("xxl-job, admin JobScheduleBucketHelper#bucketThread");
+        bucketThread.start();
+    }
+
+    public void toStop(){
+        if (bucketThread == null) {
+            return;
+        }
+        toStop = true;
+        // interrupt and wait
+        bucketThread.interrupt();
+        try {
+            bucketThread.join();
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
+    private void refreshOwnBuckets(List<String> aliveNodes) {
+        if (aliveNodes == null || !aliveNodes.contains(nodeId)) {
+            ownBuckets = allBuckets();
+            return;
+        }
+
+        // bucket % nodeCount == nodeIndex
+        List<String> nodes = new ArrayList<>(aliveNodes);
+        Collections.sort(nodes);
+        int nodeIndex = nodes.indexOf(nodeId);
+        int nodeCount = nodes.size();
+
+        int[] buckets = new int[(bucketCount - nodeIndex + nodeCount - 1) / nodeCount];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = nodeIndex + i * nodeCount;
+        }
+        if (!Arrays.equals(buckets, ownBuckets)) {
+            logger.info(">>>>>>>>>>> xxl-job, schedule bucket rebalance, node = {}, nodes = {}, buckets = {}", nodeId, nodeCount, Arrays.toString(buckets));
+        }
+        ownBuckets = buckets;
+    }
+
+    private int[] allBuckets() {
+        int[] buckets = new int[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = i;
+        }
+        return buckets;
+    }
+
+    private void initBucketLock() {
+        Connection conn = null;
+        PreparedStatement preparedStatement = null;
+        try {
+            conn = XxlJobAdminConfig.getAdminConfig().getDataSource().getConnection();
+            preparedStatement = conn.prepareStatement("INSERT IGNORE INTO xxl_job_lock ( lock_name) VALUES ( ? )");
+            for (int i = 0; i < bucketCount; i++) {
+                preparedStatement.setString(1, lockName(i));
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+        } catch (SQLException e) {
+            logger.error(">>>>>>>>>>> xxl-job, schedule bucket lock init error:{}", e);
+        } finally {
+            if (preparedStatement != null) {
+                try {
+                    preparedStatement.close();
+                } catch (SQLException e) {
+                    logger.error(e.getMessage(), e);
+                }
+            }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    logger.error(e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+
+    // ---------------------- bucket ----------------------
+
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    /**
+     * buckets this admin scans now
+     */
+    public int[] getOwnBuckets() {
+        return ownBuckets;
+    }
+
+    public String lockName(int bucket) {
+        return bucketCount > 1 ? "schedule_lock_" + bucket : "schedule_lock";
+    }
+
+}
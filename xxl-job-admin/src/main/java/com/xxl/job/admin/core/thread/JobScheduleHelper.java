@@ -1,8 +1,11 @@
 package com.xxl.job.admin.core.thread;
 
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
-import com.xxl.job.admin.core.cron.CronExpression;
 import com.xxl.job.admin.core.model.XxlJobInfo;
+import com.xxl.job.admin.core.scheduler.FireLoadStats;
+import com.xxl.job.admin.core.scheduler.JobScheduleIndex;
+import com.xxl.job.admin.core.scheduler.MisfireStrategyEnum;
+import com.xxl.job.admin.core.scheduler.JobTimingWheel;
 import com.xxl.job.admin.core.trigger.TriggerTypeEnum;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,8 +15,9 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.text.ParseException;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author xuxueli 2019-05-21
@@ -26,15 +30,53 @@ public class JobScheduleHelper {
         return instance;
     }
 
-    public static final long PRE_READ_MS = 5000;    // pre read
+    public static final long PRE_READ_MS = 5000;    // pre read, also the misfire threshold
+    public static final long SCAN_BUDGET_MS = 800;  // scan budget of each tick, keep tick aligned to second
+    public static final long MAX_SCAN_BUDGET_MS = PRE_READ_MS - 1000;  // adaptive scan budget upper limit (overdue drain), below misfire threshold
+    public static final int MIN_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 20000;
+    public static final long INDEX_FULL_LOAD_MS = 5 * 60 * 1000;    // memory mode, full reload period of schedule index
+    public static final long INDEX_SYNC_OVERLAP_MS = 5000;          // memory mode, delta sync overlap, tolerate clock drift between admins
+    public static final long RING_TICK_MS = 1;      // time-ring tick, firing accuracy
+    public static final int RING_WHEEL_SIZE = 64;   // time-ring slot count of each wheel level
+    public static final int UPDATE_BATCH_SIZE = 500;    // rows of each batch schedule-update statement
 
     private Thread scheduleThread;
     private Thread ringThread;
     private volatile boolean scheduleThreadToStop = false;
     private volatile boolean ringThreadToStop = false;
-    private volatile static Map<Integer, List<Integer>> ringData = new ConcurrentHashMap<>();
+    private final JobTimingWheel ringData = new JobTimingWheel(RING_TICK_MS, RING_WHEEL_SIZE, System.currentTimeMillis());
+
+    // adaptive scan, written by schedule thread only
+    private volatile long scanBudgetMs = SCAN_BUDGET_MS;    // scan budget of tick
+    private volatile int pageSize;                  // rows of each pre-read page
+    private boolean lastPageOverdue;                // last full page still ends with overdue row (trigger_next_time <= now), more overdue left
+    private volatile double rowCostEwma = -1;       // scan cost of each row, ms
+    private volatile double dueDensityEwma = 0;     // due rows of each second in horizon
+    private volatile long lastScanCost;
+    private volatile int lastScanCount;
+    private volatile int lastScanPages;
+    private final AtomicLong scanOverBudgetCount = new AtomicLong();
+    private final AtomicLong overdueBacklogCount = new AtomicLong();
+    private final AtomicLong misfireCount = new AtomicLong();
+
+    // fire load, spread window smooth it
+    private final FireLoadStats fireLoadStats = new FireLoadStats();
+    private final AtomicLong spreadScheduleCount = new AtomicLong();
+    private final AtomicLong calendarExcludedCount = new AtomicLong();
+
+    // memory mode, index owned by schedule thread
+    private volatile boolean memoryMode = false;
+    private final JobScheduleIndex scheduleIndex = new JobScheduleIndex();
+    private final ConcurrentLinkedQueue<Integer> changedJobIds = new ConcurrentLinkedQueue<>();
+    private boolean indexLoaded = false;
+    private long lastSyncTime;
+    private volatile long lastFullLoadTime;
+    private volatile int indexSize;
+    private volatile int indexDirtySize;
 
     public void start(){
+        memoryMode = "memory".equals(XxlJobAdminConfig.getAdminConfig().getScheduleMode());
 
         // schedule thread
         scheduleThread = new Thread(new Runnable() {
@@ -50,141 +92,62 @@ public class JobScheduleHelper {
                 }
                 logger.info(">>>>>>>>> init xxl-job admin scheduler success.");
 
-                // pre-read count: treadpool-size * trigger-qps (each trigger cost 50ms, qps = 1000/50 = 20)
-                int preReadCount = (XxlJobAdminConfig.getAdminConfig().getTriggerPoolFastMax() + XxlJobAdminConfig.getAdminConfig().getTriggerPoolSlowMax()) * 20;
+                // initial page size: treadpool-size * trigger-qps (each trigger cost 50ms, qps = 1000/50 = 20), adapt by measured scan cost later
+                pageSize = Math.max(MIN_PAGE_SIZE, Math.min(MAX_PAGE_SIZE,
+                        (XxlJobAdminConfig.getAdminConfig().getTriggerPoolFastMax() + XxlJobAdminConfig.getAdminConfig().getTriggerPoolSlowMax()) * 20));
 
                 while (!scheduleThreadToStop) {
 
-                    // Scan Job
-                    long start = System.currentTimeMillis();
-
-                    Connection conn = null;
-                    Boolean connAutoCommit = null;
-                    PreparedStatement preparedStatement = null;
-
-                    boolean preReadSuc = true;
-                    try {
-
-                        conn = XxlJobAdminConfig.getAdminConfig().getDataSource().getConnection();
-                        connAutoCommit = conn.getAutoCommit();
-                        conn.setAutoCommit(false);
-
-                        preparedStatement = conn.prepareStatement(  "select * from xxl_job_lock where lock_name = 'schedule_lock' for update" );
-                        preparedStatement.execute();
-
-                        // tx start
-
-                        // 1、pre read
-                        long nowTime = System.currentTimeMillis();
-                        List<XxlJobInfo> scheduleList = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().scheduleJobQuery(nowTime + PRE_READ_MS, preReadCount);
-                        if (scheduleList!=null && scheduleList.size()>0) {
-                            // 2、push time-ring
-                            for (XxlJobInfo jobInfo: scheduleList) {
-
-                                // time-ring jump
-                                if (nowTime > jobInfo.getTriggerNextTime() + PRE_READ_MS) {
-                                    // 2.1、trigger-expire > 5s：pass && make next-trigger-time
-                                    logger.warn(">>>>>>>>>>> xxl-job, schedule misfire, jobId = " + jobInfo.getId());
-
-                                    // fresh next
-                                    refreshNextValidTime(jobInfo, new Date());
-
-                                } else if (nowTime > jobInfo.getTriggerNextTime()) {
-                                    // 2.2、trigger-expire < 5s：direct-trigger && make next-trigger-time
-
-                                    // 1、trigger
-                                    JobTriggerPoolHelper.trigger(jobInfo.getId(), TriggerTypeEnum.CRON, -1, null, null, null);
-                                    logger.debug(">>>>>>>>>>> xxl-job, schedule push trigger : jobId = " + jobInfo.getId() );
-
-                                    // 2、fresh next
-                                    refreshNextValidTime(jobInfo, new Date());
-
-                                    // next-trigger-time in 5s, pre-read again
-                                    if (jobInfo.getTriggerStatus()==1 && nowTime + PRE_READ_MS > jobInfo.getTriggerNextTime()) {
-
-                                        // 1、make ring second
-                                        int ringSecond = (int)((jobInfo.getTriggerNextTime()/1000)%60);
-
-                                        // 2、push time ring
-                                        pushTimeRing(ringSecond, jobInfo.getId());
-
-                                        // 3、fresh next
-                                        refreshNextValidTime(jobInfo, new Date(jobInfo.getTriggerNextTime()));
-
-                                    }
-
-                                } else {
-                                    // 2.3、trigger-pre-read：time-ring trigger && make next-trigger-time
-
-                                    // 1、make ring second
-                                    int ringSecond = (int)((jobInfo.getTriggerNextTime()/1000)%60);
-
-                                    // 2、push time ring
-                                    pushTimeRing(ringSecond, jobInfo.getId());
-
-                                    // 3、fresh next
-                                    refreshNextValidTime(jobInfo, new Date(jobInfo.getTriggerNextTime()));
-
-                                }
-
-                            }
-
-                            // 3、update trigger info
-                            for (XxlJobInfo jobInfo: scheduleList) {
-                                XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().scheduleUpdate(jobInfo);
-                            }
-
-                        } else {
-                            preReadSuc = false;
-                        }
-
-                        // tx stop
-
-
-                    } catch (Exception e) {
-                        if (!scheduleThreadToStop) {
-                            logger.error(">>>>>>>>>>> xxl-job, JobScheduleHelper#scheduleThread error:{}", e);
-                        }
-                    } finally {
-
-                        // commit
-                        if (conn != null) {
-                            try {
-                                conn.commit();
-                            } catch (SQLException e) {
-                                if (!scheduleThreadToStop) {
-                                    logger.error(e.getMessage(), e);
-                                }
-                            }
+                    // memory mode: schedule from in-memory index, tick each second
+                    if (memoryMode) {
+                        long start = System.currentTimeMillis();
+                        scheduleMemory();
+                        long cost = System.currentTimeMillis()-start;
+                        if (cost < 1000) {
                             try {
-                                conn.setAutoCommit(connAutoCommit);
-                            } catch (SQLException e) {
-                                if (!scheduleThreadToStop) {
-                                    logger.error(e.getMessage(), e);
-                                }
-                            }
-                            try {
-                                conn.close();
-                            } catch (SQLException e) {
+                                TimeUnit.MILLISECONDS.sleep(1000 - System.currentTimeMillis()%1000);
+                            } catch (InterruptedException e) {
                                 if (!scheduleThreadToStop) {
                                     logger.error(e.getMessage(), e);
                                 }
                             }
                         }
+                        continue;
+                    }
 
-                        // close PreparedStatement
-                        if (null != preparedStatement) {
-                            try {
-                                preparedStatement.close();
-                            } catch (SQLException e) {
-                                if (!scheduleThreadToStop) {
-                                    logger.error(e.getMessage(), e);
-                                }
+                    // Scan Job
+                    long start = System.currentTimeMillis();
+                    long tickScanBudgetMs = scanBudgetMs;
+                    int tickPageSize = pageSize;
+
+                    // scan own buckets (one lock row each), page by page until drained or scan budget used up
+                    int scanCount = 0;
+                    int scanPages = 0;
+                    boolean overBudget = false;
+                    boolean backlog = false;
+                    int bucketCount = JobScheduleBucketHelper.getInstance().getBucketCount();
+                    for (int bucket : JobScheduleBucketHelper.getInstance().getOwnBuckets()) {
+                        while (!scheduleThreadToStop) {
+                            int count = scheduleBucket(bucket, bucketCount, tickPageSize);
+                            scanCount += count;
+                            scanPages++;
+                            if (count < tickPageSize) {
+                                break;
+                            }
+                            if (System.currentTimeMillis() - start >= tickScanBudgetMs) {
+                                // budget used up: only overdue rows left is backlog, rows due later in horizon read next tick
+                                overBudget = true;
+                                backlog = backlog || lastPageOverdue;
+                                break;
                             }
                         }
                     }
+                    boolean preReadSuc = scanCount > 0;
                     long cost = System.currentTimeMillis()-start;
 
+                    // adapt scan budget and page size
+                    adaptScan(cost, scanCount, scanPages, overBudget, backlog, tickScanBudgetMs);
+
 
                     // Wait seconds, align second
                     if (cost < 1000) {  // scan-overtime, not wait
@@ -200,6 +163,11 @@ public class JobScheduleHelper {
 
                 }
 
+                // memory mode, write behind the rest
+                if (memoryMode && JobScheduleLeaderHelper.getInstance().isLeader()) {
+                    flushIndex();
+                }
+
                 logger.info(">>>>>>>>>>> xxl-job, JobScheduleHelper#scheduleThread stop");
             }
         });
@@ -213,53 +181,30 @@ public class JobScheduleHelper {
             @Override
             public void run() {
 
-                // align second
-                try {
-                    TimeUnit.MILLISECONDS.sleep(1000 - System.currentTimeMillis()%1000 );
-                } catch (InterruptedException e) {
-                    if (!ringThreadToStop) {
-                        logger.error(e.getMessage(), e);
-                    }
-                }
-
                 while (!ringThreadToStop) {
-
                     try {
-                        // second data
-                        List<Integer> ringItemData = new ArrayList<>();
-                        int nowSecond = Calendar.getInstance().get(Calendar.SECOND);   // 避免处理耗时太长，跨过刻度，向前校验一个刻度；
-                        for (int i = 0; i < 2; i++) {
-                            List<Integer> tmpData = ringData.remove( (nowSecond+60-i)%60 );
-                            if (tmpData != null) {
-                                ringItemData.addAll(tmpData);
-                            }
-                        }
-
-                        // ring trigger
-                        logger.debug(">>>>>>>>>>> xxl-job, time-ring beat : " + nowSecond + " = " + Arrays.asList(ringItemData) );
-                        if (ringItemData.size() > 0) {
-                            // do trigger
-                            for (int jobId: ringItemData) {
-                                // do trigger
-                                JobTriggerPoolHelper.trigger(jobId, TriggerTypeEnum.CRON, -1, null, null, null);
+                        // wait next due bucket, fire at ms-tick (not second-aligned)
+                        ringData.advance(100, new JobTimingWheel.FireHandler() {
+                            @Override
+                            public void fire(int jobId, long fireTime) {
+                                fireLoadStats.record(System.currentTimeMillis());
+                                try {
+                                    JobTriggerPoolHelper.trigger(jobId, TriggerTypeEnum.CRON, -1, null, null, null);
+                                } catch (Exception e) {
+                                    logger.error(">>>>>>>>>>> xxl-job, time-ring trigger error, jobId = {}", jobId, e);
+                                }
+                                logger.debug(">>>>>>>>>>> xxl-job, time-ring fire : jobId = {}, delay = {}ms", jobId, System.currentTimeMillis() - fireTime);
                             }
-                            // clear
-                            ringItemData.clear();
+                        });
+                    } catch (InterruptedException e) {
+                        if (!ringThreadToStop) {
+                            logger.error(e.getMessage(), e);
                         }
                     } catch (Exception e) {
                         if (!ringThreadToStop) {
                             logger.error(">>>>>>>>>>> xxl-job, JobScheduleHelper#ringThread error:{}", e);
                         }
                     }
-
-                    // next second, align second
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(1000 - System.currentTimeMillis()%1000);
-                    } catch (InterruptedException e) {
-                        if (!ringThreadToStop) {
-                            logger.error(e.getMessage(), e);
-                        }
-                    }
                 }
                 logger.info(">>>>>>>>>>> xxl-job, JobScheduleHelper#ringThread stop");
             }
@@ -269,8 +214,441 @@ public class JobScheduleHelper {
         ringThread.start();
     }
 
+    /**
+     * schedule one page of bucket in a lock-tx
+     *
+     * @return  pre-read count
+     */
+    private int scheduleBucket(int bucket, int bucketCount, int pageSize) {
+        Connection conn = null;
+        Boolean connAutoCommit = null;
+        PreparedStatement preparedStatement = null;
+
+        int preReadCount = 0;
+        try {
+
+            conn = XxlJobAdminConfig.getAdminConfig().getDataSource().getConnection();
+            connAutoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+
+            preparedStatement = conn.prepareStatement(  "select * from xxl_job_lock where lock_name = ? for update" );
+            preparedStatement.setString(1, JobScheduleBucketHelper.getInstance().lockName(bucket));
+            preparedStatement.execute();
+
+            // tx start
+
+            // 1、pre read
+            long nowTime = System.currentTimeMillis();
+            List<XxlJobInfo> scheduleList = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().scheduleJobQuery(nowTime + PRE_READ_MS, pageSize, bucketCount, bucket);
+            lastPageOverdue = false;
+            if (scheduleList!=null && scheduleList.size()>0) {
+                preReadCount = scheduleList.size();
+                lastPageOverdue = preReadCount >= pageSize && scheduleList.get(preReadCount - 1).getTriggerNextTime() <= nowTime;     // order by trigger_next_time
+
+                // 2、push time-ring
+                for (XxlJobInfo jobInfo: scheduleList) {
+                    scheduleJob(jobInfo, nowTime);
+                }
+
+                // 3、update trigger info (batch, less lock hold time)
+                scheduleUpdateBatch(scheduleList);
+
+            }
+
+            // tx stop
+
+
+        } catch (Exception e) {
+            if (!scheduleThreadToStop) {
+                logger.error(">>>>>>>>>>> xxl-job, JobScheduleHelper#scheduleThread error:{}", e);
+            }
+        } finally {
+
+            // commit
+            if (conn != null) {
+                try {
+                    conn.commit();
+                } catch (SQLException e) {
+                    if (!scheduleThreadToStop) {
+                        logger.error(e.getMessage(), e);
+                    }
+                }
+                try {
+                    conn.setAutoCommit(connAutoCommit);
+                } catch (SQLException e) {
+                    if (!scheduleThreadToStop) {
+                        logger.error(e.getMessage(), e);
+                    }
+                }
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    if (!scheduleThreadToStop) {
+                        logger.error(e.getMessage(), e);
+                    }
+                }
+            }
+
+            // close PreparedStatement
+            if (null != preparedStatement) {
+                try {
+                    preparedStatement.close();
+                } catch (SQLException e) {
+                    if (!scheduleThreadToStop) {
+                        logger.error(e.getMessage(), e);
+                    }
+                }
+            }
+        }
+        return preReadCount;
+    }
+
+    /**
+     * schedule one job: misfire / direct trigger / push time-ring, and make next-trigger-time
+     */
+    private void scheduleJob(XxlJobInfo jobInfo, long nowTime) throws ParseException {
+        JobTriggerPoolHelper.rememberJobGroup(jobInfo.getId(), jobInfo.getJobGroup());
+        if (jobInfo.getSpreadWindow() > 0) {
+            spreadScheduleCount.incrementAndGet();
+        }
+
+        // time-ring jump
+        if (nowTime > jobInfo.getTriggerNextTime() + PRE_READ_MS) {
+            // 2.1、trigger-expire > 5s：misfire strategy && make next-trigger-time
+            logger.warn(">>>>>>>>>>> xxl-job, schedule misfire, jobId = " + jobInfo.getId());
+            misfireCount.incrementAndGet();
+
+            // 1、misfire catch-up (rate limited)
+            int catchupCount = misfireCatchupCount(jobInfo, nowTime);
+            if (catchupCount > 0 && !calendarExcluded(jobInfo, nowTime)) {
+                JobMisfireHelper.getInstance().catchup(jobInfo.getId(), catchupCount);
+            }
+
+            // 2、fresh next
+            refreshNextValidTime(jobInfo, new Date());
+
+        } else if (nowTime > jobInfo.getTriggerNextTime()) {
+            // 2.2、trigger-expire < 5s：direct-trigger && make next-trigger-time
+
+            // 1、trigger (not excluded by calendar)
+            if (!calendarExcluded(jobInfo, jobInfo.getTriggerNextTime())) {
+                fireLoadStats.record(nowTime);
+                JobTriggerPoolHelper.trigger(jobInfo.getId(), TriggerTypeEnum.CRON, -1, null, null, null);
+                logger.debug(">>>>>>>>>>> xxl-job, schedule push trigger : jobId = " + jobInfo.getId() );
+            }
+
+            // 2、fresh next
+            refreshNextValidTime(jobInfo, new Date());
+
+            // next-trigger-time in pre-read horizon, pre-read again
+            if (jobInfo.getTriggerStatus()==1 && nowTime + PRE_READ_MS > jobInfo.getTriggerNextTime()) {
+
+                // 1、push time ring
+                if (!calendarExcluded(jobInfo, jobInfo.getTriggerNextTime())) {
+                    pushTimeRing(jobInfo.getId(), jobInfo.getTriggerNextTime());
+                }
+
+                // 2、fresh next
+                refreshNextValidTime(jobInfo, new Date(jobInfo.getTriggerNextTime()));
+
+            }
+
+        } else {
+            // 2.3、trigger-pre-read：time-ring trigger && make next-trigger-time
+
+            // 1、push time ring
+            if (!calendarExcluded(jobInfo, jobInfo.getTriggerNextTime())) {
+                pushTimeRing(jobInfo.getId(), jobInfo.getTriggerNextTime());
+            }
+
+            // 2、fresh next
+            refreshNextValidTime(jobInfo, new Date(jobInfo.getTriggerNextTime()));
+
+        }
+    }
+
+    /**
+     * fire-time excluded by job calendar (next-trigger-time skips excluded, check again for calendar edited after it was made)
+     */
+    private boolean calendarExcluded(XxlJobInfo jobInfo, long fireTime) {
+        if (JobCalendarHelper.getInstance().isExcluded(jobInfo.getCalendarId(), fireTime)) {
+            calendarExcludedCount.incrementAndGet();
+            logger.debug(">>>>>>>>>>> xxl-job, schedule calendar excluded : jobId = {}, fireTime = {}", jobInfo.getId(), fireTime);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * catch-up count of misfired job, by misfire strategy
+     */
+    private int misfireCatchupCount(XxlJobInfo jobInfo, long nowTime) throws ParseException {
+        MisfireStrategyEnum misfireStrategy = MisfireStrategyEnum.match(jobInfo.getMisfireStrategy(), MisfireStrategyEnum.DO_NOTHING);
+        if (misfireStrategy == MisfireStrategyEnum.FIRE_ONCE_NOW) {
+            return 1;
+        } else if (misfireStrategy == MisfireStrategyEnum.FIRE_ALL_MISSED) {
+            // missed fire-time in (trigger-next-time, now], at most catchup-max
+            int catchupMax = XxlJobAdminConfig.getAdminConfig().getMisfireCatchupMax();
+            int count = 1;
+            Date missedTime = new Date(jobInfo.getTriggerNextTime());
+            while (count < catchupMax) {
+                missedTime = JobCalendarHelper.getInstance().getNextValidTimeAfter(jobInfo, missedTime);
+                if (missedTime == null || missedTime.getTime() > nowTime) {
+                    break;
+                }
+                count++;
+            }
+            return count;
+        }
+        return 0;
+    }
+
+
+    // ---------------------- memory mode ----------------------
+
+    /**
+     * schedule one tick from in-memory index (leader only)
+     *
+     *      a、index: full load on leader elected and each INDEX_FULL_LOAD_MS, delta sync each tick by local change hook and "update_time";
+     *      b、due jobs in pre-read horizon are polled, scheduled as db mode, and put back with new next-trigger-time;
+     *      c、next-trigger-time is written behind in batch, the db is not scanned each second;
+     */
+    private void scheduleMemory() {
+        if (!JobScheduleLeaderHelper.getInstance().isLeader()) {
+            if (indexLoaded) {
+                scheduleIndex.clear();
+                indexLoaded = false;
+                logger.info(">>>>>>>>>>> xxl-job, schedule index dropped, not leader.");
+            }
+            indexSize = 0;
+            indexDirtySize = 0;
+            return;
+        }
+
+        long nowTime = System.currentTimeMillis();
+
+        // 1、sync index
+        try {
+            if (!indexLoaded || nowTime - lastFullLoadTime > INDEX_FULL_LOAD_MS) {
+                flushIndex();
+                loadIndex(nowTime);
+            } else {
+                syncIndex(nowTime);
+            }
+        } catch (Exception e) {
+            if (!scheduleThreadToStop) {
+                logger.error(">>>>>>>>>>> xxl-job, JobScheduleHelper#scheduleThread sync index error:{}", e);
+            }
+        }
+
+        // 2、schedule due jobs
+        if (indexLoaded) {
+            List<XxlJobInfo> dueList = scheduleIndex.pollDue(nowTime + PRE_READ_MS);
+            for (XxlJobInfo jobInfo : dueList) {
+                try {
+                    scheduleJob(jobInfo, nowTime);
+                } catch (Exception e) {
+                    // unvalid cron, drop from index until cron edited
+                    logger.error(">>>>>>>>>>> xxl-job, schedule job error, jobId = {}", jobInfo.getId(), e);
+                    continue;
+                }
+                if (jobInfo.getTriggerStatus() == 1) {
+                    scheduleIndex.reschedule(jobInfo);
+                } else {
+                    // never fire again, write through
+                    XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().scheduleUpdate(jobInfo);
+                }
+            }
+            lastScanCount = dueList.size();
+        }
+
+        // 3、write behind
+        flushIndex();
+
+        indexSize = scheduleIndex.size();
+        indexDirtySize = scheduleIndex.dirtySize();
+    }
+
+    private void loadIndex(long nowTime) throws ParseException {
+        List<XxlJobInfo> jobList = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().scheduleJobLoad();
+        Set<Integer> jobIds = new HashSet<>();
+        for (XxlJobInfo jobInfo : jobList) {
+            jobIds.add(jobInfo.getId());
+            mergeIndex(jobInfo, nowTime);
+        }
+        scheduleIndex.retain(jobIds);
+
+        lastSyncTime = nowTime;
+        lastFullLoadTime = nowTime;
+        if (!indexLoaded) {
+            logger.info(">>>>>>>>>>> xxl-job, schedule index loaded, size = {}", scheduleIndex.size());
+        }
+        indexLoaded = true;
+    }
+
+    private void syncIndex(long nowTime) throws ParseException {
+        // local change
+        Set<Integer> jobIds = new LinkedHashSet<>();
+        Integer jobId;
+        while ((jobId = changedJobIds.poll()) != null) {
+            jobIds.add(jobId);
+        }
+        for (Integer changedJobId : jobIds) {
+            XxlJobInfo jobInfo = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().loadById(changedJobId);
+            if (jobInfo == null) {
+                scheduleIndex.remove(changedJobId);
+            } else {
+                mergeIndex(jobInfo, nowTime);
+            }
+        }
+
+        // change on other admin, by update_time
+        List<XxlJobInfo> changedList = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().scheduleJobQueryByUpdateTime(new Date(lastSyncTime - INDEX_SYNC_OVERLAP_MS));
+        for (XxlJobInfo jobInfo : changedList) {
+            mergeIndex(jobInfo, nowTime);
+        }
+        lastSyncTime = nowTime;
+    }
+
+    /**
+     * merge job from db into index
+     *
+     *      a、stopped: remove;
+     *      b、not in index (new, started): db trigger-next-time;
+     *      c、cron, spread window and calendar unchanged: keep in-memory trigger-next-time (newer than db, written behind);
+     *      d、cron, spread window or calendar edited: make next-trigger-time by new cron (5s later, avoid pre-read period, same as JobService.update);
+     */
+    private void mergeIndex(XxlJobInfo jobInfo, long nowTime) throws ParseException {
+        if (jobInfo.getTriggerStatus() != 1) {
+            scheduleIndex.remove(jobInfo.getId());
+            return;
+        }
+        XxlJobInfo existsJobInfo = scheduleIndex.get(jobInfo.getId());
+        if (existsJobInfo == null) {
+            scheduleIndex.put(jobInfo);
+            return;
+        }
+        if (existsJobInfo.getJobCron().equals(jobInfo.getJobCron()) && existsJobInfo.getSpreadWindow() == jobInfo.getSpreadWindow()
+                && existsJobInfo.getCalendarId() == jobInfo.getCalendarId()) {
+            existsJobInfo.setMisfireStrategy(jobInfo.getMisfireStrategy());
+            return;
+        }
+
+        Date nextValidTime = JobCalendarHelper.getInstance().getNextValidTimeAfter(jobInfo, new Date(nowTime + PRE_READ_MS));
+        if (nextValidTime == null) {
+            scheduleIndex.remove(jobInfo.getId());
+            return;
+        }
+        jobInfo.setTriggerNextTime(nextValidTime.getTime());
+        scheduleIndex.put(jobInfo);
+    }
+
+    private void flushIndex() {
+        List<XxlJobInfo> dirtyList = scheduleIndex.drainDirty();
+        if (dirtyList.isEmpty()) {
+            return;
+        }
+        try {
+            for (int from = 0; from < dirtyList.size(); from += UPDATE_BATCH_SIZE) {
+                List<XxlJobInfo> batchList = dirtyList.subList(from, Math.min(from + UPDATE_BATCH_SIZE, dirtyList.size()));
+                XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().scheduleFlushBatch(batchList);
+            }
+        } catch (Exception e) {
+            // keep dirty, retry next tick
+            scheduleIndex.markDirty(dirtyList);
+            if (!scheduleThreadToStop) {
+                logger.error(">>>>>>>>>>> xxl-job, JobScheduleHelper#scheduleThread flush index error:{}", e);
+            }
+        }
+    }
+
+    /**
+     * job schedule changed (add / update / start / stop / remove), memory mode sync index at next tick
+     */
+    public void onJobChanged(int jobId) {
+        if (memoryMode) {
+            changedJobIds.offer(jobId);
+        }
+    }
+
+
+    // ---------------------- adapt ----------------------
+
+    /**
+     * adapt scan by measured cost and due density
+     *
+     *      a、page size: rows can be scanned in SCAN_BUDGET_MS, by row-cost ewma;
+     *      b、scan budget: overdue rows left when budget used up (backlog) > double budget of next tick (drain more pages), no backlog > shrink back to SCAN_BUDGET_MS;
+     *      c、pre-read horizon fixed PRE_READ_MS: due rows in horizon never mean backlog, and db next-trigger-time runs at most PRE_READ_MS ahead of fire;
+     */
+    private void adaptScan(long cost, int scanCount, int scanPages, boolean overBudget, boolean backlog, long tickScanBudgetMs) {
+        lastScanCost = cost;
+        lastScanCount = scanCount;
+        lastScanPages = scanPages;
+        if (overBudget) {
+            scanOverBudgetCount.incrementAndGet();
+        }
+        if (backlog) {
+            overdueBacklogCount.incrementAndGet();
+        }
+
+        dueDensityEwma = ewma(dueDensityEwma, scanCount * 1000.0 / PRE_READ_MS);
+        if (scanCount >= MIN_PAGE_SIZE) {
+            double rowCost = (double) cost / scanCount;
+            rowCostEwma = rowCostEwma < 0 ? rowCost : ewma(rowCostEwma, rowCost);
+            pageSize = (int) Math.max(MIN_PAGE_SIZE, Math.min(MAX_PAGE_SIZE, SCAN_BUDGET_MS / Math.max(rowCostEwma, 0.001)));
+        }
+
+        if (backlog) {
+            scanBudgetMs = Math.min(MAX_SCAN_BUDGET_MS, tickScanBudgetMs * 2);
+        } else if (tickScanBudgetMs > SCAN_BUDGET_MS) {
+            scanBudgetMs = Math.max(SCAN_BUDGET_MS, tickScanBudgetMs / 2);
+        }
+    }
+
+    private static double ewma(double avg, double value) {
+        return avg * 0.7 + value * 0.3;
+    }
+
+    /**
+     * schedule metrics
+     */
+    public Map<String, Object> getScheduleStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("preReadMs", PRE_READ_MS);
+        stats.put("scanBudgetMs", scanBudgetMs);
+        stats.put("pageSize", pageSize);
+        stats.put("rowCostMs", rowCostEwma < 0 ? 0 : rowCostEwma);
+        stats.put("dueDensity", dueDensityEwma);
+        stats.put("lastScanCost", lastScanCost);
+        stats.put("lastScanCount", lastScanCount);
+        stats.put("lastScanPages", lastScanPages);
+        stats.put("scanOverBudgetCount", scanOverBudgetCount.get());
+        stats.put("overdueBacklogCount", overdueBacklogCount.get());
+        stats.put("misfireCount", misfireCount.get());
+        stats.put("ringSize", ringData.size());
+        stats.put("spreadScheduleCount", spreadScheduleCount.get());
+        stats.put("calendarExcludedCount", calendarExcludedCount.get());
+        stats.putAll(fireLoadStats.snapshot(System.currentTimeMillis()));
+        stats.put("mode", memoryMode ? "memory" : "db");
+        if (memoryMode) {
+            stats.put("leader", JobScheduleLeaderHelper.getInstance().isLeader());
+            stats.put("indexSize", indexSize);
+            stats.put("indexDirtySize", indexDirtySize);
+            stats.put("indexFullLoadTime", lastFullLoadTime);
+        }
+        return stats;
+    }
+
+    private void scheduleUpdateBatch(List<XxlJobInfo> scheduleList) {
+        for (int from = 0; from < scheduleList.size(); from += UPDATE_BATCH_SIZE) {
+            List<XxlJobInfo> batchList = scheduleList.subList(from, Math.min(from + UPDATE_BATCH_SIZE, scheduleList.size()));
+            XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().scheduleUpdateBatch(batchList);
+        }
+    }
+
     private void refreshNextValidTime(XxlJobInfo jobInfo, Date fromTime) throws ParseException {
-        Date nextValidTime = new CronExpression(jobInfo.getJobCron()).getNextValidTimeAfter(fromTime);
+        Date nextValidTime = JobCalendarHelper.getInstance().getNextValidTimeAfter(jobInfo, fromTime);
         if (nextValidTime != null) {
             jobInfo.setTriggerLastTime(jobInfo.getTriggerNextTime());
             jobInfo.setTriggerNextTime(nextValidTime.getTime());
@@ -281,16 +659,14 @@ public class JobScheduleHelper {
         }
     }
 
-    private void pushTimeRing(int ringSecond, int jobId){
-        // push async ring
-        List<Integer> ringItemData = ringData.get(ringSecond);
-        if (ringItemData == null) {
-            ringItemData = new ArrayList<Integer>();
-            ringData.put(ringSecond, ringItemData);
+    private void pushTimeRing(int jobId, long triggerTime){
+        // push async ring, fire directly if already due
+        if (!ringData.add(jobId, triggerTime)) {
+            fireLoadStats.record(System.currentTimeMillis());
+            JobTriggerPoolHelper.trigger(jobId, TriggerTypeEnum.CRON, -1, null, null, null);
         }
-        ringItemData.add(jobId);
 
-        logger.debug(">>>>>>>>>>> xxl-job, schedule push time-ring : " + ringSecond + " = " + Arrays.asList(ringItemData) );
+        logger.debug(">>>>>>>>>>> xxl-job, schedule push time-ring : jobId = {}, triggerTime = {}", jobId, triggerTime);
     }
 
     public void toStop(){
@@ -312,22 +688,14 @@ public class JobScheduleHelper {
             }
         }
 
-        // if has ring data
-        boolean hasRingData = false;
-        if (!ringData.isEmpty()) {
-            for (int second : ringData.keySet()) {
-                List<Integer> tmpData = ringData.get(second);
-                if (tmpData!=null && tmpData.size()>0) {
-                    hasRingData = true;
-                    break;
-                }
-            }
-        }
-        if (hasRingData) {
+        // if has ring data, wait fire (pre-read data is due in pre-read horizon)
+        long ringWaitEnd = System.currentTimeMillis() + PRE_READ_MS + 3000;
+        while (ringData.size() > 0 && System.currentTimeMillis() < ringWaitEnd) {
             try {
-                TimeUnit.SECONDS.sleep(8);
+                TimeUnit.MILLISECONDS.sleep(100);
             } catch (InterruptedException e) {
                 logger.error(e.getMessage(), e);
+                break;
             }
         }
 
@@ -0,0 +1,162 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.core.util.IpUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * schedule leader helper, for schedule mode "memory"
+ *
+ *      a、leader lease is the lock row "schedule_leader" (xxl_job_lock.lock_owner / lease_expire), taken by conditional update:
+ *          "owner is me, or lease expired", so only one admin holds it at any time;
+ *      b、leader renews lease each LEASE_BEAT, lease is valid for LEASE_TIMEOUT;
+ *      c、leader stops scheduling by itself when the lease is not renewed in (LEASE_TIMEOUT - LEASE_SAFE_MARGIN), before others can take it;
+ */
+public class JobScheduleLeaderHelper {
+    private static Logger logger = LoggerFactory.getLogger(JobScheduleLeaderHelper.class);
+
+    private static JobScheduleLeaderHelper instance = new JobScheduleLeaderHelper();
+    public static JobScheduleLeaderHelper getInstance(){
+        return instance;
+    }
+
+    public static final String LEADER_LOCK_NAME = "schedule_leader";
+    public static final long LEASE_BEAT = 3000;             // lease beat, ms
+    public static final long LEASE_TIMEOUT = 10000;         // lease timeout, ms
+    public static final long LEASE_SAFE_MARGIN = 2000;      // clock drift / gc-pause margin, ms
+
+    private final String nodeId = IpUtil.getIp() + "_" + UUID.randomUUID().toString().replaceAll("-", "").substring(0, 8);
+
+    private volatile long leaseValidUntil = 0;              // local time, leader before it
+
+    private Thread leaderThread;
+    private volatile boolean toStop = false;
+
+    public void start(){
+        if (!"memory".equals(XxlJobAdminConfig.getAdminConfig().getScheduleMode())) {
+            return;
+        }
+
+        // init leader lock row
+        try {
+            executeUpdate("INSERT IGNORE INTO xxl_job_lock ( lock_name) VALUES ( ? )", LEADER_LOCK_NAME);
+        } catch (Exception e) {
+            logger.error(">>>>>>>>>>> xxl-job, schedule leader lock init error:{}", e);
+        }
+
+        leaderThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!toStop) {
+                    try {
+                        // acquire or renew lease
+                        long beatTime = System.currentTimeMillis();
+                        int ret = executeUpdate("UPDATE xxl_job_lock SET lock_owner = ?, lease_expire = ? WHERE lock_name = ? AND (lock_owner = ? OR lease_expire < ?)",
+                                nodeId, beatTime + LEASE_TIMEOUT, LEADER_LOCK_NAME, nodeId, beatTime);
+
+                        boolean wasLeader = isLeader();
+                        if (ret > 0) {
+                            leaseValidUntil = beatTime + LEASE_TIMEOUT - LEASE_SAFE_MARGIN;
+                            if (!wasLeader) {
+                                logger.info(">>>>>>>>>>> xxl-job, schedule leader elected, node = {}", nodeId);
+                            }
+                        } else {
+                            leaseValidUntil = 0;
+                            if (wasLeader) {
+                                logger.warn(">>>>>>>>>>> xxl-job, schedule leader lost, node = {}", nodeId);
+                            }
+                        }
+                    } catch (Exception e) {
+                        if (!toStop) {
+                            // lease not renewed, expire by leaseValidUntil
+                            logger.error(">>>>>>>>>>> xxl-job, JobScheduleLeaderHelper#leaderThread error:{}", e);
+                        }
+                    }
+
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(LEASE_BEAT);
+                    } catch (InterruptedException e) {
+                        if (!toStop) {
+                            logger.error(e.getMessage(), e);
+                        }
+                    }
+                }
+
+                // release lease, others take over at once
+                leaseValidUntil = 0;
+                try {
+                    executeUpdate("UPDATE xxl_job_lock SET lease_expire = 0 WHERE lock_name = ? AND lock_owner = ?", LEADER_LOCK_NAME, nodeId);
+                } catch (Exception e) {
+                    logger.error(e.getMessage(), e);
+                }
+                logger.info(">>>>>>>>>>> xxl-job, JobScheduleLeaderHelper#leaderThread stop");
+            }
+        });
+        leaderThread.setDaemon(true);
+        leaderThread.setName("xxl-job, admin JobScheduleLeaderHelper#leaderThread");
+        leaderThread.start();
+    }
+
+    public void toStop(){
+        if (leaderThread == null) {
+            return;
+        }
+        toStop = true;
+        // interrupt and wait
+        leaderThread.interrupt();
+        try {
+            leaderThread.join();
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * hold a valid lease now
+     */
+    public boolean isLeader() {
+        return System.currentTimeMillis() < leaseValidUntil;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private int executeUpdate(String sql, Object... params) {
+        Connection conn = null;
+        PreparedStatement preparedStatement = null;
+        try {
+            conn = XxlJobAdminConfig.getAdminConfig().getDataSource().getConnection();
+            preparedStatement = conn.prepareStatement(sql);
+            for (int i = 0; i < params.length; i++) {
+                preparedStatement.setObject(i + 1, params[i]);
+            }
+            return preparedStatement.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            if (preparedStatement != null) {
+                try {
+                    preparedStatement.close();
+                } catch (SQLException e) {
+                    logger.error(e.getMessage(), e);
+                }
+            }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    logger.error(e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,380 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
+import com.xxl.job.core.biz.ExecutorBiz;
+import com.xxl.job.core.biz.client.ExecutorBizAsyncClient;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.biz.model.TriggerParam;
+import com.xxl.job.core.util.ThrowableUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * job trigger batch helper, coalesce triggers to the same executor address into one "runBatch" request
+ *
+ *      a、first trigger to an address opens a batch, the batch is sent BATCH_WINDOW ms later, or at once when it holds BATCH_MAX triggers;
+ *      b、batch of one trigger is sent by "run"; executor without "runBatch" (old version) is remembered, and its triggers are sent by "run" one by one;
+ *      c、request is async when "xxl.job.trigger.async" enabled, else sent by blocking client in send pool;
+ *      d、send pool full: trigger is sent by "run" in caller thread (not batched), never blocks flush thread;
+ */
+public class JobTriggerBatchHelper {
+    private static Logger logger = LoggerFactory.getLogger(JobTriggerBatchHelper.class);
+
+    private static JobTriggerBatchHelper instance = new JobTriggerBatchHelper();
+    public static JobTriggerBatchHelper getInstance(){
+        return instance;
+    }
+
+    public static final long BATCH_WINDOW = 2;         // ms
+    public static final int BATCH_MAX = 64;
+
+    private final ConcurrentMap<String, Batch> batchMap = new ConcurrentHashMap<>();
+    private final DelayQueue<Batch> delayQueue = new DelayQueue<>();
+    private final Set<String> unsupportAddressSet = ConcurrentHashMap.newKeySet();     // executor without "runBatch"
+
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong batchTriggerCount = new AtomicLong();
+    private final AtomicLong singleCount = new AtomicLong();
+
+    private ThreadPoolExecutor sendPool;
+    private Thread flushThread;
+    private volatile boolean enabled = false;
+    private volatile boolean toStop = false;
+
+    public void start(){
+        if (!XxlJobAdminConfig.getAdminConfig().isTriggerBatch()) {
+            return;
+        }
+
+        sendPool = new ThreadPoolExecutor(
+                10,
+                XxlJobAdminConfig.getAdminConfig().getTriggerPoolFastMax(),
+                60L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(1000),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        return new Thread(r, "xxl-job, admin JobTriggerBatchHelper-sendPool-" + r.hashCode());
+                    }
+                },
+                new RejectedExecutionHandler() {
+                    @Override
+                    public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+                        throw new RejectedExecutionException("xxl-job, JobTriggerBatchHelper send pool is EXHAUSTED!");
+                    }
+                });
+
+        flushThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!toStop) {
+                    try {
+                        Batch batch = delayQueue.poll(1000, TimeUnit.MILLISECONDS);
+                        if (batch != null) {
+                            send(batch);
+                        }
+                    } catch (InterruptedException e) {
+                        if (!toStop) {
+                            logger.error(e.getMessage(), e);
+                        }
+                    } catch (Exception e) {
+                        if (!toStop) {
+                            logger.error(">>>>>>>>>>> xxl-job, JobTriggerBatchHelper#flushThread error:{}", e);
+                        }
+                    }
+                }
+
+                // send left batches
+                for (Batch batch : batchMap.values()) {
+                    send(batch);
+                }
+                logger.info(">>>>>>>>>>> xxl-job, JobTriggerBatchHelper#flushThread stop");
+            }
+        });
+        flushThread.setDaemon(true);
+        flushThread.setName("xxl-job, admin JobTriggerBatchHelper#flushThread");
+        flushThread.start();
+
+        enabled = true;
+    }
+
+    public void toStop(){
+        enabled = false;
+        toStop = true;
+        if (flushThread == null) {
+            return;
+        }
+
+        // interrupt and wait
+        flushThread.interrupt();
+        try {
+            flushThread.join();
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage(), e);
+        }
+
+        // wait sending
+        sendPool.shutdown();
+        try {
+            sendPool.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * run trigger, coalesced with other triggers to the same address
+     *
+     * @param address
+     * @param triggerParam
+     * @return  run result of executor
+     */
+    public CompletableFuture<ReturnT<String>> run(String address, TriggerParam triggerParam) {
+        if (!enabled || unsupportAddressSet.contains(address) || sendPoolFull(address)) {
+            return runOne(address, triggerParam);
+        }
+
+        CompletableFuture<ReturnT<String>> resultFuture = new CompletableFuture<>();
+        while (true) {
+            Batch batch = batchMap.get(address);
+            if (batch == null) {
+                batch = new Batch(address, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(BATCH_WINDOW));
+                Batch existBatch = batchMap.putIfAbsent(address, batch);
+                if (existBatch != null) {
+                    batch = existBatch;
+                } else {
+                    delayQueue.offer(batch);
+                }
+            }
+
+            int size = batch.add(triggerParam, resultFuture);
+            if (size < 0) {
+                // batch sent or full, open another
+                batchMap.remove(address, batch);
+                continue;
+            }
+            if (size >= BATCH_MAX) {
+                send(batch);
+            }
+            return resultFuture;
+        }
+    }
+
+    private void send(final Batch batch) {
+        if (!batch.markSent()) {
+            return;
+        }
+        batchMap.remove(batch.address, batch);
+        delayQueue.remove(batch);
+        if (batch.triggerParamList.isEmpty()) {
+            return;     // opened but not added yet, the adder will open another
+        }
+
+        ExecutorBizAsyncClient executorBizAsync = XxlJobScheduler.getExecutorBizAsync(batch.address);
+
+        // batch of one
+        if (batch.triggerParamList.size() == 1) {
+            if (executorBizAsync != null) {
+                runOne(batch.address, batch.triggerParamList.get(0)).thenAccept(completeFuture(batch.futureList.get(0)));
+                return;
+            }
+            try {
+                sendPool.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        runOne(batch.address, batch.triggerParamList.get(0)).thenAccept(completeFuture(batch.futureList.get(0)));
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejected(batch, e);
+            }
+            return;
+        }
+
+        batchCount.incrementAndGet();
+        batchTriggerCount.addAndGet(batch.triggerParamList.size());
+
+        if (executorBizAsync != null) {
+            executorBizAsync.runBatch(batch.triggerParamList).thenAccept(new Consumer<ReturnT<List<ReturnT<String>>>>() {
+                @Override
+                public void accept(ReturnT<List<ReturnT<String>>> batchResult) {
+                    complete(batch, batchResult);
+                }
+            });
+            return;
+        }
+        try {
+            sendPool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    ReturnT<List<ReturnT<String>>> batchResult;
+                    try {
+                        ExecutorBiz executorBiz = XxlJobScheduler.getExecutorBiz(batch.address);
+                        batchResult = executorBiz.runBatch(batch.triggerParamList);
+                    } catch (Exception e) {
+                        logger.error(">>>>>>>>>>> xxl-job trigger error, please check if the executor[{}] is running.", batch.address, e);
+                        batchResult = new ReturnT<List<ReturnT<String>>>(ReturnT.FAIL_CODE, ThrowableUtil.toString(e));
+                    }
+                    complete(batch, batchResult);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected(batch, e);
+        }
+    }
+
+    /**
+     * blocking send pool full, new triggers are sent by "run" in caller thread until it drains
+     */
+    private boolean sendPoolFull(String address) {
+        return sendPool!=null && sendPool.getQueue().remainingCapacity()==0 && XxlJobScheduler.getExecutorBizAsync(address)==null;
+    }
+
+    /**
+     * batch closed while send pool filled up (rare, new triggers already bypass batch): fail fast, not send in flush thread
+     */
+    private void rejected(Batch batch, RejectedExecutionException e) {
+        logger.warn(">>>>>>>>>>> xxl-job, executor[{}] batch rejected, size:{}, {}", batch.address, batch.triggerParamList.size(), e.getMessage());
+        for (CompletableFuture<ReturnT<String>> future : batch.futureList) {
+            future.complete(new ReturnT<String>(ReturnT.FAIL_CODE, e.getMessage()));
+        }
+    }
+
+    private void complete(Batch batch, ReturnT<List<ReturnT<String>>> batchResult) {
+        List<ReturnT<String>> resultList = (batchResult!=null && batchResult.getCode()==ReturnT.SUCCESS_CODE)?batchResult.getContent():null;
+        if (resultList!=null && resultList.size()==batch.triggerParamList.size()) {
+            for (int i = 0; i < resultList.size(); i++) {
+                ReturnT<String> result = resultList.get(i);
+                batch.futureList.get(i).complete(result!=null?result:new ReturnT<String>(ReturnT.FAIL_CODE, "runBatch result invalid."));
+            }
+            return;
+        }
+
+        // old executor, "runBatch" not found: run one by one
+        if (batchResult!=null && batchResult.getMsg()!=null && batchResult.getMsg().contains("uri-mapping(/runBatch)")) {
+            if (unsupportAddressSet.add(batch.address)) {
+                logger.info(">>>>>>>>>>> xxl-job, executor[{}] not support runBatch, fall back to run.", batch.address);
+            }
+            for (int i = 0; i < batch.triggerParamList.size(); i++) {
+                runOne(batch.address, batch.triggerParamList.get(i)).thenAccept(completeFuture(batch.futureList.get(i)));
+            }
+            return;
+        }
+
+        // batch fail, each trigger fail
+        String msg = (batchResult!=null && batchResult.getMsg()!=null)?batchResult.getMsg():"runBatch result invalid.";
+        for (CompletableFuture<ReturnT<String>> future : batch.futureList) {
+            future.complete(new ReturnT<String>(ReturnT.FAIL_CODE, msg));
+        }
+    }
+
+    private CompletableFuture<ReturnT<String>> runOne(final String address, final TriggerParam triggerParam) {
+        singleCount.incrementAndGet();
+
+        ExecutorBizAsyncClient executorBizAsync = XxlJobScheduler.getExecutorBizAsync(address);
+        if (executorBizAsync != null) {
+            return executorBizAsync.run(triggerParam);
+        }
+        ReturnT<String> runResult;
+        try {
+            ExecutorBiz executorBiz = XxlJobScheduler.getExecutorBiz(address);
+            runResult = executorBiz.run(triggerParam);
+        } catch (Exception e) {
+            logger.error(">>>>>>>>>>> xxl-job trigger error, please check if the executor[{}] is running.", address, e);
+            runResult = new ReturnT<String>(ReturnT.FAIL_CODE, ThrowableUtil.toString(e));
+        }
+        return CompletableFuture.completedFuture(runResult);
+    }
+
+    private static Consumer<ReturnT<String>> completeFuture(final CompletableFuture<ReturnT<String>> future) {
+        return new Consumer<ReturnT<String>>() {
+            @Override
+            public void accept(ReturnT<String> result) {
+                future.complete(result);
+            }
+        };
+    }
+
+    /**
+     * batch metrics
+     */
+    public Map<String, Object> getBatchStats() {
+        long batches = batchCount.get();
+        long batchTriggers = batchTriggerCount.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("openBatchSize", batchMap.size());
+        stats.put("batchCount", batches);
+        stats.put("batchTriggerCount", batchTriggers);
+        stats.put("avgBatchSize", batches > 0 ? (double) batchTriggers / batches : 0);
+        stats.put("singleCount", singleCount.get());
+        stats.put("unsupportAddress", new ArrayList<String>(unsupportAddressSet));
+        return stats;
+    }
+
+
+    // ---------------------- batch ----------------------
+
+    private static class Batch implements Delayed {
+        private final String address;
+        private final long sendTime;        // nano
+        private final List<TriggerParam> triggerParamList = new ArrayList<>();
+        private final List<CompletableFuture<ReturnT<String>>> futureList = new ArrayList<>();
+        private boolean sent = false;
+
+        private Batch(String address, long sendTime) {
+            this.address = address;
+            this.sendTime = sendTime;
+        }
+
+        /**
+         * @return  batch size after add, -1: sent or full, not added
+         */
+        private synchronized int add(TriggerParam triggerParam, CompletableFuture<ReturnT<String>> future) {
+            if (sent || triggerParamList.size() >= BATCH_MAX) {
+                return -1;
+            }
+            triggerParamList.add(triggerParam);
+            futureList.add(future);
+            return triggerParamList.size();
+        }
+
+        /**
+         * @return  false: sent already; lists never change after sent
+         */
+        private synchronized boolean markSent() {
+            if (sent) {
+                return false;
+            }
+            sent = true;
+            return true;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(sendTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return Long.compare(sendTime, ((Batch) o).sendTime);
+        }
+    }
+
+}
@@ -0,0 +1,230 @@
+package com.xxl.job.admin.core.thread;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * job trigger fair queue, per job-group bulkhead
+ *
+ *      a、each job group has its own bounded queue, a full queue rejects only its own group;
+ *      b、groups are served by deficit round robin: a group takes up to "weight" tasks per turn;
+ *      c、each group runs at most "max" tasks at once, all groups at most "maxThreads", a slow group never holds more than its cap;
+ */
+public class JobTriggerFairQueue {
+
+    public static final int GROUP_QUEUE_CAPACITY = 1000;
+
+    private final int maxThreads;
+    private final int defaultWeight;
+    private final int defaultMax;
+    private final Map<Integer, int[]> groupConfMap;        // groupId -> [weight, max]
+    private final Executor executor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ConcurrentMap<Integer, GroupQueue> groupQueueMap = new ConcurrentHashMap<>();
+    private final ArrayDeque<GroupQueue> activeList = new ArrayDeque<>();      // groups with queued task, in turn order
+    private int running = 0;
+
+    /**
+     * @param maxThreads        max running tasks of all groups
+     * @param defaultWeight
+     * @param defaultMax        max running tasks of one group
+     * @param groupConfMap      groupId -> [weight, max], cover default
+     * @param executor          runs dispatched tasks, never rejects (at most "maxThreads" tasks submitted at once)
+     */
+    public JobTriggerFairQueue(int maxThreads, int defaultWeight, int defaultMax, Map<Integer, int[]> groupConfMap, Executor executor) {
+        this.maxThreads = maxThreads;
+        this.defaultWeight = defaultWeight;
+        this.defaultMax = defaultMax;
+        this.groupConfMap = groupConfMap;
+        this.executor = executor;
+    }
+
+    /**
+     * add task of group
+     *
+     * @throws RejectedExecutionException   group queue full
+     */
+    public void execute(int groupId, Runnable task) {
+        GroupQueue groupQueue = groupQueue(groupId);
+
+        lock.lock();
+        try {
+            if (groupQueue.queue.size() >= GROUP_QUEUE_CAPACITY) {
+                groupQueue.rejectCount++;
+                throw new RejectedExecutionException("xxl-job, job group("+ groupId +") trigger queue is full.");
+            }
+            groupQueue.queue.offer(task);
+            if (!groupQueue.active) {
+                groupQueue.active = true;
+                activeList.offerLast(groupQueue);
+            }
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private GroupQueue groupQueue(int groupId) {
+        GroupQueue groupQueue = groupQueueMap.get(groupId);
+        if (groupQueue == null) {
+            int[] groupConf = groupConfMap!=null?groupConfMap.get(groupId):null;
+            groupQueue = new GroupQueue(groupId,
+                    groupConf!=null?groupConf[0]:defaultWeight,
+                    Math.min(groupConf!=null?groupConf[1]:defaultMax, maxThreads));
+            GroupQueue existGroupQueue = groupQueueMap.putIfAbsent(groupId, groupQueue);
+            if (existGroupQueue != null) {
+                groupQueue = existGroupQueue;
+            }
+        }
+        return groupQueue;
+    }
+
+    /**
+     * dispatch queued tasks to free threads, deficit round robin; under lock
+     */
+    private void dispatch() {
+        int blocked = 0;
+        while (running < maxThreads && blocked < activeList.size()) {
+            GroupQueue groupQueue = activeList.peekFirst();
+
+            // group at its cap: skip turn
+            if (groupQueue.running >= groupQueue.max) {
+                groupQueue.deficit = 0;
+                activeList.offerLast(activeList.pollFirst());
+                blocked++;
+                continue;
+            }
+
+            // new turn
+            if (groupQueue.deficit <= 0) {
+                groupQueue.deficit = groupQueue.weight;
+            }
+
+            final GroupQueue runGroupQueue = groupQueue;
+            final Runnable task = groupQueue.queue.poll();
+            groupQueue.deficit--;
+            groupQueue.running++;
+            groupQueue.dispatchCount++;
+            running++;
+            blocked = 0;
+
+            if (groupQueue.queue.isEmpty()) {
+                groupQueue.active = false;
+                groupQueue.deficit = 0;
+                activeList.pollFirst();
+            } else if (groupQueue.deficit <= 0) {
+                // turn end
+                activeList.offerLast(activeList.pollFirst());
+            }
+
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        task.run();
+                    } finally {
+                        complete(runGroupQueue);
+                    }
+                }
+            });
+        }
+    }
+
+    private void complete(GroupQueue groupQueue) {
+        lock.lock();
+        try {
+            groupQueue.running--;
+            running--;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * queue metrics
+     */
+    public Map<String, Object> getQueueStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            stats.put("maxThreads", maxThreads);
+            stats.put("running", running);
+
+            Map<Integer, Object> groupStats = new LinkedHashMap<>();
+            for (GroupQueue groupQueue : groupQueueMap.values()) {
+                Map<String, Object> groupStat = new LinkedHashMap<>();
+                groupStat.put("weight", groupQueue.weight);
+                groupStat.put("max", groupQueue.max);
+                groupStat.put("queueSize", groupQueue.queue.size());
+                groupStat.put("running", groupQueue.running);
+                groupStat.put("dispatchCount", groupQueue.dispatchCount);
+                groupStat.put("rejectCount", groupQueue.rejectCount);
+                groupStats.put(groupQueue.groupId, groupStat);
+            }
+            stats.put("groups", groupStats);
+        } finally {
+            lock.unlock();
+        }
+        return stats;
+    }
+
+    /**
+     * parse group conf, like "1:2:50,3:1:10" (groupId:weight:max)
+     *
+     * @throws IllegalArgumentException
+     */
+    public static Map<Integer, int[]> parseGroupConf(String groupConf) {
+        Map<Integer, int[]> groupConfMap = new ConcurrentHashMap<>();
+        if (groupConf==null || groupConf.trim().length()==0) {
+            return groupConfMap;
+        }
+        for (String item : groupConf.split(",")) {
+            String[] itemArr = item.trim().split(":");
+            if (itemArr.length != 3) {
+                throw new IllegalArgumentException("xxl-job, trigger pool group conf invalid: " + item);
+            }
+            try {
+                int groupId = Integer.parseInt(itemArr[0].trim());
+                int weight = Integer.parseInt(itemArr[1].trim());
+                int max = Integer.parseInt(itemArr[2].trim());
+                if (weight < 1 || max < 1) {
+                    throw new IllegalArgumentException("xxl-job, trigger pool group conf invalid: " + item);
+                }
+                groupConfMap.put(groupId, new int[]{weight, max});
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("xxl-job, trigger pool group conf invalid: " + item);
+            }
+        }
+        return groupConfMap;
+    }
+
+
+    // ---------------------- group queue ----------------------
+
+    private static class GroupQueue {
+        private final int groupId;
+        private final int weight;
+        private final int max;
+        private final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+        private boolean active = false;
+        private int deficit = 0;
+        private int running = 0;
+        private long dispatchCount = 0;
+        private long rejectCount = 0;
+
+        private GroupQueue(int groupId, int weight, int max) {
+            this.groupId = groupId;
+            this.weight = weight;
+            this.max = max;
+        }
+    }
+
+}
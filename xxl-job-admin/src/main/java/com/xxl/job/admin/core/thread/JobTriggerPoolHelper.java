@@ -1,13 +1,18 @@
 package com.xxl.job.admin.core.thread;
 
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.model.XxlJobInfo;
+import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
+import com.xxl.job.admin.core.trigger.JobSnapshotCache;
+import com.xxl.job.admin.core.trigger.JobTriggerTracker;
 import com.xxl.job.admin.core.trigger.TriggerTypeEnum;
 import com.xxl.job.admin.core.trigger.XxlJobTrigger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * job trigger thread pool helper
@@ -24,7 +29,72 @@ public class JobTriggerPoolHelper {
     private ThreadPoolExecutor fastTriggerPool = null;
     private ThreadPoolExecutor slowTriggerPool = null;
 
+    // fair mode: per job-group queue, served by fair pool
+    private ThreadPoolExecutor fairTriggerPool = null;
+    private JobTriggerFairQueue fairQueue = null;
+
+    // virtual mode: virtual thread per trigger, per job-group semaphore
+    private JobTriggerVirtualPool virtualPool = null;
+
+    // job-group of job, key of fair / virtual mode; kept by schedule scan and trigger, never loaded in caller thread (schedule / time-ring)
+    private final ConcurrentMap<Integer, Integer> jobGroupMap = new ConcurrentHashMap<Integer, Integer>();
+
+    // broadcast fan-out: shards of one broadcast run in parallel, caller runs when pool busy
+    private ThreadPoolExecutor broadcastTriggerPool = null;
+
+    // async trigger complete: executor result handled (breaker, trigger log) off netty io thread; queue bounded by async in-flight
+    private ThreadPoolExecutor triggerCompletePool = null;
+
     public void start(){
+        triggerCompletePool = new ThreadPoolExecutor(
+                10,
+                10,
+                60L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        return new Thread(r, "xxl-job, admin JobTriggerPoolHelper-triggerCompletePool-" + r.hashCode());
+                    }
+                },
+                new RejectedExecutionHandler() {
+                    @Override
+                    public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+                        // pool stopped: result completed late (in-flight failed at shutdown), handle in caller thread, never lost
+                        r.run();
+                    }
+                });
+        triggerCompletePool.allowCoreThreadTimeOut(true);
+
+        broadcastTriggerPool = new ThreadPoolExecutor(
+                0,
+                XxlJobAdminConfig.getAdminConfig().getTriggerPoolFastMax(),
+                60L,
+                TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        return new Thread(r, "xxl-job, admin JobTriggerPoolHelper-broadcastTriggerPool-" + r.hashCode());
+                    }
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        if ("fair".equals(XxlJobAdminConfig.getAdminConfig().getTriggerPoolMode())) {
+            startFair();
+            return;
+        }
+        if ("virtual".equals(XxlJobAdminConfig.getAdminConfig().getTriggerPoolMode())) {
+            ExecutorService virtualThreadExecutor = JobTriggerVirtualPool.newVirtualThreadExecutor();
+            if (virtualThreadExecutor != null) {
+                virtualPool = new JobTriggerVirtualPool(virtualThreadExecutor, XxlJobAdminConfig.getAdminConfig().getTriggerPoolVirtualGroupMax());
+                logger.info(">>>>>>>>> xxl-job trigger pool start, mode = virtual, groupMax = {}", XxlJobAdminConfig.getAdminConfig().getTriggerPoolVirtualGroupMax());
+                return;
+            }
+            logger.warn(">>>>>>>>> xxl-job trigger pool, virtual thread not supported (JDK 21+ required), fall back to classic mode.");
+        }
+
         fastTriggerPool = new ThreadPoolExecutor(
                 10,
                 XxlJobAdminConfig.getAdminConfig().getTriggerPoolFastMax(),
@@ -53,7 +123,46 @@ public class JobTriggerPoolHelper {
     }
 
 
+    private void startFair(){
+        int maxThreads = XxlJobAdminConfig.getAdminConfig().getTriggerPoolFastMax() + XxlJobAdminConfig.getAdminConfig().getTriggerPoolSlowMax();
+        fairTriggerPool = new ThreadPoolExecutor(
+                maxThreads,
+                maxThreads,
+                60L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),        // bounded by fair queue, at most maxThreads tasks
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        return new Thread(r, "xxl-job, admin JobTriggerPoolHelper-fairTriggerPool-" + r.hashCode());
+                    }
+                });
+        fairTriggerPool.allowCoreThreadTimeOut(true);
+
+        fairQueue = new JobTriggerFairQueue(maxThreads,
+                1,
+                XxlJobAdminConfig.getAdminConfig().getTriggerPoolFairGroupMax(),
+                JobTriggerFairQueue.parseGroupConf(XxlJobAdminConfig.getAdminConfig().getTriggerPoolFairGroups()),
+                fairTriggerPool);
+        logger.info(">>>>>>>>> xxl-job trigger pool start, mode = fair, maxThreads = {}", maxThreads);
+    }
+
+
     public void stop() {
+        if (broadcastTriggerPool != null) {
+            broadcastTriggerPool.shutdownNow();
+        }
+        if (virtualPool != null) {
+            virtualPool.shutdownNow();
+            logger.info(">>>>>>>>> xxl-job trigger thread pool shutdown success.");
+            return;
+        }
+        if (fairTriggerPool != null) {
+            fairTriggerPool.shutdownNow();
+            logger.info(">>>>>>>>> xxl-job trigger thread pool shutdown success.");
+            return;
+        }
+
         //triggerPool.shutdown();
         fastTriggerPool.shutdownNow();
         slowTriggerPool.shutdownNow();
@@ -61,9 +170,23 @@ public class JobTriggerPoolHelper {
     }
 
 
-    // job timeout count
-    private volatile long minTim = System.currentTimeMillis()/60000;     // ms > min
-    private volatile ConcurrentMap<Integer, AtomicInteger> jobTimeoutCountMap = new ConcurrentHashMap<>();
+    /**
+     * stop complete pool, after trigger batch and async executor-client stopped (in-flight results completed), wait queued results written
+     */
+    public void stopComplete() {
+        if (triggerCompletePool == null) {
+            return;
+        }
+        triggerCompletePool.shutdown();
+        try {
+            if (!triggerCompletePool.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn(">>>>>>>>> xxl-job trigger complete pool stop timeout, queueSize:{}", triggerCompletePool.getQueue().size());
+            }
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage(), e);
+        }
+        logger.info(">>>>>>>>> xxl-job trigger complete pool shutdown success.");
+    }
 
 
     /**
@@ -76,10 +199,40 @@ public class JobTriggerPoolHelper {
                            final String executorParam,
                            final String addressList) {
 
-        // choose thread pool
+        // fair / virtual mode
+        if (fairQueue!=null || virtualPool!=null) {
+            final Integer knownJobGroup = jobGroupMap.get(jobId);
+            int jobGroup = knownJobGroup!=null?knownJobGroup:0;     // unknown (not scheduled yet, like manual / child): shared group 0
+            Runnable triggerTask = new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        // do trigger
+                        XxlJobTrigger.trigger(jobId, triggerType, failRetryCount, executorShardingParam, executorParam, addressList);
+
+                        // resolve job-group in pool thread (snapshot cached by trigger)
+                        if (knownJobGroup == null) {
+                            XxlJobInfo jobInfo = JobSnapshotCache.getInstance().loadJob(jobId);
+                            if (jobInfo != null) {
+                                jobGroupMap.put(jobId, jobInfo.getJobGroup());
+                            }
+                        }
+                    } catch (Exception e) {
+                        logger.error(e.getMessage(), e);
+                    }
+                }
+            };
+            if (fairQueue != null) {
+                fairQueue.execute(jobGroup, triggerTask);
+            } else {
+                virtualPool.execute(jobGroup, triggerTask);
+            }
+            return;
+        }
+
+        // choose thread pool (slow class by trigger cost EWMA, see JobTriggerTracker)
         ThreadPoolExecutor triggerPool_ = fastTriggerPool;
-        AtomicInteger jobTimeoutCount = jobTimeoutCountMap.get(jobId);
-        if (jobTimeoutCount!=null && jobTimeoutCount.get() > 10) {      // job-timeout 10 times in 1 min
+        if (JobTriggerTracker.getInstance().isSlow(jobId)) {
             triggerPool_ = slowTriggerPool;
         }
 
@@ -87,40 +240,46 @@ public class JobTriggerPoolHelper {
         triggerPool_.execute(new Runnable() {
             @Override
             public void run() {
-
-                long start = System.currentTimeMillis();
-
                 try {
                     // do trigger
                     XxlJobTrigger.trigger(jobId, triggerType, failRetryCount, executorShardingParam, executorParam, addressList);
                 } catch (Exception e) {
                     logger.error(e.getMessage(), e);
-                } finally {
-
-                    // check timeout-count-map
-                    long minTim_now = System.currentTimeMillis()/60000;
-                    if (minTim != minTim_now) {
-                        minTim = minTim_now;
-                        jobTimeoutCountMap.clear();
-                    }
-
-                    // incr timeout-count-map
-                    long cost = System.currentTimeMillis()-start;
-                    if (cost > 500) {       // ob-timeout threshold 500ms
-                        AtomicInteger timeoutCount = jobTimeoutCountMap.putIfAbsent(jobId, new AtomicInteger(1));
-                        if (timeoutCount != null) {
-                            timeoutCount.incrementAndGet();
-                        }
-                    }
-
                 }
-
             }
         });
     }
 
 
 
+    /**
+     * trigger pool metrics
+     */
+    public Map<String, Object> poolStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        if (fairQueue!=null || virtualPool!=null) {
+            stats.put("mode", fairQueue!=null?"fair":"virtual");
+            stats.put(fairQueue!=null?"fair":"virtual", fairQueue!=null?fairQueue.getQueueStats():virtualPool.getPoolStats());
+            stats.put("broadcastActiveCount", broadcastTriggerPool.getActiveCount());
+            stats.put("completeQueueSize", triggerCompletePool.getQueue().size());
+            stats.put("async", XxlJobAdminConfig.getAdminConfig().isTriggerAsync());
+            stats.put("asyncInflight", XxlJobScheduler.getAsyncInflight());
+            return stats;
+        }
+        stats.put("mode", "classic");
+        stats.put("fastActiveCount", fastTriggerPool.getActiveCount());
+        stats.put("fastQueueSize", fastTriggerPool.getQueue().size());
+        stats.put("slowActiveCount", slowTriggerPool.getActiveCount());
+        stats.put("slowQueueSize", slowTriggerPool.getQueue().size());
+        stats.put("broadcastActiveCount", broadcastTriggerPool.getActiveCount());
+        stats.put("completeQueueSize", triggerCompletePool.getQueue().size());
+        stats.put("async", XxlJobAdminConfig.getAdminConfig().isTriggerAsync());
+        stats.put("asyncInflight", XxlJobScheduler.getAsyncInflight());
+        return stats;
+    }
+
+
+
     // ---------------------- helper ----------------------
 
     private static JobTriggerPoolHelper helper = new JobTriggerPoolHelper();
@@ -131,6 +290,16 @@ public class JobTriggerPoolHelper {
     public static void toStop() {
         helper.stop();
     }
+    public static void toStopComplete() {
+        helper.stopComplete();
+    }
+
+    /**
+     * remember job-group of job (schedule scan), used as fair / virtual mode key
+     */
+    public static void rememberJobGroup(int jobId, int jobGroup) {
+        helper.jobGroupMap.put(jobId, jobGroup);
+    }
 
     /**
      * @param jobId
@@ -144,7 +313,41 @@ public class JobTriggerPoolHelper {
      *          not null: cover job param
      */
     public static void trigger(int jobId, TriggerTypeEnum triggerType, int failRetryCount, String executorShardingParam, String executorParam, String addressList) {
-        helper.addTrigger(jobId, triggerType, failRetryCount, executorShardingParam, executorParam, addressList);
+        if (!offerTrigger(jobId, triggerType, failRetryCount, executorShardingParam, executorParam, addressList)) {
+            // pool full, spill and replay later
+            if (!JobTriggerSpillHelper.getInstance().spill(jobId, triggerType, failRetryCount, executorShardingParam, executorParam, addressList)) {
+                logger.warn(">>>>>>>>>>> xxl-job, trigger pool full, trigger dropped, jobId:{}, triggerType:{}", jobId, triggerType);
+            }
+        }
+    }
+
+    /**
+     * add trigger, no spill
+     *
+     * @return  false: rejected, trigger pool full
+     */
+    public static boolean offerTrigger(int jobId, TriggerTypeEnum triggerType, int failRetryCount, String executorShardingParam, String executorParam, String addressList) {
+        try {
+            helper.addTrigger(jobId, triggerType, failRetryCount, executorShardingParam, executorParam, addressList);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * pool of broadcast shards fan-out, null when not started
+     */
+    public static Executor getBroadcastPool() {
+        return helper.broadcastTriggerPool;
+    }
+
+    public static Executor getTriggerCompletePool() {
+        return helper.triggerCompletePool;
+    }
+
+    public static Map<String, Object> getPoolStats() {
+        return helper.poolStats();
     }
 
 }
@@ -0,0 +1,510 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.trigger.TriggerTypeEnum;
+import com.xxl.job.admin.core.util.JacksonUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * job trigger spill helper, triggers rejected by full trigger pool are spilled to local file and replayed later
+ *
+ *      a、spilled trigger is queued in memory (at most SPILL_QUEUE_CAPACITY, full: dropped), caller (schedule / time-ring thread) never waits disk;
+ *      b、write thread appends queued triggers to a segment file in "xxl.job.triggerpool.spill.path" (one json line each, one flush per batch), a segment is closed at SEGMENT_MAX_SIZE;
+ *      c、replay thread takes the oldest closed segment (or closes the open one), and re-adds its triggers at "xxl.job.triggerpool.spill.qps", waits while pool still full;
+ *      d、segment is deleted when fully replayed; replay offset saved to "segment.offset" each OFFSET_SAVE_COUNT triggers and when stopped, restart goes on from it (crash replays at most OFFSET_SAVE_COUNT twice);
+ *      e、schedule trigger (CRON / MISFIRE) spilled longer than "xxl.job.triggerpool.spill.cronmaxage" is dropped as lost, not fired late next to newer fires of the same job;
+ */
+public class JobTriggerSpillHelper {
+    private static Logger logger = LoggerFactory.getLogger(JobTriggerSpillHelper.class);
+
+    private static JobTriggerSpillHelper instance = new JobTriggerSpillHelper();
+    public static JobTriggerSpillHelper getInstance(){
+        return instance;
+    }
+
+    public static final long SEGMENT_MAX_SIZE = 16 * 1024 * 1024;
+    public static final String SEGMENT_PREFIX = "trigger-spill-";
+    public static final String SEGMENT_SUFFIX = ".log";
+    public static final String OFFSET_SUFFIX = ".offset";
+    public static final int OFFSET_SAVE_COUNT = 100;
+    public static final int SPILL_QUEUE_CAPACITY = 10000;
+    public static final int WRITE_BATCH_SIZE = 1000;
+
+    private File spillDir;
+    private final LinkedBlockingQueue<String> spillQueue = new LinkedBlockingQueue<>(SPILL_QUEUE_CAPACITY);
+    private final Object writeLock = new Object();
+    private Writer segmentWriter;       // guarded by writeLock
+    private File segmentFile;
+    private long segmentSize;
+    private long segmentSeq = 0;
+
+    private final AtomicLong spillCount = new AtomicLong();
+    private final AtomicLong replayCount = new AtomicLong();
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final AtomicLong lostCount = new AtomicLong();
+    private final AtomicLong expiredCount = new AtomicLong();
+    private final AtomicLong deferTimeTotal = new AtomicLong();
+    private volatile long deferTimeMax = 0;
+    private volatile long replaySpillTime = 0;      // spill time of trigger replaying, 0: none
+
+    private Thread writeThread;
+    private Thread replayThread;
+    private volatile boolean toStop = false;
+
+    public void start(){
+        String spillPath = XxlJobAdminConfig.getAdminConfig().getTriggerPoolSpillPath();
+        if (spillPath==null || spillPath.trim().length()==0) {
+            logger.info(">>>>>>>>>>> xxl-job, trigger spill disabled, rejected trigger will be dropped.");
+            return;
+        }
+        spillDir = new File(spillPath.trim());
+        if (!spillDir.exists() && !spillDir.mkdirs()) {
+            logger.error(">>>>>>>>>>> xxl-job, trigger spill path create fail: {}", spillDir.getAbsolutePath());
+            spillDir = null;
+            return;
+        }
+
+        // left segments of last run
+        for (File file : listSegments()) {
+            try {
+                pendingCount.addAndGet(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).size() - readOffset(file));
+            } catch (IOException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+        if (pendingCount.get() > 0) {
+            logger.info(">>>>>>>>>>> xxl-job, trigger spill left of last run: {}", pendingCount.get());
+        }
+
+        writeThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!toStop) {
+                    try {
+                        String first = spillQueue.poll(1, TimeUnit.SECONDS);
+                        if (first == null) {
+                            continue;
+                        }
+                        List<String> lineList = new ArrayList<>();
+                        lineList.add(first);
+                        spillQueue.drainTo(lineList, WRITE_BATCH_SIZE - 1);
+                        writeLines(lineList);
+                    } catch (InterruptedException e) {
+                        if (!toStop) {
+                            logger.error(e.getMessage(), e);
+                        }
+                    } catch (Exception e) {
+                        if (!toStop) {
+                            logger.error(">>>>>>>>>>> xxl-job, JobTriggerSpillHelper#writeThread error:{}", e);
+                        }
+                    }
+                }
+
+                // write left triggers
+                flushQueue();
+                logger.info(">>>>>>>>>>> xxl-job, JobTriggerSpillHelper#writeThread stop");
+            }
+        });
+        writeThread.setDaemon(true);
+        writeThread.setName("xxl-job, admin JobTriggerSpillHelper#writeThread");
+        writeThread.start();
+
+        replayThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!toStop) {
+                    try {
+                        File file = nextReplaySegment();
+                        if (file == null) {
+                            TimeUnit.SECONDS.sleep(1);
+                            continue;
+                        }
+                        replay(file);
+                    } catch (InterruptedException e) {
+                        if (!toStop) {
+                            logger.error(e.getMessage(), e);
+                        }
+                    } catch (Exception e) {
+                        if (!toStop) {
+                            logger.error(">>>>>>>>>>> xxl-job, JobTriggerSpillHelper#replayThread error:{}", e);
+                        }
+                    }
+                }
+                logger.info(">>>>>>>>>>> xxl-job, JobTriggerSpillHelper#replayThread stop");
+            }
+        });
+        replayThread.setDaemon(true);
+        replayThread.setName("xxl-job, admin JobTriggerSpillHelper#replayThread");
+        replayThread.start();
+    }
+
+    public void toStop(){
+        toStop = true;
+        if (replayThread != null) {
+            // interrupt and wait
+            replayThread.interrupt();
+            try {
+                replayThread.join();
+            } catch (InterruptedException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+        if (writeThread != null) {
+            // interrupt and wait, left triggers written
+            writeThread.interrupt();
+            try {
+                writeThread.join();
+            } catch (InterruptedException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+        synchronized (writeLock) {
+            closeSegment();
+        }
+    }
+
+    /**
+     * spill rejected trigger
+     *
+     * @return  false: spill disabled, queue full or write fail (stopped, written directly), trigger dropped
+     */
+    public boolean spill(int jobId, TriggerTypeEnum triggerType, int failRetryCount, String executorShardingParam, String executorParam, String addressList) {
+        if (spillDir == null) {
+            lostCount.incrementAndGet();
+            return false;
+        }
+
+        SpillTrigger spillTrigger = new SpillTrigger();
+        spillTrigger.setJobId(jobId);
+        spillTrigger.setTriggerType(triggerType);
+        spillTrigger.setFailRetryCount(failRetryCount);
+        spillTrigger.setExecutorShardingParam(executorShardingParam);
+        spillTrigger.setExecutorParam(executorParam);
+        spillTrigger.setAddressList(addressList);
+        spillTrigger.setSpillTime(System.currentTimeMillis());
+        String line = JacksonUtil.writeValueAsString(spillTrigger);
+        if (line == null) {
+            lostCount.incrementAndGet();
+            return false;
+        }
+
+        pendingCount.incrementAndGet();
+        if (writeThread == null || toStop) {
+            // stopped, write directly
+            return writeLines(Collections.singletonList(line)) > 0;
+        }
+        if (!spillQueue.offer(line)) {
+            pendingCount.decrementAndGet();
+            lostCount.incrementAndGet();
+            return false;
+        }
+        if (toStop) {
+            flushQueue();       // stopped while queued, write thread may be gone
+        }
+        return true;
+    }
+
+    private void flushQueue() {
+        List<String> lineList = new ArrayList<>();
+        while (spillQueue.drainTo(lineList, WRITE_BATCH_SIZE) > 0) {
+            writeLines(lineList);
+            lineList.clear();
+        }
+    }
+
+    /**
+     * append lines to open segment, flush once
+     *
+     * @return  written count, lines not written are lost
+     */
+    private int writeLines(List<String> lineList) {
+        int written = 0;
+        synchronized (writeLock) {
+            try {
+                for (String line : lineList) {
+                    if (segmentWriter == null) {
+                        segmentFile = new File(spillDir, String.format("%s%d-%06d%s", SEGMENT_PREFIX, System.currentTimeMillis(), (++segmentSeq % 1000000), SEGMENT_SUFFIX));
+                        segmentWriter = new OutputStreamWriter(new FileOutputStream(segmentFile, true), StandardCharsets.UTF_8);
+                        segmentSize = 0;
+                    }
+                    segmentWriter.write(line);
+                    segmentWriter.write("\n");
+                    segmentSize += line.getBytes(StandardCharsets.UTF_8).length + 1;
+                    written++;
+                    if (segmentSize >= SEGMENT_MAX_SIZE) {
+                        closeSegment();
+                    }
+                }
+                if (segmentWriter != null) {
+                    segmentWriter.flush();
+                }
+            } catch (IOException e) {
+                logger.error(">>>>>>>>>>> xxl-job, trigger spill fail, lost:{}", lineList.size() - written, e);
+                closeSegment();
+            }
+        }
+        spillCount.addAndGet(written);
+        pendingCount.addAndGet(written - lineList.size());
+        lostCount.addAndGet(lineList.size() - written);
+        return written;
+    }
+
+    private void closeSegment() {
+        if (segmentWriter != null) {
+            try {
+                segmentWriter.close();
+            } catch (IOException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+        segmentWriter = null;
+        segmentFile = null;
+        segmentSize = 0;
+    }
+
+    private List<File> listSegments() {
+        File[] files = spillDir.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }
+        });
+        List<File> fileList = files!=null?new ArrayList<File>(Arrays.asList(files)):new ArrayList<File>();
+        Collections.sort(fileList, new Comparator<File>() {
+            @Override
+            public int compare(File o1, File o2) {
+                return o1.getName().compareTo(o2.getName());
+            }
+        });
+        return fileList;
+    }
+
+    /**
+     * oldest closed segment, or close the open segment when it is the only one
+     */
+    private File nextReplaySegment() {
+        synchronized (writeLock) {
+            for (File file : listSegments()) {
+                if (!file.equals(segmentFile)) {
+                    return file;
+                }
+            }
+            if (segmentFile != null && segmentSize > 0) {
+                File file = segmentFile;
+                closeSegment();
+                return file;
+            }
+            return null;
+        }
+    }
+
+    private void replay(File file) throws IOException {
+        List<String> lineList = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        long maxAge = XxlJobAdminConfig.getAdminConfig().getTriggerPoolSpillCronMaxAge() * 1000L;
+        int next = readOffset(file);        // first trigger not added yet
+        int saved = next;
+        try {
+            for (int i = next; i < lineList.size(); i++) {
+                if (toStop) {
+                    break;
+                }
+                if (i - saved >= OFFSET_SAVE_COUNT) {
+                    saveOffset(file, i);
+                    saved = i;
+                }
+                SpillTrigger spillTrigger = lineList.get(i).trim().length()>0?JacksonUtil.readValue(lineList.get(i), SpillTrigger.class):null;
+                if (spillTrigger == null) {
+                    logger.warn(">>>>>>>>>>> xxl-job, trigger spill line invalid, dropped: {}", lineList.get(i));
+                    pendingCount.decrementAndGet();
+                    lostCount.incrementAndGet();
+                    next = i + 1;
+                    continue;
+                }
+
+                // schedule trigger too late, dropped
+                if (maxAge > 0
+                        && (spillTrigger.getTriggerType()==TriggerTypeEnum.CRON || spillTrigger.getTriggerType()==TriggerTypeEnum.MISFIRE)
+                        && System.currentTimeMillis() - spillTrigger.getSpillTime() > maxAge) {
+                    logger.warn(">>>>>>>>>>> xxl-job, trigger spill expired, dropped, jobId:{}, triggerType:{}, spillTime:{}",
+                            spillTrigger.getJobId(), spillTrigger.getTriggerType(), spillTrigger.getSpillTime());
+                    pendingCount.decrementAndGet();
+                    lostCount.incrementAndGet();
+                    expiredCount.incrementAndGet();
+                    next = i + 1;
+                    continue;
+                }
+
+                // re-add, wait while pool still full
+                replaySpillTime = spillTrigger.getSpillTime();
+                while (!JobTriggerPoolHelper.offerTrigger(spillTrigger.getJobId(), spillTrigger.getTriggerType(), spillTrigger.getFailRetryCount(),
+                        spillTrigger.getExecutorShardingParam(), spillTrigger.getExecutorParam(), spillTrigger.getAddressList())) {
+                    TimeUnit.SECONDS.sleep(1);
+                }
+
+                next = i + 1;
+
+                long deferTime = System.currentTimeMillis() - spillTrigger.getSpillTime();
+                replayCount.incrementAndGet();
+                pendingCount.decrementAndGet();
+                deferTimeTotal.addAndGet(deferTime);
+                if (deferTime > deferTimeMax) {
+                    deferTimeMax = deferTime;
+                }
+
+                // rate limit
+                TimeUnit.MICROSECONDS.sleep(1000000L / XxlJobAdminConfig.getAdminConfig().getTriggerPoolSpillQps());
+            }
+        } catch (InterruptedException e) {
+            // stop
+            if (!toStop) {
+                logger.error(e.getMessage(), e);
+            }
+        } finally {
+            replaySpillTime = 0;
+        }
+
+        if (next >= lineList.size()) {
+            Files.delete(file.toPath());
+            Files.deleteIfExists(offsetFile(file).toPath());
+            return;
+        }
+
+        // save offset of left triggers
+        saveOffset(file, next);
+        logger.info(">>>>>>>>>>> xxl-job, trigger spill replay stop, left: {}", lineList.size() - next);
+    }
+
+    private static File offsetFile(File file) {
+        return new File(file.getPath() + OFFSET_SUFFIX);
+    }
+
+    /**
+     * replay offset of segment, 0 when not saved
+     */
+    private static int readOffset(File file) {
+        File offsetFile = offsetFile(file);
+        if (!offsetFile.exists()) {
+            return 0;
+        }
+        try {
+            String offset = new String(Files.readAllBytes(offsetFile.toPath()), StandardCharsets.UTF_8).trim();
+            return Math.max(0, Integer.parseInt(offset));
+        } catch (Exception e) {
+            logger.error(">>>>>>>>>>> xxl-job, trigger spill offset invalid, replay from start: {}", offsetFile.getAbsolutePath(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * save replay offset, tmp file moved over, never half written
+     */
+    private static void saveOffset(File file, int offset) throws IOException {
+        File offsetFile = offsetFile(file);
+        File tmpFile = new File(offsetFile.getPath() + ".tmp");
+        Files.write(tmpFile.toPath(), String.valueOf(offset).getBytes(StandardCharsets.UTF_8));
+        Files.move(tmpFile.toPath(), offsetFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * spill metrics
+     */
+    public Map<String, Object> getSpillStats() {
+        long replays = replayCount.get();
+        long spillTime = replaySpillTime;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", spillDir != null);
+        stats.put("spillPath", spillDir!=null?spillDir.getAbsolutePath():null);
+        stats.put("replayQps", XxlJobAdminConfig.getAdminConfig().getTriggerPoolSpillQps());
+        stats.put("spillCount", spillCount.get());
+        stats.put("replayCount", replays);
+        stats.put("queueSize", spillQueue.size());
+        stats.put("pendingCount", pendingCount.get());
+        stats.put("lostCount", lostCount.get());
+        stats.put("expiredCount", expiredCount.get());
+        stats.put("deferTimeAvg", replays > 0 ? deferTimeTotal.get() / replays : 0);
+        stats.put("deferTimeMax", deferTimeMax);
+        stats.put("replayingDeferTime", spillTime > 0 ? System.currentTimeMillis() - spillTime : 0);
+        return stats;
+    }
+
+
+    // ---------------------- spill trigger ----------------------
+
+    public static class SpillTrigger {
+        private int jobId;
+        private TriggerTypeEnum triggerType;
+        private int failRetryCount;
+        private String executorShardingParam;
+        private String executorParam;
+        private String addressList;
+        private long spillTime;
+
+        public int getJobId() {
+            return jobId;
+        }
+
+        public void setJobId(int jobId) {
+            this.jobId = jobId;
+        }
+
+        public TriggerTypeEnum getTriggerType() {
+            return triggerType;
+        }
+
+        public void setTriggerType(TriggerTypeEnum triggerType) {
+            this.triggerType = triggerType;
+        }
+
+        public int getFailRetryCount() {
+            return failRetryCount;
+        }
+
+        public void setFailRetryCount(int failRetryCount) {
+            this.failRetryCount = failRetryCount;
+        }
+
+        public String getExecutorShardingParam() {
+            return executorShardingParam;
+        }
+
+        public void setExecutorShardingParam(String executorShardingParam) {
+            this.executorShardingParam = executorShardingParam;
+        }
+
+        public String getExecutorParam() {
+            return executorParam;
+        }
+
+        public void setExecutorParam(String executorParam) {
+            this.executorParam = executorParam;
+        }
+
+        public String getAddressList() {
+            return addressList;
+        }
+
+        public void setAddressList(String addressList) {
+            this.addressList = addressList;
+        }
+
+        public long getSpillTime() {
+            return spillTime;
+        }
+
+        public void setSpillTime(long spillTime) {
+            this.spillTime = spillTime;
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.xxl.job.admin.core.thread;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * job trigger virtual pool, one virtual thread per trigger (JDK 21+), bounded by per job-group semaphore
+ *
+ *      a、virtual thread executor is loaded by reflection, admin still builds and runs on JDK 8 (the mode falls back to classic);
+ *      b、each job group runs at most "groupMax" triggers at once, the others park on the semaphore (cheap on virtual thread), at most GROUP_PENDING_MAX wait;
+ *      c、blocking JDBC / http in trigger path unmounts the virtual thread and frees the carrier, except inside "synchronized" (pinned);
+ */
+public class JobTriggerVirtualPool {
+    private static Logger logger = LoggerFactory.getLogger(JobTriggerVirtualPool.class);
+
+    public static final int GROUP_PENDING_MAX = 1000;
+
+    private final ExecutorService executor;
+    private final int groupMax;
+    private final ConcurrentMap<Integer, GroupPermit> groupPermitMap = new ConcurrentHashMap<>();
+
+    /**
+     * @param executor      new thread per task, like "newVirtualThreadExecutor"
+     * @param groupMax      max running triggers of one group
+     */
+    public JobTriggerVirtualPool(ExecutorService executor, int groupMax) {
+        this.executor = executor;
+        this.groupMax = groupMax;
+    }
+
+    /**
+     * virtual thread per task executor
+     *
+     * @return  null: virtual thread not supported (JDK < 21)
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "xxl-job, admin JobTriggerPoolHelper-virtual-", 0L);
+            ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, threadFactory);
+        } catch (NoSuchMethodException | ClassNotFoundException e) {
+            return null;
+        } catch (Exception e) {
+            logger.error(">>>>>>>>>>> xxl-job, virtual thread executor create fail.", e);
+            return null;
+        }
+    }
+
+    /**
+     * run task of group on its own thread
+     *
+     * @throws RejectedExecutionException   too many triggers of the group waiting
+     */
+    public void execute(int groupId, final Runnable task) {
+        final GroupPermit groupPermit = groupPermit(groupId);
+        if (groupPermit.pending.incrementAndGet() > GROUP_PENDING_MAX) {
+            groupPermit.pending.decrementAndGet();
+            groupPermit.rejectCount.incrementAndGet();
+            throw new RejectedExecutionException("xxl-job, job group("+ groupId +") trigger queue is full.");
+        }
+
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        groupPermit.semaphore.acquire();
+                    } catch (InterruptedException e) {
+                        groupPermit.pending.decrementAndGet();
+                        return;
+                    }
+                    groupPermit.pending.decrementAndGet();
+                    try {
+                        task.run();
+                    } finally {
+                        groupPermit.semaphore.release();
+                        groupPermit.dispatchCount.incrementAndGet();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            groupPermit.pending.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private GroupPermit groupPermit(int groupId) {
+        GroupPermit groupPermit = groupPermitMap.get(groupId);
+        if (groupPermit == null) {
+            groupPermit = new GroupPermit(groupMax);
+            GroupPermit existGroupPermit = groupPermitMap.putIfAbsent(groupId, groupPermit);
+            if (existGroupPermit != null) {
+                groupPermit = existGroupPermit;
+            }
+        }
+        return groupPermit;
+    }
+
+    public void shutdownNow() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * pool metrics
+     */
+    public Map<String, Object> getPoolStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("groupMax", groupMax);
+
+        Map<Integer, Object> groupStats = new LinkedHashMap<>();
+        for (Map.Entry<Integer, GroupPermit> item : groupPermitMap.entrySet()) {
+            GroupPermit groupPermit = item.getValue();
+            Map<String, Object> groupStat = new LinkedHashMap<>();
+            groupStat.put("running", groupMax - groupPermit.semaphore.availablePermits());
+            groupStat.put("pending", groupPermit.pending.get());
+            groupStat.put("dispatchCount", groupPermit.dispatchCount.get());
+            groupStat.put("rejectCount", groupPermit.rejectCount.get());
+            groupStats.put(item.getKey(), groupStat);
+        }
+        stats.put("groups", groupStats);
+        return stats;
+    }
+
+    private static class GroupPermit {
+        private final Semaphore semaphore;
+        private final AtomicInteger pending = new AtomicInteger();      // submitted, not running yet
+        private final AtomicLong dispatchCount = new AtomicLong();
+        private final AtomicLong rejectCount = new AtomicLong();
+
+        private GroupPermit(int groupMax) {
+            this.semaphore = new Semaphore(groupMax);
+        }
+    }
+
+}
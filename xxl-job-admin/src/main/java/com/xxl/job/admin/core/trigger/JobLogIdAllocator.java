@@ -0,0 +1,107 @@
+package com.xxl.job.admin.core.trigger;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * job log id allocator, segment mode
+ *
+ *      a、each admin takes a segment of SEGMENT_STEP ids by one update on "xxl_job_sequence" (max_id += step), then allocates in memory;
+ *      b、ids are unique across admins, increasing within one admin (not strictly ordered across admins);
+ *      c、sequence row absent (upgrade): init from max(xxl_job_log.id);
+ */
+public class JobLogIdAllocator {
+    private static Logger logger = LoggerFactory.getLogger(JobLogIdAllocator.class);
+
+    private static JobLogIdAllocator instance = new JobLogIdAllocator();
+    public static JobLogIdAllocator getInstance(){
+        return instance;
+    }
+
+    public static final String SEQ_NAME = "job_log";
+    public static final int SEGMENT_STEP = 1000;
+
+    private final ReentrantLock lock = new ReentrantLock();      // not "synchronized": no pinning of virtual thread when taking segment
+    private long nextId = 0;
+    private long maxId = 0;          // segment end, inclusive
+
+    /**
+     * next log id
+     */
+    public long nextId() {
+        lock.lock();
+        try {
+            if (nextId == 0 || nextId > maxId) {
+                long segmentMaxId = takeSegment();
+                nextId = segmentMaxId - SEGMENT_STEP + 1;
+                maxId = segmentMaxId;
+            }
+            return nextId++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long takeSegment() {
+        Connection conn = null;
+        try {
+            conn = XxlJobAdminConfig.getAdminConfig().getDataSource().getConnection();
+            conn.setAutoCommit(true);
+
+            if (updateSegment(conn) == 0) {
+                // init sequence
+                PreparedStatement initStatement = conn.prepareStatement("INSERT IGNORE INTO xxl_job_sequence ( seq_name, max_id ) SELECT ?, IFNULL(MAX(id), 0) FROM xxl_job_log");
+                try {
+                    initStatement.setString(1, SEQ_NAME);
+                    initStatement.executeUpdate();
+                } finally {
+                    initStatement.close();
+                }
+                if (updateSegment(conn) == 0) {
+                    throw new IllegalStateException("xxl-job, job log sequence init fail.");
+                }
+            }
+
+            // LAST_INSERT_ID(expr) is connection scoped
+            PreparedStatement selectStatement = conn.prepareStatement("SELECT LAST_INSERT_ID()");
+            try {
+                ResultSet resultSet = selectStatement.executeQuery();
+                resultSet.next();
+                long segmentMaxId = resultSet.getLong(1);
+                logger.debug(">>>>>>>>>>> xxl-job, job log id segment: ({}, {}]", segmentMaxId - SEGMENT_STEP, segmentMaxId);
+                return segmentMaxId;
+            } finally {
+                selectStatement.close();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    logger.error(e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private int updateSegment(Connection conn) throws SQLException {
+        PreparedStatement updateStatement = conn.prepareStatement("UPDATE xxl_job_sequence SET max_id = LAST_INSERT_ID(max_id + ?) WHERE seq_name = ?");
+        try {
+            updateStatement.setInt(1, SEGMENT_STEP);
+            updateStatement.setString(2, SEQ_NAME);
+            return updateStatement.executeUpdate();
+        } finally {
+            updateStatement.close();
+        }
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.xxl.job.admin.core.trigger;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.model.XxlJobGroup;
+import com.xxl.job.admin.core.model.XxlJobInfo;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * job / group snapshot cache for trigger, read-mostly
+ *
+ *      a、snapshot is shared by all trigger threads, READ ONLY: copy before cover any field;
+ *      b、invalidated by local write (job edit / glue edit / group edit / registry refresh), expired after "xxl.job.trigger.cachettl" (edit on other admin);
+ *      c、versioned: each invalidate bumps version, a load started before it is not cached, so a stale row never overwrites the invalidation;
+ */
+public class JobSnapshotCache {
+
+    private static JobSnapshotCache instance = new JobSnapshotCache();
+    public static JobSnapshotCache getInstance(){
+        return instance;
+    }
+
+    private static class Snapshot<T> {
+        private final T value;
+        private final long expireTime;
+
+        Snapshot(T value, long expireTime) {
+            this.value = value;
+            this.expireTime = expireTime;
+        }
+    }
+
+    private final ConcurrentMap<Integer, Snapshot<XxlJobInfo>> jobCache = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Snapshot<XxlJobGroup>> groupCache = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    private final LongAdder jobHit = new LongAdder();
+    private final LongAdder jobMiss = new LongAdder();
+    private final LongAdder groupHit = new LongAdder();
+    private final LongAdder groupMiss = new LongAdder();
+
+    /**
+     * load job snapshot, READ ONLY
+     *
+     * @param jobId
+     * @return  null: not found
+     */
+    public XxlJobInfo loadJob(int jobId) {
+        long ttl = ttl();
+        Snapshot<XxlJobInfo> snapshot = jobCache.get(jobId);
+        if (snapshot != null && System.currentTimeMillis() < snapshot.expireTime) {
+            jobHit.increment();
+            return snapshot.value;
+        }
+        jobMiss.increment();
+
+        long loadVersion = version.get();
+        XxlJobInfo jobInfo = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().loadById(jobId);
+        if (jobInfo != null && ttl > 0 && version.get() == loadVersion) {
+            jobCache.put(jobId, new Snapshot<XxlJobInfo>(jobInfo, System.currentTimeMillis() + ttl));
+        }
+        return jobInfo;
+    }
+
+    /**
+     * load group snapshot, READ ONLY
+     *
+     * @param groupId
+     * @return  null: not found
+     */
+    public XxlJobGroup loadGroup(int groupId) {
+        long ttl = ttl();
+        Snapshot<XxlJobGroup> snapshot = groupCache.get(groupId);
+        if (snapshot != null && System.currentTimeMillis() < snapshot.expireTime) {
+            groupHit.increment();
+            return snapshot.value;
+        }
+        groupMiss.increment();
+
+        long loadVersion = version.get();
+        XxlJobGroup group = XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().load(groupId);
+        if (group != null && ttl > 0 && version.get() == loadVersion) {
+            groupCache.put(groupId, new Snapshot<XxlJobGroup>(group, System.currentTimeMillis() + ttl));
+        }
+        return group;
+    }
+
+    public void invalidateJob(int jobId) {
+        version.incrementAndGet();
+        jobCache.remove(jobId);
+    }
+
+    public void invalidateGroup(int groupId) {
+        version.incrementAndGet();
+        groupCache.remove(groupId);
+    }
+
+    public void invalidateAllGroup() {
+        version.incrementAndGet();
+        groupCache.clear();
+    }
+
+    private long ttl() {
+        return XxlJobAdminConfig.getAdminConfig().getTriggerCacheTtl() * 1000L;
+    }
+
+    /**
+     * cache metrics
+     */
+    public Map<String, Object> getCacheStats() {
+        long jobHitCount = jobHit.sum();
+        long jobMissCount = jobMiss.sum();
+        long groupHitCount = groupHit.sum();
+        long groupMissCount = groupMiss.sum();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ttl", XxlJobAdminConfig.getAdminConfig().getTriggerCacheTtl());
+        stats.put("version", version.get());
+        stats.put("jobSize", jobCache.size());
+        stats.put("jobHitCount", jobHitCount);
+        stats.put("jobMissCount", jobMissCount);
+        stats.put("jobHitRate", hitRate(jobHitCount, jobMissCount));
+        stats.put("groupSize", groupCache.size());
+        stats.put("groupHitCount", groupHitCount);
+        stats.put("groupMissCount", groupMissCount);
+        stats.put("groupHitRate", hitRate(groupHitCount, groupMissCount));
+        return stats;
+    }
+
+    private static double hitRate(long hit, long miss) {
+        return hit + miss > 0 ? (double) hit / (hit + miss) : 0;
+    }
+
+}
@@ -0,0 +1,188 @@
+package com.xxl.job.admin.core.trigger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * job trigger tracker, per job EWMA of trigger cost and error rate
+ *
+ *      a、trackers are kept in an open addressing table keyed by int job id (no boxing), lookup is lock free, insert is serialized;
+ *      b、cost of each trigger (route + executor round trip, until trigger result) is folded in by EWMA, no periodic reset;
+ *      c、slow class with hysteresis: enter when cost > SLOW_ENTER, leave when cost < SLOW_LEAVE, a slow job does not flip back at each minute;
+ */
+public class JobTriggerTracker {
+
+    private static JobTriggerTracker instance = new JobTriggerTracker();
+    public static JobTriggerTracker getInstance(){
+        return instance;
+    }
+
+    public static final double ALPHA = 0.3;            // weight of newest sample
+    public static final long SLOW_ENTER = 500;         // ms
+    public static final long SLOW_LEAVE = 250;         // ms
+
+    private volatile AtomicReferenceArray<Tracker> table = new AtomicReferenceArray<>(256);
+    private int size = 0;       // guarded by "this"
+
+    /**
+     * record one trigger
+     *
+     * @param jobId
+     * @param cost      ms
+     * @param success   trigger result
+     */
+    public void record(int jobId, long cost, boolean success) {
+        tracker(jobId).record(cost, success);
+    }
+
+    /**
+     * @return  true: job in slow class
+     */
+    public boolean isSlow(int jobId) {
+        Tracker tracker = find(table, jobId);
+        return tracker != null && tracker.slow;
+    }
+
+    private Tracker tracker(int jobId) {
+        Tracker tracker = find(table, jobId);
+        if (tracker != null) {
+            return tracker;
+        }
+        synchronized (this) {
+            tracker = find(table, jobId);
+            if (tracker != null) {
+                return tracker;
+            }
+            if ((size + 1) * 2 > table.length()) {
+                resize();
+            }
+            tracker = new Tracker(jobId);
+            insert(table, tracker);
+            size++;
+            return tracker;
+        }
+    }
+
+    private static Tracker find(AtomicReferenceArray<Tracker> table, int jobId) {
+        int mask = table.length() - 1;
+        for (int i = mix(jobId) & mask; ; i = (i + 1) & mask) {
+            Tracker tracker = table.get(i);
+            if (tracker == null || tracker.jobId == jobId) {
+                return tracker;
+            }
+        }
+    }
+
+    private static void insert(AtomicReferenceArray<Tracker> table, Tracker tracker) {
+        int mask = table.length() - 1;
+        for (int i = mix(tracker.jobId) & mask; ; i = (i + 1) & mask) {
+            if (table.get(i) == null) {
+                table.set(i, tracker);
+                return;
+            }
+        }
+    }
+
+    private void resize() {
+        AtomicReferenceArray<Tracker> oldTable = table;
+        AtomicReferenceArray<Tracker> newTable = new AtomicReferenceArray<>(oldTable.length() * 2);
+        for (int i = 0; i < oldTable.length(); i++) {
+            Tracker tracker = oldTable.get(i);
+            if (tracker != null) {
+                insert(newTable, tracker);
+            }
+        }
+        table = newTable;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * tracker metrics, slowest first
+     *
+     * @param limit
+     */
+    public Map<String, Object> getTrackerStats(int limit) {
+        AtomicReferenceArray<Tracker> currentTable = table;
+        List<Tracker> trackerList = new ArrayList<>();
+        int slowCount = 0;
+        for (int i = 0; i < currentTable.length(); i++) {
+            Tracker tracker = currentTable.get(i);
+            if (tracker != null) {
+                trackerList.add(tracker);
+                if (tracker.slow) {
+                    slowCount++;
+                }
+            }
+        }
+        Collections.sort(trackerList, new Comparator<Tracker>() {
+            @Override
+            public int compare(Tracker o1, Tracker o2) {
+                return Double.compare(o2.cost, o1.cost);
+            }
+        });
+
+        List<Map<String, Object>> jobList = new ArrayList<>();
+        for (Tracker tracker : trackerList.subList(0, Math.min(limit, trackerList.size()))) {
+            Map<String, Object> jobStat = new LinkedHashMap<>();
+            jobStat.put("jobId", tracker.jobId);
+            jobStat.put("cost", Math.round(tracker.cost));
+            jobStat.put("errorRate", tracker.errorRate);
+            jobStat.put("count", tracker.count);
+            jobStat.put("slow", tracker.slow);
+            jobStat.put("lastTime", tracker.lastTime);
+            jobList.add(jobStat);
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("jobCount", trackerList.size());
+        stats.put("slowCount", slowCount);
+        stats.put("jobs", jobList);
+        return stats;
+    }
+
+
+    // ---------------------- tracker ----------------------
+
+    private static class Tracker {
+        private final int jobId;
+        private volatile double cost;           // ms, EWMA
+        private volatile double errorRate;      // 0~1, EWMA
+        private volatile long count;
+        private volatile long lastTime;
+        private volatile boolean slow;
+
+        private Tracker(int jobId) {
+            this.jobId = jobId;
+        }
+
+        private synchronized void record(long sampleCost, boolean success) {
+            double sampleError = success?0:1;
+            if (count == 0) {
+                cost = sampleCost;
+                errorRate = sampleError;
+            } else {
+                cost = cost + ALPHA * (sampleCost - cost);
+                errorRate = errorRate + ALPHA * (sampleError - errorRate);
+            }
+            count++;
+            lastTime = System.currentTimeMillis();
+
+            // hysteresis
+            if (!slow && cost > SLOW_ENTER) {
+                slow = true;
+            } else if (slow && cost < SLOW_LEAVE) {
+                slow = false;
+            }
+        }
+    }
+
+}
@@ -12,6 +12,7 @@ public enum TriggerTypeEnum {
     MANUAL(I18nUtil.getString("jobconf_trigger_type_manual")),
     CRON(I18nUtil.getString("jobconf_trigger_type_cron")),
     RETRY(I18nUtil.getString("jobconf_trigger_type_retry")),
+    MISFIRE(I18nUtil.getString("jobconf_trigger_type_misfire")),
     PARENT(I18nUtil.getString("jobconf_trigger_type_parent")),
     API(I18nUtil.getString("jobconf_trigger_type_api"));
 
@@ -4,10 +4,16 @@ import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
 import com.xxl.job.admin.core.model.XxlJobGroup;
 import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.model.XxlJobLog;
+import com.xxl.job.admin.core.route.ExecutorCircuitBreaker;
 import com.xxl.job.admin.core.route.ExecutorRouteStrategyEnum;
 import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
+import com.xxl.job.admin.core.thread.JobLogBatchHelper;
+import com.xxl.job.admin.core.thread.JobTriggerBatchHelper;
+import com.xxl.job.admin.core.thread.JobTriggerPoolHelper;
 import com.xxl.job.admin.core.util.I18nUtil;
+import com.xxl.job.admin.core.util.JobLogMsgUtil;
 import com.xxl.job.core.biz.ExecutorBiz;
+import com.xxl.job.core.biz.client.ExecutorBizAsyncClient;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.biz.model.TriggerParam;
 import com.xxl.job.core.enums.ExecutorBlockStrategyEnum;
@@ -15,8 +21,14 @@ import com.xxl.job.core.util.IpUtil;
 import com.xxl.job.core.util.ThrowableUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 /**
  * xxl-job trigger
@@ -48,22 +60,30 @@ public class XxlJobTrigger {
                                String executorParam,
                                String addressList) {
 
-        // load data
-        XxlJobInfo jobInfo = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().loadById(jobId);
+        // load data (snapshot, copy before cover)
+        XxlJobInfo jobInfo = JobSnapshotCache.getInstance().loadJob(jobId);
         if (jobInfo == null) {
             logger.warn(">>>>>>>>>>>> trigger fail, jobId invalid，jobId={}", jobId);
             return;
         }
         if (executorParam != null) {
-            jobInfo.setExecutorParam(executorParam);
+            XxlJobInfo coverJobInfo = new XxlJobInfo();
+            BeanUtils.copyProperties(jobInfo, coverJobInfo);
+            coverJobInfo.setExecutorParam(executorParam);
+            jobInfo = coverJobInfo;
         }
         int finalFailRetryCount = failRetryCount>=0?failRetryCount:jobInfo.getExecutorFailRetryCount();
-        XxlJobGroup group = XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().load(jobInfo.getJobGroup());
+        XxlJobGroup group = JobSnapshotCache.getInstance().loadGroup(jobInfo.getJobGroup());
 
         // cover addressList
         if (addressList!=null && addressList.trim().length()>0) {
-            group.setAddressType(1);
-            group.setAddressList(addressList.trim());
+            XxlJobGroup coverGroup = new XxlJobGroup();
+            coverGroup.setId(group.getId());
+            coverGroup.setAppname(group.getAppname());
+            coverGroup.setTitle(group.getTitle());
+            coverGroup.setAddressType(1);
+            coverGroup.setAddressList(addressList.trim());
+            group = coverGroup;
         }
 
         // sharding param
@@ -79,17 +99,54 @@ public class XxlJobTrigger {
         if (ExecutorRouteStrategyEnum.SHARDING_BROADCAST==ExecutorRouteStrategyEnum.match(jobInfo.getExecutorRouteStrategy(), null)
                 && group.getRegistryList()!=null && !group.getRegistryList().isEmpty()
                 && shardingParam==null) {
-            ReturnT<String> r = processTrigger(group, jobInfo, finalFailRetryCount, triggerType, 0, group.getRegistryList().size(), true);
-            for (int i = 0; i < group.getRegistryList().size(); i++) {
-                processTrigger(group, jobInfo, finalFailRetryCount, triggerType, i, group.getRegistryList().size(), false);
-            }
+            // count first, then broadcast (keep order in async trigger)
+            processTrigger(group, jobInfo, finalFailRetryCount, triggerType, 0, group.getRegistryList().size(), true, null).join();
+            broadcastTrigger(group, jobInfo, finalFailRetryCount, triggerType);
         } else {
             if (shardingParam == null) {
                 shardingParam = new int[]{0, 1};
             }
-            processTrigger(group, jobInfo, finalFailRetryCount, triggerType, shardingParam[0], shardingParam[1], false);
+            processTrigger(group, jobInfo, finalFailRetryCount, triggerType, shardingParam[0], shardingParam[1], false, null);
+        }
+
+    }
+
+    /**
+     * broadcast fan-out, shard logs inserted together before run, shards run in parallel, each shard log updated as soon as the shard done
+     *
+     *      blocking run: each shard runs in broadcast pool (bounded, caller runs when busy);
+     *      async run: shards are dispatched without wait, in-flight bounded by connection pool;
+     */
+    private static void broadcastTrigger(final XxlJobGroup group, final XxlJobInfo jobInfo, final int finalFailRetryCount, final TriggerTypeEnum triggerType) {
+        final int total = group.getRegistryList().size();
+        Executor broadcastPool = JobTriggerPoolHelper.getBroadcastPool();
+        boolean blockingRun = !JobTriggerBatchHelper.getInstance().isEnabled() && XxlJobScheduler.getExecutorBizAsync(group.getRegistryList().get(0)) == null;
+
+        // shard logs, multi-row insert before any shard run
+        List<XxlJobLog> shardLogList = new ArrayList<XxlJobLog>(total);
+        for (int i = 0; i < total; i++) {
+            shardLogList.add(newTriggerLog(jobInfo, group.getRegistryList().get(i), i + "/" + total, finalFailRetryCount));
         }
+        boolean[] written = JobLogBatchHelper.getInstance().insertAll(shardLogList);
 
+        for (int i = 0; i < total; i++) {
+            if (!written[i]) {
+                logger.warn(">>>>>>>>>>> xxl-job trigger skipped, job log write fail, jobId:{}, shard:{}/{}", jobInfo.getId(), i, total);
+                continue;
+            }
+            final int index = i;
+            final XxlJobLog shardLog = shardLogList.get(i);
+            if (blockingRun && broadcastPool != null) {
+                broadcastPool.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        processTrigger(group, jobInfo, finalFailRetryCount, triggerType, index, total, false, shardLog);
+                    }
+                });
+            } else {
+                processTrigger(group, jobInfo, finalFailRetryCount, triggerType, index, total, false, shardLog);
+            }
+        }
     }
 
     private static boolean isNumeric(String str){
@@ -108,20 +165,19 @@ public class XxlJobTrigger {
      * @param triggerType
      * @param index                     sharding index
      * @param total                     sharding index
+     * @param shardLog                  not null: shard log inserted with other shards (broadcast), null: made and inserted here
+     * @return  trigger result, completed when trigger result queued to log (async trigger: completed in trigger complete pool)
      */
-    private static ReturnT<String> processTrigger(XxlJobGroup group, XxlJobInfo jobInfo, int finalFailRetryCount, TriggerTypeEnum triggerType, int index, int total, boolean countFlag){
+    private static CompletableFuture<ReturnT<String>> processTrigger(XxlJobGroup group, XxlJobInfo jobInfo, int finalFailRetryCount, TriggerTypeEnum triggerType, int index, int total, boolean countFlag, XxlJobLog shardLog){
 
         // param
-        ExecutorBlockStrategyEnum blockStrategy = ExecutorBlockStrategyEnum.match(jobInfo.getExecutorBlockStrategy(), ExecutorBlockStrategyEnum.SERIAL_EXECUTION);  // block strategy
         ExecutorRouteStrategyEnum executorRouteStrategyEnum = ExecutorRouteStrategyEnum.match(jobInfo.getExecutorRouteStrategy(), null);    // route strategy
         String shardingParam = (ExecutorRouteStrategyEnum.SHARDING_BROADCAST==executorRouteStrategyEnum)?String.valueOf(index).concat("/").concat(String.valueOf(total)):null;
 
-        // 1、save log-id
-        XxlJobLog jobLog = new XxlJobLog();
-        jobLog.setJobGroup(jobInfo.getJobGroup());
-        jobLog.setJobId(jobInfo.getId());
-        jobLog.setTriggerTime(new Date());
-        XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().save(jobLog);
+        final long triggerStart = System.currentTimeMillis();
+
+        // 1、make log-id (allocated by admin, log is inserted before executor run, batched with concurrent triggers)
+        final XxlJobLog jobLog = shardLog!=null?shardLog:newTriggerLog(jobInfo, null, shardingParam, finalFailRetryCount);
         logger.debug(">>>>>>>>>>> xxl-job trigger start, jobId:{}", jobLog.getId());
 
         // 2、init trigger-param
@@ -150,54 +206,109 @@ public class XxlJobTrigger {
                     address = group.getRegistryList().get(0);
                 }
             } else {
-                routeAddressResult = executorRouteStrategyEnum.getRouter().route(triggerParam, group.getRegistryList());
-                if (routeAddressResult.getCode() == ReturnT.SUCCESS_CODE) {
-                    address = routeAddressResult.getContent();
+                List<String> routeList = ExecutorCircuitBreaker.filter(group.getRegistryList());     // open circuit excluded
+                if (routeList.isEmpty()) {
+                    routeAddressResult = new ReturnT<String>(ReturnT.FAIL_CODE, I18nUtil.getString("jobconf_trigger_address_circuit_open"));
+                } else {
+                    routeAddressResult = executorRouteStrategyEnum.getRouter().route(triggerParam, routeList);
+                    if (routeAddressResult.getCode() == ReturnT.SUCCESS_CODE) {
+                        address = routeAddressResult.getContent();
+                    }
                 }
             }
         } else {
             routeAddressResult = new ReturnT<String>(ReturnT.FAIL_CODE, I18nUtil.getString("jobconf_trigger_address_empty"));
         }
 
-        // 4、trigger remote executor
-        ReturnT<String> triggerResult = null;
-        if (address != null) {
-            triggerResult = runExecutor(triggerParam, address);
-        } else {
-            triggerResult = new ReturnT<String>(ReturnT.FAIL_CODE, null);
+        // 4、save log before executor run (callback reaching any admin finds it, never lost if admin crash after run)
+        jobLog.setExecutorAddress(address);
+        if (shardLog==null && !JobLogBatchHelper.getInstance().insert(jobLog)) {
+            logger.warn(">>>>>>>>>>> xxl-job trigger skipped, job log write fail, jobId:{}", jobInfo.getId());
+            return CompletableFuture.completedFuture(new ReturnT<String>(ReturnT.FAIL_CODE, "job log write fail."));
         }
 
-        // 5、collection trigger info
-        StringBuffer triggerMsgSb = new StringBuffer();
-        triggerMsgSb.append(I18nUtil.getString("jobconf_trigger_type")).append("：").append(triggerType.getTitle());
-        triggerMsgSb.append("<br>").append(I18nUtil.getString("jobconf_trigger_admin_adress")).append("：").append(IpUtil.getIp());
-        triggerMsgSb.append("<br>").append(I18nUtil.getString("jobconf_trigger_exe_regtype")).append("：")
-                .append( (group.getAddressType() == 0)?I18nUtil.getString("jobgroup_field_addressType_0"):I18nUtil.getString("jobgroup_field_addressType_1") );
-        triggerMsgSb.append("<br>").append(I18nUtil.getString("jobconf_trigger_exe_regaddress")).append("：").append(group.getRegistryList());
-        triggerMsgSb.append("<br>").append(I18nUtil.getString("jobinfo_field_executorRouteStrategy")).append("：").append(executorRouteStrategyEnum.getTitle());
-        if (shardingParam != null) {
-            triggerMsgSb.append("("+shardingParam+")");
+        // 5、trigger remote executor
+        CompletableFuture<ReturnT<String>> triggerFuture = null;
+        final boolean runFlag = address!=null && ExecutorCircuitBreaker.allow(address);
+        final long runStart = System.currentTimeMillis();
+        if (runFlag) {
+            triggerFuture = runExecutorAsync(triggerParam, address);
+        } else if (address != null) {
+            triggerFuture = CompletableFuture.completedFuture(new ReturnT<String>(ReturnT.FAIL_CODE, I18nUtil.getString("jobconf_trigger_address_circuit_open")));
+        } else {
+            triggerFuture = CompletableFuture.completedFuture(new ReturnT<String>(ReturnT.FAIL_CODE, null));
         }
-        triggerMsgSb.append("<br>").append(I18nUtil.getString("jobinfo_field_executorBlockStrategy")).append("：").append(blockStrategy.getTitle());
-        triggerMsgSb.append("<br>").append(I18nUtil.getString("jobinfo_field_timeout")).append("：").append(jobInfo.getExecutorTimeout());
-        triggerMsgSb.append("<br>").append(I18nUtil.getString("jobinfo_field_executorFailRetryCount")).append("：").append(finalFailRetryCount);
 
-        triggerMsgSb.append("<br><br> >>>>>>>>>>>"+ I18nUtil.getString("jobconf_trigger_run") +"<<<<<<<<<<< <br>")
-                .append((routeAddressResult!=null&&routeAddressResult.getMsg()!=null)?routeAddressResult.getMsg()+"<br><br>":"").append(triggerResult.getMsg()!=null?triggerResult.getMsg():"");
+        final String finalAddress = address;
+        final ReturnT<String> finalRouteAddressResult = routeAddressResult;
+        Function<ReturnT<String>, ReturnT<String>> completeFunction = new Function<ReturnT<String>, ReturnT<String>>() {
+            @Override
+            public ReturnT<String> apply(ReturnT<String> triggerResult) {
+                if (runFlag) {
+                    ExecutorCircuitBreaker.record(finalAddress, triggerResult, System.currentTimeMillis()-runStart);
+                }
+                buildTriggerLog(jobLog, group, jobInfo, finalFailRetryCount, triggerType, finalAddress, shardingParam, finalRouteAddressResult, triggerResult);
+                JobLogBatchHelper.getInstance().update(jobLog);
+                JobTriggerTracker.getInstance().record(jobInfo.getId(), System.currentTimeMillis()-triggerStart, triggerResult.getCode()==ReturnT.SUCCESS_CODE);
+                return triggerResult;
+            }
+        };
+
+        // 6、trigger result: blocking run completed in caller thread, async run handled in complete pool (never on io thread, log write may block)
+        Executor completePool = JobTriggerPoolHelper.getTriggerCompletePool();
+        if (triggerFuture.isDone() || completePool == null) {
+            return triggerFuture.thenApply(completeFunction);
+        }
+        return triggerFuture.thenApplyAsync(completeFunction, completePool);
+    }
 
-        // 6、save log trigger-info
+    private static XxlJobLog newTriggerLog(XxlJobInfo jobInfo, String address, String shardingParam, int finalFailRetryCount) {
+        XxlJobLog jobLog = new XxlJobLog();
+        jobLog.setId(JobLogIdAllocator.getInstance().nextId());
+        jobLog.setJobGroup(jobInfo.getJobGroup());
+        jobLog.setJobId(jobInfo.getId());
+        jobLog.setTriggerTime(new Date());
         jobLog.setExecutorAddress(address);
         jobLog.setExecutorHandler(jobInfo.getExecutorHandler());
         jobLog.setExecutorParam(jobInfo.getExecutorParam());
         jobLog.setExecutorShardingParam(shardingParam);
         jobLog.setExecutorFailRetryCount(finalFailRetryCount);
-        //jobLog.setTriggerTime();
+        return jobLog;
+    }
+
+    private static void buildTriggerLog(XxlJobLog jobLog, XxlJobGroup group, XxlJobInfo jobInfo, int finalFailRetryCount, TriggerTypeEnum triggerType,
+                                       String address, String shardingParam, ReturnT<String> routeAddressResult, ReturnT<String> triggerResult) {
+        ExecutorBlockStrategyEnum blockStrategy = ExecutorBlockStrategyEnum.match(jobInfo.getExecutorBlockStrategy(), ExecutorBlockStrategyEnum.SERIAL_EXECUTION);  // block strategy
+        ExecutorRouteStrategyEnum executorRouteStrategyEnum = ExecutorRouteStrategyEnum.match(jobInfo.getExecutorRouteStrategy(), null);    // route strategy
+
+        // 7、collection trigger info (compact, rendered when read, see JobLogMsgUtil)
+        int registrySize = group.getRegistryList()!=null?group.getRegistryList().size():0;
+        int addressIndex = (address!=null && group.getRegistryList()!=null)?group.getRegistryList().indexOf(address):-1;
+        String triggerMsg = JobLogMsgUtil.buildTriggerMsg(triggerType, IpUtil.getIp(), group.getAddressType(), registrySize, addressIndex,
+                executorRouteStrategyEnum, shardingParam, blockStrategy, jobInfo.getExecutorTimeout(), finalFailRetryCount, routeAddressResult, triggerResult);
+
+        // 8、fill log trigger-result (updated by caller)
         jobLog.setTriggerCode(triggerResult.getCode());
-        jobLog.setTriggerMsg(triggerMsgSb.toString());
-        XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().updateTriggerInfo(jobLog);
+        jobLog.setTriggerMsg(triggerMsg);
 
         logger.debug(">>>>>>>>>>> xxl-job trigger end, jobId:{}", jobLog.getId());
-        return triggerResult;
+    }
+
+    /**
+     * run executor, async when "xxl.job.trigger.async" enabled (else completed when returned), coalesced when "xxl.job.trigger.batch" enabled
+     * @param triggerParam
+     * @param address
+     * @return
+     */
+    public static CompletableFuture<ReturnT<String>> runExecutorAsync(TriggerParam triggerParam, String address){
+        if (JobTriggerBatchHelper.getInstance().isEnabled()) {
+            return JobTriggerBatchHelper.getInstance().run(address, triggerParam);
+        }
+        ExecutorBizAsyncClient executorBizAsync = XxlJobScheduler.getExecutorBizAsync(address);
+        if (executorBizAsync == null) {
+            return CompletableFuture.completedFuture(runExecutor(triggerParam, address));
+        }
+        return executorBizAsync.run(triggerParam);
     }
 
     /**
@@ -215,13 +326,6 @@ public class XxlJobTrigger {
             logger.error(">>>>>>>>>>> xxl-job trigger error, please check if the executor[{}] is running.", address, e);
             runResult = new ReturnT<String>(ReturnT.FAIL_CODE, ThrowableUtil.toString(e));
         }
-
-        StringBuffer runResultSB = new StringBuffer(I18nUtil.getString("jobconf_trigger_run") + "：");
-        runResultSB.append("<br>address：").append(address);
-        runResultSB.append("<br>code：").append(runResult.getCode());
-        runResultSB.append("<br>msg：").append(runResult.getMsg());
-        runResultSB.append("<br>content：").append(runResult.getContent());
-        runResult.setMsg(runResultSB.toString());
         return runResult;
     }
 
@@ -0,0 +1,268 @@
+package com.xxl.job.admin.core.util;
+
+import com.xxl.job.admin.core.model.XxlJobLog;
+import com.xxl.job.admin.core.route.ExecutorRouteStrategyEnum;
+import com.xxl.job.admin.core.trigger.TriggerTypeEnum;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.enums.ExecutorBlockStrategyEnum;
+
+import java.text.MessageFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * job log msg util, trigger / handle msg is stored as compact json, rendered to html when read
+ *
+ *      a、stored msg keeps codes, enum names, address index and short msg (at most MSG_MAX chars), no html, no i18n text, no registry list;
+ *      b、rendered by "renderTriggerMsg" / "renderHandleMsg" in log page and alarm, in the language of the reader;
+ *      c、msg not starting with MSG_PREFIX (written by old version, or plain text like kill msg) is rendered as it is;
+ */
+public class JobLogMsgUtil {
+
+    public static final int MSG_MAX = 1000;
+    public static final int HANDLE_MSG_MAX = 2000;
+    public static final int HANDLE_MSG_TOTAL_MAX = 15000;   // handle_msg is text (64kb), oldest nested prev dropped beyond it
+    public static final String PREV_DROPPED = "...";
+    public static final String MSG_PREFIX = "{\"v\":1";
+
+    // ---------------------- trigger msg ----------------------
+
+    /**
+     * build trigger msg
+     *
+     * @param addressIndex      index of executor address in registry list, -1: none
+     * @param routeResult       route result, null: not routed (like broadcast)
+     * @param runResult         executor run result
+     */
+    public static String buildTriggerMsg(TriggerTypeEnum triggerType, String adminAddress, int addressType, int registrySize, int addressIndex,
+                                         ExecutorRouteStrategyEnum routeStrategy, String shardingParam, ExecutorBlockStrategyEnum blockStrategy,
+                                         int timeout, int failRetryCount, ReturnT<String> routeResult, ReturnT<String> runResult) {
+        Map<String, Object> msg = new LinkedHashMap<>();
+        msg.put("v", 1);
+        msg.put("type", triggerType.name());
+        msg.put("admin", adminAddress);
+        msg.put("regType", addressType);
+        msg.put("regSize", registrySize);
+        msg.put("regIndex", addressIndex);
+        msg.put("route", routeStrategy!=null?routeStrategy.name():null);
+        if (shardingParam != null) {
+            msg.put("shard", shardingParam);
+        }
+        msg.put("block", blockStrategy.name());
+        msg.put("timeout", timeout);
+        msg.put("retry", failRetryCount);
+        if (routeResult!=null && routeResult.getMsg()!=null) {
+            msg.put("routeMsg", cut(routeResult.getMsg(), MSG_MAX));
+        }
+        msg.put("code", runResult.getCode());
+        if (runResult.getMsg() != null) {
+            msg.put("msg", cut(runResult.getMsg(), MSG_MAX));
+        }
+        return JacksonUtil.writeValueAsString(msg);
+    }
+
+    /**
+     * mark trigger msg as fail retried
+     */
+    public static String markRetry(String triggerMsg) {
+        Map<String, Object> msg = parse(triggerMsg);
+        if (msg == null) {
+            return triggerMsg + retryHtml();
+        }
+        msg.put("retried", true);
+        return JacksonUtil.writeValueAsString(msg);
+    }
+
+    /**
+     * render trigger msg to html
+     */
+    public static String renderTriggerMsg(XxlJobLog jobLog) {
+        Map<String, Object> msg = parse(jobLog.getTriggerMsg());
+        if (msg == null) {
+            return jobLog.getTriggerMsg();
+        }
+
+        TriggerTypeEnum triggerType = enumOf(TriggerTypeEnum.class, msg.get("type"));
+        ExecutorRouteStrategyEnum routeStrategy = enumOf(ExecutorRouteStrategyEnum.class, msg.get("route"));
+        ExecutorBlockStrategyEnum blockStrategy = enumOf(ExecutorBlockStrategyEnum.class, msg.get("block"));
+        int registrySize = intOf(msg.get("regSize"));
+        int addressIndex = intOf(msg.get("regIndex"));
+
+        StringBuilder html = new StringBuilder();
+        html.append(I18nUtil.getString("jobconf_trigger_type")).append("：").append(triggerType!=null?triggerType.getTitle():msg.get("type"));
+        html.append("<br>").append(I18nUtil.getString("jobconf_trigger_admin_adress")).append("：").append(msg.get("admin"));
+        html.append("<br>").append(I18nUtil.getString("jobconf_trigger_exe_regtype")).append("：")
+                .append( (intOf(msg.get("regType")) == 0)?I18nUtil.getString("jobgroup_field_addressType_0"):I18nUtil.getString("jobgroup_field_addressType_1") );
+        html.append("<br>").append(I18nUtil.getString("jobconf_trigger_exe_regaddress")).append("：");
+        if (addressIndex >= 0) {
+            html.append(jobLog.getExecutorAddress()).append(" (").append(addressIndex + 1).append("/").append(registrySize).append(")");
+        } else {
+            html.append("(").append(registrySize).append(")");
+        }
+        html.append("<br>").append(I18nUtil.getString("jobinfo_field_executorRouteStrategy")).append("：").append(routeStrategy!=null?routeStrategy.getTitle():msg.get("route"));
+        if (msg.get("shard") != null) {
+            html.append("(").append(msg.get("shard")).append(")");
+        }
+        html.append("<br>").append(I18nUtil.getString("jobinfo_field_executorBlockStrategy")).append("：").append(blockStrategy!=null?blockStrategy.getTitle():msg.get("block"));
+        html.append("<br>").append(I18nUtil.getString("jobinfo_field_timeout")).append("：").append(msg.get("timeout"));
+        html.append("<br>").append(I18nUtil.getString("jobinfo_field_executorFailRetryCount")).append("：").append(msg.get("retry"));
+
+        html.append("<br><br> >>>>>>>>>>>").append(I18nUtil.getString("jobconf_trigger_run")).append("<<<<<<<<<<< <br>");
+        if (msg.get("routeMsg") != null) {
+            html.append(msg.get("routeMsg")).append("<br><br>");
+        }
+        if (jobLog.getExecutorAddress() != null) {
+            html.append(I18nUtil.getString("jobconf_trigger_run")).append("：");
+            html.append("<br>address：").append(jobLog.getExecutorAddress());
+            html.append("<br>code：").append(msg.get("code"));
+            html.append("<br>msg：").append(msg.get("msg"));
+        }
+
+        if (Boolean.TRUE.equals(msg.get("retried"))) {
+            html.append(retryHtml());
+        }
+        return html.toString();
+    }
+
+    private static String retryHtml() {
+        return "<br><br><span style=\"color:#F39C12;\" > >>>>>>>>>>>"+ I18nUtil.getString("jobconf_trigger_type_retry") +"<<<<<<<<<<< </span><br>";
+    }
+
+
+    // ---------------------- handle msg ----------------------
+
+    /**
+     * build handle msg
+     *
+     * @param prevHandleMsg     handle msg already in log, null: none; compact msg is nested as it is (already cut), never cut through, oldest nested prev dropped when total over HANDLE_MSG_TOTAL_MAX
+     * @param executeMsg        msg of executor handle result
+     * @param childJobId        child jobs triggered, like "1,2", null: none
+     */
+    public static String buildHandleMsg(String prevHandleMsg, String executeMsg, String childJobId) {
+        Map<String, Object> msg = new LinkedHashMap<>();
+        msg.put("v", 1);
+        if (prevHandleMsg != null) {
+            Map<String, Object> prevMsg = parse(prevHandleMsg);
+            msg.put("prev", prevMsg!=null?prevMsg:cut(prevHandleMsg, MSG_MAX));
+        }
+        if (executeMsg != null) {
+            msg.put("msg", cut(executeMsg, HANDLE_MSG_MAX));
+        }
+        if (childJobId != null) {
+            msg.put("child", childJobId);
+        }
+
+        String handleMsg = JacksonUtil.writeValueAsString(msg);
+        while (handleMsg!=null && handleMsg.length() > HANDLE_MSG_TOTAL_MAX && dropOldestPrev(msg)) {
+            handleMsg = JacksonUtil.writeValueAsString(msg);
+        }
+        return handleMsg;
+    }
+
+    /**
+     * drop oldest prev: plain text prev of deepest msg, or deepest msg itself, replaced by PREV_DROPPED
+     *
+     * @return  false: nothing to drop
+     */
+    @SuppressWarnings("unchecked")
+    private static boolean dropOldestPrev(Map<String, Object> msg) {
+        Map<String, Object> parent = null;
+        Map<String, Object> deepest = msg;
+        while (deepest.get("prev") instanceof Map) {
+            parent = deepest;
+            deepest = (Map<String, Object>) deepest.get("prev");
+        }
+        if (deepest.get("prev")!=null && !PREV_DROPPED.equals(deepest.get("prev"))) {
+            deepest.put("prev", PREV_DROPPED);
+            return true;
+        }
+        if (parent != null) {
+            parent.put("prev", PREV_DROPPED);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * render handle msg to html
+     */
+    public static String renderHandleMsg(XxlJobLog jobLog) {
+        Map<String, Object> msg = parse(jobLog.getHandleMsg());
+        if (msg == null) {
+            return jobLog.getHandleMsg();
+        }
+        return renderHandleMsg(msg);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String renderHandleMsg(Map<String, Object> msg) {
+        StringBuilder html = new StringBuilder();
+        Object prev = msg.get("prev");
+        if (prev instanceof Map) {
+            html.append(renderHandleMsg((Map<String, Object>) prev)).append("<br>");
+        } else if (prev != null) {
+            html.append(prev).append("<br>");
+        }
+        if (msg.get("msg") != null) {
+            html.append(msg.get("msg"));
+        }
+        if (msg.get("child") != null) {
+            html.append("<br><br><span style=\"color:#00c0ef;\" > >>>>>>>>>>>").append(I18nUtil.getString("jobconf_trigger_child_run")).append("<<<<<<<<<<< </span><br>");
+            String[] childJobIds = String.valueOf(msg.get("child")).split(",");
+            for (int i = 0; i < childJobIds.length; i++) {
+                if (intOf(childJobIds[i].trim()) > 0) {
+                    html.append(MessageFormat.format(I18nUtil.getString("jobconf_callback_child_msg1"),
+                            (i+1),
+                            childJobIds.length,
+                            childJobIds[i],
+                            I18nUtil.getString("system_success"),
+                            null));
+                } else {
+                    html.append(MessageFormat.format(I18nUtil.getString("jobconf_callback_child_msg2"),
+                            (i+1),
+                            childJobIds.length,
+                            childJobIds[i]));
+                }
+            }
+        }
+        return html.toString();
+    }
+
+
+    // ---------------------- tool ----------------------
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> parse(String storedMsg) {
+        if (storedMsg==null || !storedMsg.startsWith(MSG_PREFIX)) {
+            return null;
+        }
+        return JacksonUtil.readValue(storedMsg, LinkedHashMap.class);
+    }
+
+    private static String cut(String str, int max) {
+        return str.length()>max?str.substring(0, max):str;
+    }
+
+    private static int intOf(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        try {
+            return Integer.parseInt(String.valueOf(value));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static <T extends Enum<T>> T enumOf(Class<T> enumClass, Object name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(enumClass, String.valueOf(name));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+}
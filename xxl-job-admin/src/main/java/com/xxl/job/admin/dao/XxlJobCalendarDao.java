@@ -0,0 +1,27 @@
+package com.xxl.job.admin.dao;
+
+import com.xxl.job.admin.core.model.XxlJobCalendar;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * job calendar dao
+ */
+@Mapper
+public interface XxlJobCalendarDao {
+
+    public List<XxlJobCalendar> findAll();
+
+    public XxlJobCalendar load(@Param("id") int id);
+
+    public XxlJobCalendar loadByName(@Param("name") String name);
+
+    public int save(XxlJobCalendar xxlJobCalendar);
+
+    public int update(XxlJobCalendar xxlJobCalendar);
+
+    public int remove(@Param("id") int id);
+
+}
@@ -4,6 +4,7 @@ import com.xxl.job.admin.core.model.XxlJobInfo;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Date;
 import java.util.List;
 
 
@@ -41,9 +42,20 @@ public interface XxlJobInfoDao {
 
 	public int findAllCount();
 
-	public List<XxlJobInfo> scheduleJobQuery(@Param("maxNextTime") long maxNextTime, @Param("pagesize") int pagesize );
+	public List<XxlJobInfo> scheduleJobQuery(@Param("maxNextTime") long maxNextTime,
+											 @Param("pagesize") int pagesize,
+											 @Param("bucketCount") int bucketCount,
+											 @Param("bucket") int bucket);
 
 	public int scheduleUpdate(XxlJobInfo xxlJobInfo);
 
+	public int scheduleUpdateBatch(List<XxlJobInfo> xxlJobInfoList);
+
+	public List<XxlJobInfo> scheduleJobLoad();
+
+	public List<XxlJobInfo> scheduleJobQueryByUpdateTime(@Param("updateTime") Date updateTime);
+
+	public int scheduleFlushBatch(List<XxlJobInfo> xxlJobInfoList);
+
 
 }
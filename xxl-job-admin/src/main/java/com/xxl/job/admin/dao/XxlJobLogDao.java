@@ -35,8 +35,12 @@ public interface XxlJobLogDao {
 
 	public long save(XxlJobLog xxlJobLog);
 
+	public int saveBatch(List<XxlJobLog> xxlJobLogList);
+
 	public int updateTriggerInfo(XxlJobLog xxlJobLog);
 
+	public int updateTriggerResultBatch(List<XxlJobLog> xxlJobLogList);
+
 	public int updateHandleInfo(XxlJobLog xxlJobLog);
 	
 	public int delete(@Param("jobId") int jobId);
@@ -21,14 +21,21 @@ public interface XxlJobRegistryDao {
     public List<XxlJobRegistry> findAll(@Param("timeout") int timeout,
                                         @Param("nowTime") Date nowTime);
 
+    public List<String> findAliveValues(@Param("registryGroup") String registryGroup,
+                                        @Param("registryKey") String registryKey,
+                                        @Param("timeout") int timeout,
+                                        @Param("nowTime") Date nowTime);
+
     public int registryUpdate(@Param("registryGroup") String registryGroup,
                               @Param("registryKey") String registryKey,
                               @Param("registryValue") String registryValue,
+                              @Param("registryLoad") String registryLoad,
                               @Param("updateTime") Date updateTime);
 
     public int registrySave(@Param("registryGroup") String registryGroup,
                             @Param("registryKey") String registryKey,
                             @Param("registryValue") String registryValue,
+                            @Param("registryLoad") String registryLoad,
                             @Param("updateTime") Date updateTime);
 
     public int registryDelete(@Param("registryGroup") String registryGroup,
@@ -3,9 +3,14 @@ package com.xxl.job.admin.service.impl;
 import com.xxl.job.admin.core.model.XxlJobGroup;
 import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.cron.CronExpression;
+import com.xxl.job.admin.core.cron.CronExpressionCache;
 import com.xxl.job.admin.core.model.XxlJobLogReport;
 import com.xxl.job.admin.core.route.ExecutorRouteStrategyEnum;
+import com.xxl.job.admin.core.scheduler.FireTimeSpread;
+import com.xxl.job.admin.core.scheduler.MisfireStrategyEnum;
+import com.xxl.job.admin.core.thread.JobCalendarHelper;
 import com.xxl.job.admin.core.thread.JobScheduleHelper;
+import com.xxl.job.admin.core.trigger.JobSnapshotCache;
 import com.xxl.job.admin.core.util.I18nUtil;
 import com.xxl.job.admin.dao.*;
 import com.xxl.job.admin.service.XxlJobService;
@@ -40,6 +45,8 @@ public class XxlJobServiceImpl implements XxlJobService {
 	private XxlJobLogGlueDao xxlJobLogGlueDao;
 	@Resource
 	private XxlJobLogReportDao xxlJobLogReportDao;
+	@Resource
+	private XxlJobCalendarDao xxlJobCalendarDao;
 	
 	@Override
 	public Map<String, Object> pageList(int start, int length, int jobGroup, int triggerStatus, String jobDesc, String executorHandler, String author) {
@@ -78,6 +85,18 @@ public class XxlJobServiceImpl implements XxlJobService {
 		if (ExecutorBlockStrategyEnum.match(jobInfo.getExecutorBlockStrategy(), null) == null) {
 			return new ReturnT<String>(ReturnT.FAIL_CODE, (I18nUtil.getString("jobinfo_field_executorBlockStrategy")+I18nUtil.getString("system_unvalid")) );
 		}
+		if (jobInfo.getMisfireStrategy()==null || jobInfo.getMisfireStrategy().trim().length()==0) {
+			jobInfo.setMisfireStrategy(MisfireStrategyEnum.DO_NOTHING.name());
+		}
+		if (MisfireStrategyEnum.match(jobInfo.getMisfireStrategy(), null) == null) {
+			return new ReturnT<String>(ReturnT.FAIL_CODE, (I18nUtil.getString("jobinfo_field_misfireStrategy")+I18nUtil.getString("system_unvalid")) );
+		}
+		if (jobInfo.getSpreadWindow() < 0 || jobInfo.getSpreadWindow() > FireTimeSpread.MAX_SPREAD_WINDOW) {
+			return new ReturnT<String>(ReturnT.FAIL_CODE, (I18nUtil.getString("jobinfo_field_spreadWindow")+I18nUtil.getString("system_unvalid")) );
+		}
+		if (jobInfo.getCalendarId() < 0 || (jobInfo.getCalendarId() > 0 && xxlJobCalendarDao.load(jobInfo.getCalendarId()) == null)) {
+			return new ReturnT<String>(ReturnT.FAIL_CODE, (I18nUtil.getString("jobinfo_field_calendar")+I18nUtil.getString("system_unvalid")) );
+		}
 		if (GlueTypeEnum.match(jobInfo.getGlueType()) == null) {
 			return new ReturnT<String>(ReturnT.FAIL_CODE, (I18nUtil.getString("jobinfo_field_gluetype")+I18nUtil.getString("system_unvalid")) );
 		}
@@ -124,6 +143,7 @@ public class XxlJobServiceImpl implements XxlJobService {
 		if (jobInfo.getId() < 1) {
 			return new ReturnT<String>(ReturnT.FAIL_CODE, (I18nUtil.getString("jobinfo_field_add")+I18nUtil.getString("system_fail")) );
 		}
+		JobScheduleHelper.getInstance().onJobChanged(jobInfo.getId());
 
 		return new ReturnT<String>(String.valueOf(jobInfo.getId()));
 	}
@@ -156,6 +176,18 @@ public class XxlJobServiceImpl implements XxlJobService {
 		if (ExecutorBlockStrategyEnum.match(jobInfo.getExecutorBlockStrategy(), null) == null) {
 			return new ReturnT<String>(ReturnT.FAIL_CODE, (I18nUtil.getString("jobinfo_field_executorBlockStrategy")+I18nUtil.getString("system_unvalid")) );
 		}
+		if (jobInfo.getMisfireStrategy()==null || jobInfo.getMisfireStrategy().trim().length()==0) {
+			jobInfo.setMisfireStrategy(MisfireStrategyEnum.DO_NOTHING.name());
+		}
+		if (MisfireStrategyEnum.match(jobInfo.getMisfireStrategy(), null) == null) {
+			return new ReturnT<String>(ReturnT.FAIL_CODE, (I18nUtil.getString("jobinfo_field_misfireStrategy")+I18nUtil.getString("system_unvalid")) );
+		}
+		if (jobInfo.getSpreadWindow() < 0 || jobInfo.getSpreadWindow() > FireTimeSpread.MAX_SPREAD_WINDOW) {
+			return new ReturnT<String>(ReturnT.FAIL_CODE, (I18nUtil.getString("jobinfo_field_spreadWindow")+I18nUtil.getString("system_unvalid")) );
+		}
+		if (jobInfo.getCalendarId() < 0 || (jobInfo.getCalendarId() > 0 && xxlJobCalendarDao.load(jobInfo.getCalendarId()) == null)) {
+			return new ReturnT<String>(ReturnT.FAIL_CODE, (I18nUtil.getString("jobinfo_field_calendar")+I18nUtil.getString("system_unvalid")) );
+		}
 
 		// ChildJobId valid
         if (jobInfo.getChildJobId()!=null && jobInfo.getChildJobId().trim().length()>0) {
@@ -197,9 +229,12 @@ public class XxlJobServiceImpl implements XxlJobService {
 
 		// next trigger time (5s后生效，避开预读周期)
 		long nextTriggerTime = exists_jobInfo.getTriggerNextTime();
-		if (exists_jobInfo.getTriggerStatus() == 1 && !jobInfo.getJobCron().equals(exists_jobInfo.getJobCron()) ) {
+		if (exists_jobInfo.getTriggerStatus() == 1
+				&& (!jobInfo.getJobCron().equals(exists_jobInfo.getJobCron())
+					|| jobInfo.getSpreadWindow() != exists_jobInfo.getSpreadWindow()
+					|| jobInfo.getCalendarId() != exists_jobInfo.getCalendarId()) ) {
 			try {
-				Date nextValidTime = new CronExpression(jobInfo.getJobCron()).getNextValidTimeAfter(new Date(System.currentTimeMillis() + JobScheduleHelper.PRE_READ_MS));
+				Date nextValidTime = JobCalendarHelper.getInstance().getNextValidTimeAfter(jobInfo, new Date(System.currentTimeMillis() + JobScheduleHelper.PRE_READ_MS));
 				if (nextValidTime == null) {
 					return new ReturnT<String>(ReturnT.FAIL_CODE, I18nUtil.getString("jobinfo_field_cron_never_fire"));
 				}
@@ -210,6 +245,11 @@ public class XxlJobServiceImpl implements XxlJobService {
 			}
 		}
 
+		// cron edited, drop old compiled cron
+		if (!jobInfo.getJobCron().equals(exists_jobInfo.getJobCron())) {
+			CronExpressionCache.invalidate(exists_jobInfo.getJobCron());
+		}
+
 		exists_jobInfo.setJobGroup(jobInfo.getJobGroup());
 		exists_jobInfo.setJobCron(jobInfo.getJobCron());
 		exists_jobInfo.setJobDesc(jobInfo.getJobDesc());
@@ -220,6 +260,9 @@ public class XxlJobServiceImpl implements XxlJobService {
 		exists_jobInfo.setExecutorHandler(jobInfo.getExecutorHandler());
 		exists_jobInfo.setExecutorParam(jobInfo.getExecutorParam());
 		exists_jobInfo.setExecutorBlockStrategy(jobInfo.getExecutorBlockStrategy());
+		exists_jobInfo.setMisfireStrategy(jobInfo.getMisfireStrategy());
+		exists_jobInfo.setSpreadWindow(jobInfo.getSpreadWindow());
+		exists_jobInfo.setCalendarId(jobInfo.getCalendarId());
 		exists_jobInfo.setExecutorTimeout(jobInfo.getExecutorTimeout());
 		exists_jobInfo.setExecutorFailRetryCount(jobInfo.getExecutorFailRetryCount());
 		exists_jobInfo.setChildJobId(jobInfo.getChildJobId());
@@ -227,6 +270,8 @@ public class XxlJobServiceImpl implements XxlJobService {
 
 		exists_jobInfo.setUpdateTime(new Date());
         xxlJobInfoDao.update(exists_jobInfo);
+		JobScheduleHelper.getInstance().onJobChanged(exists_jobInfo.getId());
+		JobSnapshotCache.getInstance().invalidateJob(exists_jobInfo.getId());
 
 
 		return ReturnT.SUCCESS;
@@ -242,6 +287,8 @@ public class XxlJobServiceImpl implements XxlJobService {
 		xxlJobInfoDao.delete(id);
 		xxlJobLogDao.delete(id);
 		xxlJobLogGlueDao.deleteByJobId(id);
+		JobScheduleHelper.getInstance().onJobChanged(id);
+		JobSnapshotCache.getInstance().invalidateJob(id);
 		return ReturnT.SUCCESS;
 	}
 
@@ -252,7 +299,7 @@ public class XxlJobServiceImpl implements XxlJobService {
 		// next trigger time (5s后生效，避开预读周期)
 		long nextTriggerTime = 0;
 		try {
-			Date nextValidTime = new CronExpression(xxlJobInfo.getJobCron()).getNextValidTimeAfter(new Date(System.currentTimeMillis() + JobScheduleHelper.PRE_READ_MS));
+			Date nextValidTime = JobCalendarHelper.getInstance().getNextValidTimeAfter(xxlJobInfo, new Date(System.currentTimeMillis() + JobScheduleHelper.PRE_READ_MS));
 			if (nextValidTime == null) {
 				return new ReturnT<String>(ReturnT.FAIL_CODE, I18nUtil.getString("jobinfo_field_cron_never_fire"));
 			}
@@ -268,6 +315,8 @@ public class XxlJobServiceImpl implements XxlJobService {
 
 		xxlJobInfo.setUpdateTime(new Date());
 		xxlJobInfoDao.update(xxlJobInfo);
+		JobScheduleHelper.getInstance().onJobChanged(id);
+		JobSnapshotCache.getInstance().invalidateJob(id);
 		return ReturnT.SUCCESS;
 	}
 
@@ -281,6 +330,8 @@ public class XxlJobServiceImpl implements XxlJobService {
 
 		xxlJobInfo.setUpdateTime(new Date());
 		xxlJobInfoDao.update(xxlJobInfo);
+		JobScheduleHelper.getInstance().onJobChanged(id);
+		JobSnapshotCache.getInstance().invalidateJob(id);
 		return ReturnT.SUCCESS;
 	}
 
@@ -1,5 +1,8 @@
 $(function() {
 
+	// executor circuit breaker, address - {state, failures, errorRate, latency}
+	var breakerMap = {};
+
 	// init date tables
 	var jobGroupTable = $("#jobgroup_list").dataTable({
 		"deferRender": true,
@@ -15,6 +18,10 @@ $(function() {
 				obj.start = d.start;
 				obj.length = d.length;
 				return obj;
+			},
+			dataSrc: function ( json ) {
+				breakerMap = json.breakerMap || {};
+				return json.data;
 			}
 		},
 		"searching": false,
@@ -52,10 +59,19 @@ $(function() {
 				"width":'15%',
 				"visible" : true,
 				"render": function ( data, type, row ) {
-					return row.registryList
-						?'<a class="show_registryList" href="javascript:;" _id="'+ row.id +'" >'
+					if (!row.registryList) {
+						return I18n.system_empty;
+					}
+					var openCount = 0;
+					for (var index in row.registryList) {
+						var breaker = breakerMap[row.registryList[index]];
+						if (breaker && breaker.state != 'CLOSED') {
+							openCount++;
+						}
+					}
+					return '<a class="show_registryList" href="javascript:;" _id="'+ row.id +'" >'
 							+ I18n.system_show +' ( ' + row.registryList.length+ ' ）</a>'
-						:I18n.system_empty;
+							+ (openCount>0?' <span class="badge bg-red" title="'+ I18n.jobgroup_breaker_OPEN +'" >' + openCount + '</span>':'');
 				}
 			},
 			{
@@ -126,7 +142,13 @@ $(function() {
 		var html = '<div>';
 		if (row.registryList) {
 			for (var index in row.registryList) {
-				html += (parseInt(index)+1) + '. <span class="badge bg-green" >' + row.registryList[index] + '</span><br>';
+				var address = row.registryList[index];
+				var breaker = breakerMap[address] || {state: 'CLOSED', errorRate: 0, latency: 0};
+				var badgeClass = breaker.state=='OPEN'?'bg-red':(breaker.state=='HALF_OPEN'?'bg-yellow':'bg-green');
+				html += (parseInt(index)+1) + '. <span class="badge '+ badgeClass +'" >' + address + '</span> '
+					+ I18n['jobgroup_breaker_' + breaker.state]
+					+ ' , ' + I18n.jobgroup_breaker_errorRate + '：' + breaker.errorRate
+					+ ' , ' + I18n.jobgroup_breaker_latency + '：' + breaker.latency + 'ms<br>';
 			}
 		}
 		html += '</div>';
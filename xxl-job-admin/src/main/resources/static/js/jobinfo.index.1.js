@@ -388,6 +388,10 @@ $(function() {
             executorTimeout : {
                 digits:true
             },
+            spreadWindow : {
+                digits:true,
+                max:300
+            },
             executorFailRetryCount : {
                 digits:true
             }
@@ -405,6 +409,10 @@ $(function() {
             executorTimeout : {
                 digits: I18n.system_please_input + I18n.system_digits
             },
+            spreadWindow : {
+                digits: I18n.system_please_input + I18n.system_digits,
+                max: I18n.jobinfo_field_spreadWindow_placeholder
+            },
             executorFailRetryCount : {
                 digits: I18n.system_please_input + I18n.system_digits
             }
@@ -432,6 +440,11 @@ $(function() {
                 executorFailRetryCount = 0;
             }
             $("#addModal .form input[name='executorFailRetryCount']").val(executorFailRetryCount);
+            var spreadWindow = $("#addModal .form input[name='spreadWindow']").val();
+            if(!/^\d+$/.test(spreadWindow)) {
+                spreadWindow = 0;
+            }
+            $("#addModal .form input[name='spreadWindow']").val(spreadWindow);
 
             // process-cronGen
             $("#addModal .form input[name='jobCron']").val( $("#addModal .form input[name='cronGen_display']").val() );
@@ -518,12 +531,15 @@ $(function() {
 		$("#updateModal .form input[name='alarmEmail']").val( row.alarmEmail );
 		$("#updateModal .form input[name='feiShuUrl']").val( row.feiShuUrl );
 		$("#updateModal .form input[name='executorTimeout']").val( row.executorTimeout );
+		$("#updateModal .form input[name='spreadWindow']").val( row.spreadWindow );
+		$('#updateModal .form select[name=calendarId] option[value='+ row.calendarId +']').prop('selected', true);
         $("#updateModal .form input[name='executorFailRetryCount']").val( row.executorFailRetryCount );
 		$('#updateModal .form select[name=executorRouteStrategy] option[value='+ row.executorRouteStrategy +']').prop('selected', true);
 		$("#updateModal .form input[name='executorHandler']").val( row.executorHandler );
 		$("#updateModal .form textarea[name='executorParam']").val( row.executorParam );
         $("#updateModal .form input[name='childJobId']").val( row.childJobId );
 		$('#updateModal .form select[name=executorBlockStrategy] option[value='+ row.executorBlockStrategy +']').prop('selected', true);
+		$('#updateModal .form select[name=misfireStrategy] option[value='+ row.misfireStrategy +']').prop('selected', true);
 		$('#updateModal .form select[name=glueType] option[value='+ row.glueType +']').prop('selected', true);
 
         $("#updateModal .form select[name=glueType]").change();
@@ -554,6 +570,10 @@ $(function() {
             executorTimeout : {
                 digits:true
             },
+            spreadWindow : {
+                digits:true,
+                max:300
+            },
             executorFailRetryCount : {
                 digits:true
             }
@@ -571,6 +591,10 @@ $(function() {
             executorTimeout : {
                 digits: I18n.system_please_input + I18n.system_digits
             },
+            spreadWindow : {
+                digits: I18n.system_please_input + I18n.system_digits,
+                max: I18n.jobinfo_field_spreadWindow_placeholder
+            },
             executorFailRetryCount : {
                 digits: I18n.system_please_input + I18n.system_digits
             }
@@ -598,6 +622,11 @@ $(function() {
                 executorFailRetryCount = 0;
             }
             $("#updateModal .form input[name='executorFailRetryCount']").val(executorFailRetryCount);
+            var spreadWindow = $("#updateModal .form input[name='spreadWindow']").val();
+            if(!/^\d+$/.test(spreadWindow)) {
+                spreadWindow = 0;
+            }
+            $("#updateModal .form input[name='spreadWindow']").val(spreadWindow);
 
             // process-cronGen
             $("#updateModal .form input[name='jobCron']").val( $("#updateModal .form input[name='cronGen_display']").val() );
@@ -664,12 +693,15 @@ $(function() {
 		$("#addModal .form input[name='alarmEmail']").val( row.alarmEmail );
 		$("#addModal .form input[name='feiShuUrl']").val( row.feiShuUrl );
 		$("#addModal .form input[name='executorTimeout']").val( row.executorTimeout );
+		$("#addModal .form input[name='spreadWindow']").val( row.spreadWindow );
+		$('#addModal .form select[name=calendarId] option[value='+ row.calendarId +']').prop('selected', true);
 		$("#addModal .form input[name='executorFailRetryCount']").val( row.executorFailRetryCount );
 		$('#addModal .form select[name=executorRouteStrategy] option[value='+ row.executorRouteStrategy +']').prop('selected', true);
 		$("#addModal .form input[name='executorHandler']").val( row.executorHandler );
 		$("#addModal .form textarea[name='executorParam']").val( row.executorParam );
 		$("#addModal .form input[name='childJobId']").val( row.childJobId );
 		$('#addModal .form select[name=executorBlockStrategy] option[value='+ row.executorBlockStrategy +']').prop('selected', true);
+		$('#addModal .form select[name=misfireStrategy] option[value='+ row.misfireStrategy +']').prop('selected', true);
 		$('#addModal .form select[name=glueType] option[value='+ row.glueType +']').prop('selected', true);
 
 		$("#addModal .form select[name=glueType]").change();
@@ -168,6 +168,29 @@
                         <div class="col-sm-4"><input type="text" class="form-control" name="executorTimeout" placeholder="${I18n.jobinfo_field_executorTimeout_placeholder}" maxlength="6" ></div>
                         <label for="lastname" class="col-sm-2 control-label">${I18n.jobinfo_field_executorFailRetryCount}<font color="black">*</font></label>
                         <div class="col-sm-4"><input type="text" class="form-control" name="executorFailRetryCount" placeholder="${I18n.jobinfo_field_executorFailRetryCount_placeholder}" maxlength="4" ></div>
+                    </div>
+                    <div class="form-group">
+                        <label for="firstname" class="col-sm-2 control-label">${I18n.jobinfo_field_misfireStrategy}<font color="black">*</font></label>
+                        <div class="col-sm-4">
+                            <select class="form-control" name="misfireStrategy" >
+                                <#list MisfireStrategyEnum as item>
+                                    <option value="${item}" >${item.title}</option>
+                                </#list>
+                            </select>
+                        </div>
+                        <label for="lastname" class="col-sm-2 control-label">${I18n.jobinfo_field_spreadWindow}<font color="black">*</font></label>
+                        <div class="col-sm-4"><input type="text" class="form-control" name="spreadWindow" placeholder="${I18n.jobinfo_field_spreadWindow_placeholder}" maxlength="3" ></div>
+                    </div>
+                    <div class="form-group">
+                        <label for="firstname" class="col-sm-2 control-label">${I18n.jobinfo_field_calendar}<font color="black">*</font></label>
+                        <div class="col-sm-4">
+                            <select class="form-control" name="calendarId" >
+                                <option value="0" >${I18n.jobinfo_field_calendar_none}</option>
+                                <#list CalendarList as calendar>
+                                    <option value="${calendar.id}" >${calendar.name}</option>
+                                </#list>
+                            </select>
+                        </div>
                     </div>
 					<div class="form-group">
                         <label for="lastname" class="col-sm-2 control-label">${I18n.jobinfo_field_author}<font color="red">*</font></label>
@@ -369,6 +392,29 @@ exit 0
                         <label for="lastname" class="col-sm-2 control-label">${I18n.jobinfo_field_executorFailRetryCount}<font color="black">*</font></label>
                         <div class="col-sm-4"><input type="text" class="form-control" name="executorFailRetryCount" placeholder="${I18n.jobinfo_field_executorFailRetryCount_placeholder}" maxlength="4" ></div>
                     </div>
+                    <div class="form-group">
+                        <label for="firstname" class="col-sm-2 control-label">${I18n.jobinfo_field_misfireStrategy}<font color="black">*</font></label>
+                        <div class="col-sm-4">
+                            <select class="form-control" name="misfireStrategy" >
+                                <#list MisfireStrategyEnum as item>
+                                    <option value="${item}" >${item.title}</option>
+                                </#list>
+                            </select>
+                        </div>
+                        <label for="lastname" class="col-sm-2 control-label">${I18n.jobinfo_field_spreadWindow}<font color="black">*</font></label>
+                        <div class="col-sm-4"><input type="text" class="form-control" name="spreadWindow" placeholder="${I18n.jobinfo_field_spreadWindow_placeholder}" maxlength="3" ></div>
+                    </div>
+                    <div class="form-group">
+                        <label for="firstname" class="col-sm-2 control-label">${I18n.jobinfo_field_calendar}<font color="black">*</font></label>
+                        <div class="col-sm-4">
+                            <select class="form-control" name="calendarId" >
+                                <option value="0" >${I18n.jobinfo_field_calendar_none}</option>
+                                <#list CalendarList as calendar>
+                                    <option value="${calendar.id}" >${calendar.name}</option>
+                                </#list>
+                            </select>
+                        </div>
+                    </div>
                     <div class="form-group">
                         <label for="lastname" class="col-sm-2 control-label">${I18n.jobinfo_field_author}<font color="red">*</font></label>
                         <div class="col-sm-4"><input type="text" class="form-control" name="author" placeholder="${I18n.system_please_input}${I18n.jobinfo_field_author}" maxlength="50" ></div>
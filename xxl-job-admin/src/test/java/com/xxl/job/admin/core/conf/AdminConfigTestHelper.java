@@ -0,0 +1,53 @@
+package com.xxl.job.admin.core.conf;
+
+import java.lang.reflect.Field;
+
+/**
+ * admin config without spring context, for unit test
+ *
+ *      a、install: new config with given fields replaces global "XxlJobAdminConfig.adminConfig", call in @BeforeClass;
+ *      b、restore: original config put back, call in @AfterClass, later tests in the same jvm (spring context) see their own config;
+ */
+public class AdminConfigTestHelper {
+
+    private static XxlJobAdminConfig originConfig;
+    private static boolean installed = false;
+
+    /**
+     * @param fieldNameValues   field name and value pairs, like: "triggerProbeTimeout", 500, "i18n", "zh_CN"
+     */
+    public static synchronized XxlJobAdminConfig install(Object... fieldNameValues) throws Exception {
+        if (fieldNameValues.length % 2 != 0) {
+            throw new IllegalArgumentException("field name and value not paired.");
+        }
+        XxlJobAdminConfig adminConfig = new XxlJobAdminConfig();
+        for (int i = 0; i < fieldNameValues.length; i += 2) {
+            Field field = XxlJobAdminConfig.class.getDeclaredField((String) fieldNameValues[i]);
+            field.setAccessible(true);
+            field.set(adminConfig, fieldNameValues[i + 1]);
+        }
+
+        if (!installed) {
+            originConfig = XxlJobAdminConfig.getAdminConfig();
+            installed = true;
+        }
+        setGlobal(adminConfig);
+        return adminConfig;
+    }
+
+    public static synchronized void restore() throws Exception {
+        if (!installed) {
+            return;
+        }
+        setGlobal(originConfig);
+        originConfig = null;
+        installed = false;
+    }
+
+    private static void setGlobal(XxlJobAdminConfig adminConfig) throws Exception {
+        Field adminConfigField = XxlJobAdminConfig.class.getDeclaredField("adminConfig");
+        adminConfigField.setAccessible(true);
+        adminConfigField.set(null, adminConfig);
+    }
+
+}
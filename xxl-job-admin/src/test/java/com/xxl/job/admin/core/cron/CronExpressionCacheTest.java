@@ -0,0 +1,72 @@
+package com.xxl.job.admin.core.cron;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.util.Date;
+
+/**
+ * compiled cron cache test, print parse cost vs cached next-time cost
+ */
+public class CronExpressionCacheTest {
+
+    private static final String[] CRONS = new String[]{
+            "* * * * * ?",
+            "0/5 * * * * ?",
+            "0 0/1 * * * ?",
+            "0 15 10 ? * MON-FRI",
+            "0 0 2 1 * ? *"
+    };
+
+    @Test
+    public void cacheHit() throws Exception {
+        FastCronExpression first = CronExpressionCache.get(CRONS[0]);
+        Assert.assertSame(first, CronExpressionCache.get(CRONS[0]));
+
+        CronExpressionCache.invalidate(CRONS[0]);
+        FastCronExpression second = CronExpressionCache.get(CRONS[0]);
+        Assert.assertNotSame(first, second);
+
+        Date now = new Date();
+        Assert.assertEquals(new CronExpression(CRONS[0]).getNextValidTimeAfter(now), second.getNextValidTimeAfter(now));
+    }
+
+    @Test(expected = ParseException.class)
+    public void unvalidCron() throws Exception {
+        CronExpressionCache.get("0 0 25 * * ?");
+    }
+
+    @Test
+    public void benchmark() throws Exception {
+        final int rounds = 200000;
+        Date fromTime = new Date();
+
+        // warm up
+        run(20000, fromTime, false);
+        run(20000, fromTime, true);
+
+        long parseCost = run(rounds, fromTime, false);
+        long cacheCost = run(rounds, fromTime, true);
+
+        System.out.println("rounds=" + rounds
+                + ", parse+next: " + (parseCost / rounds) + " ns/op"
+                + ", cached next: " + (cacheCost / rounds) + " ns/op");
+    }
+
+    private long run(int rounds, Date fromTime, boolean cached) throws ParseException {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            String cron = CRONS[i % CRONS.length];
+            Date nextTime = cached
+                    ? CronExpressionCache.get(cron).getNextValidTimeAfter(fromTime)
+                    : new CronExpression(cron).getNextValidTimeAfter(fromTime);
+            sink += nextTime.getTime();
+        }
+        long cost = System.nanoTime() - start;
+        Assert.assertTrue(sink > 0);
+        return cost;
+    }
+
+}
@@ -0,0 +1,194 @@
+package com.xxl.job.admin.core.cron;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * bitmask cron evaluator test, must agree with CronExpression exactly
+ */
+public class FastCronExpressionTest {
+
+    private static final String[] TIME_ZONES = new String[]{
+            "UTC", "Asia/Shanghai", "America/New_York", "Europe/London", "Australia/Lord_Howe", "Asia/Kolkata"
+    };
+
+    @Test
+    public void randomCorpus() throws Exception {
+        Random random = new Random(20201018);
+        long minTime = 946684800000L;      // 2000-01-01
+        long maxTime = 2208988800000L;     // 2040-01-01
+
+        int exprCount = 0;
+        int fastCount = 0;
+        int checkCount = 0;
+        while (exprCount < 5000) {
+            String cron = randomCron(random);
+            CronExpression cronExpression;
+            try {
+                cronExpression = new CronExpression(cron);
+            } catch (ParseException e) {
+                continue;
+            }
+            cronExpression.setTimeZone(TimeZone.getTimeZone(TIME_ZONES[random.nextInt(TIME_ZONES.length)]));
+            FastCronExpression fastCronExpression = new FastCronExpression(cronExpression);
+            exprCount++;
+            if (fastCronExpression.isFastPath()) {
+                fastCount++;
+            }
+
+            // chain of next fire time, from random time
+            Date fromTime = new Date(minTime + (long) (random.nextDouble() * (maxTime - minTime)) + random.nextInt(1000));
+            for (int i = 0; i < 20 && fromTime != null; i++) {
+                Date expected = cronExpression.getNextValidTimeAfter(fromTime);
+                Date actual = fastCronExpression.getNextValidTimeAfter(fromTime);
+                Assert.assertEquals(cron + " @" + cronExpression.getTimeZone().getID() + " after " + fromTime.getTime(), expected, actual);
+                checkCount++;
+
+                // jump ahead sometimes, cover month / year rolling
+                fromTime = (expected != null && random.nextInt(4) == 0)
+                        ? new Date(expected.getTime() + random.nextInt(90 * 86400) * 1000L + random.nextInt(1000))
+                        : expected;
+            }
+        }
+        System.out.println("expressions=" + exprCount + ", fastPath=" + fastCount + ", checks=" + checkCount);
+        Assert.assertTrue(fastCount > exprCount / 2);
+    }
+
+    @Test
+    public void edgeCases() throws Exception {
+        String[] crons = new String[]{
+                "* * * * * ?",
+                "59 59 23 31 12 ?",
+                "0 0 0 29 2 ?",
+                "0 0 0 31 2 ?",         // never fire
+                "0 30 2 * * ?",         // DST gap
+                "0 30 1 ? * SUN",       // DST overlap
+                "0 0 12 ? * 1#2",       // fallback
+                "0 0 12 L * ?",         // fallback
+                "0 0 12 15W * ?",       // fallback
+                "0 0 12 * * ? 2030"     // fallback
+        };
+        long[] fromTimes = new long[]{
+                1583650000000L,         // 2020-03-08, New_York DST start
+                1604210000000L,         // 2020-11-01, New_York DST end
+                1582934400000L,         // 2020-02-29
+                1609459199999L,         // 2020-12-31 23:59:59.999 UTC
+                System.currentTimeMillis()
+        };
+        for (String cron : crons) {
+            for (String timeZone : TIME_ZONES) {
+                CronExpression cronExpression = new CronExpression(cron);
+                cronExpression.setTimeZone(TimeZone.getTimeZone(timeZone));
+                FastCronExpression fastCronExpression = new FastCronExpression(cronExpression);
+                for (long fromTime : fromTimes) {
+                    Date from = new Date(fromTime);
+                    for (int i = 0; i < 30 && from != null; i++) {
+                        Date expected = cronExpression.getNextValidTimeAfter(from);
+                        Assert.assertEquals(cron + " @" + timeZone + " after " + from.getTime(), expected, fastCronExpression.getNextValidTimeAfter(from));
+                        from = expected;
+                    }
+                }
+            }
+        }
+
+        Assert.assertTrue(new FastCronExpression("0 0/5 * * * ?").isFastPath());
+        Assert.assertFalse(new FastCronExpression("0 0 12 L * ?").isFastPath());
+        Assert.assertFalse(new FastCronExpression("0 0 12 ? * 1#2").isFastPath());
+        Assert.assertFalse(new FastCronExpression("0 0 12 * * ? 2030").isFastPath());
+    }
+
+    @Test
+    public void benchmark() throws Exception {
+        final int rounds = 500000;
+        CronExpression cronExpression = new CronExpression("0/5 * 9-18 ? * MON-FRI");
+        FastCronExpression fastCronExpression = new FastCronExpression(cronExpression);
+        Date fromTime = new Date();
+
+        // warm up
+        for (int i = 0; i < 50000; i++) {
+            cronExpression.getNextValidTimeAfter(fromTime);
+            fastCronExpression.getNextValidTimeAfter(fromTime);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            cronExpression.getNextValidTimeAfter(fromTime);
+        }
+        long treeSetCost = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            fastCronExpression.getNextValidTimeAfter(fromTime);
+        }
+        long bitmaskCost = System.nanoTime() - start;
+
+        System.out.println("rounds=" + rounds
+                + ", CronExpression: " + (treeSetCost / rounds) + " ns/op"
+                + ", FastCronExpression: " + (bitmaskCost / rounds) + " ns/op");
+    }
+
+
+    // ---------------------- random cron ----------------------
+
+    private static String randomCron(Random random) {
+        StringBuilder cron = new StringBuilder();
+        cron.append(randomField(random, 0, 59)).append(" ");
+        cron.append(randomField(random, 0, 59)).append(" ");
+        cron.append(randomField(random, 0, 23)).append(" ");
+
+        int dayMode = random.nextInt(10);
+        if (dayMode < 5) {
+            cron.append(randomField(random, 1, 31)).append(" ");
+            cron.append(randomField(random, 1, 12)).append(" ? ");
+        } else if (dayMode < 9) {
+            cron.append("? ");
+            cron.append(randomField(random, 1, 12)).append(" ");
+            cron.append(randomField(random, 1, 7));
+        } else {
+            // rare features, fallback
+            String[] rare = new String[]{"L ", "L-3 ", "LW ", (1 + random.nextInt(28)) + "W "};
+            if (random.nextBoolean()) {
+                cron.append(rare[random.nextInt(rare.length)]).append(randomField(random, 1, 12)).append(" ?");
+            } else {
+                cron.append("? ").append(randomField(random, 1, 12)).append(" ")
+                        .append(1 + random.nextInt(7)).append(random.nextBoolean() ? "L" : "#" + (1 + random.nextInt(5)));
+            }
+        }
+        return cron.toString();
+    }
+
+    private static String randomField(Random random, int min, int max) {
+        int span = max - min + 1;
+        switch (random.nextInt(6)) {
+            case 0:
+                return "*";
+            case 1:
+                return String.valueOf(min + random.nextInt(span));
+            case 2: {
+                int from = min + random.nextInt(span);
+                int to = min + random.nextInt(span);
+                return from + "-" + to;
+            }
+            case 3:
+                return (random.nextBoolean() ? "*" : String.valueOf(min + random.nextInt(span))) + "/" + (1 + random.nextInt(span));
+            case 4: {
+                StringBuilder list = new StringBuilder();
+                int count = 1 + random.nextInt(4);
+                for (int i = 0; i < count; i++) {
+                    list.append(i > 0 ? "," : "").append(min + random.nextInt(span));
+                }
+                return list.toString();
+            }
+            default: {
+                int from = min + random.nextInt(span);
+                return from + "-" + Math.min(max, from + random.nextInt(span)) + "/" + (1 + random.nextInt(5));
+            }
+        }
+    }
+
+}
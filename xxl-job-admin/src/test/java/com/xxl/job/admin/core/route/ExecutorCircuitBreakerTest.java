@@ -0,0 +1,101 @@
+package com.xxl.job.admin.core.route;
+
+import com.xxl.job.admin.core.conf.AdminConfigTestHelper;
+import com.xxl.job.admin.core.thread.ExecutorProbeHelper;
+import com.xxl.job.core.biz.model.ReturnT;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * executor circuit breaker test
+ */
+public class ExecutorCircuitBreakerTest {
+
+    private static final ReturnT<String> REMOTING_FAIL = new ReturnT<String>(ReturnT.FAIL_CODE, "xxl-rpc remoting error(Connection refused), for url : x");
+    private static final ReturnT<String> JOB_FAIL = new ReturnT<String>(ReturnT.FAIL_CODE, "job handler not found.");
+
+    @BeforeClass
+    public static void init() throws Exception {
+        AdminConfigTestHelper.install("triggerBreakerFailures", 3,
+                "triggerBreakerOpenTime", 1,
+                "triggerProbeTimeout", 500,
+                "triggerProbeCacheTtl", 60000);
+    }
+
+    @AfterClass
+    public static void destroy() throws Exception {
+        AdminConfigTestHelper.restore();
+    }
+
+    private static String state(String address) {
+        Map<String, Object> stats = ExecutorCircuitBreaker.getBreakerStats(Arrays.asList(address));
+        return (String) ((Map) stats.get(address)).get("state");
+    }
+
+    @Test
+    public void openAfterContinuousRemotingFail() {
+        String address = "http://10.9.0.1:9999/";
+        String other = "http://10.9.0.2:9999/";
+        List<String> addressList = Arrays.asList(address, other);
+
+        // business fail and success in between, not open
+        ExecutorCircuitBreaker.record(address, REMOTING_FAIL, 10);
+        ExecutorCircuitBreaker.record(address, REMOTING_FAIL, 10);
+        ExecutorCircuitBreaker.record(address, JOB_FAIL, 10);
+        ExecutorCircuitBreaker.record(address, ReturnT.SUCCESS, 10);
+        ExecutorCircuitBreaker.record(address, REMOTING_FAIL, 10);
+        Assert.assertEquals("CLOSED", state(address));
+        Assert.assertSame(addressList, ExecutorCircuitBreaker.filter(addressList));
+
+        // continuous fail, open
+        ExecutorCircuitBreaker.record(address, REMOTING_FAIL, 10);
+        ExecutorCircuitBreaker.record(address, ReturnT.SUCCESS, 3000);     // as slow as timeout
+        Assert.assertEquals("OPEN", state(address));
+        Assert.assertFalse(ExecutorCircuitBreaker.allow(address));
+        Assert.assertEquals(Arrays.asList(other), ExecutorCircuitBreaker.filter(addressList));
+    }
+
+    @Test
+    public void closeWhenHalfOpenProbeSuccess() throws Exception {
+        String address = "http://10.9.1.1:9999/";
+        for (int i = 0; i < 3; i++) {
+            ExecutorCircuitBreaker.record(address, REMOTING_FAIL, 10);
+        }
+        Assert.assertTrue(ExecutorCircuitBreaker.filter(Arrays.asList(address)).isEmpty());
+
+        // recovered, beat reply cached
+        ExecutorProbeHelper.getInstance().probeAsync(address, "beat", new ExecutorProbeHelper.Probe() {
+            @Override
+            public ReturnT<String> probe(String address, int timeoutMillis) throws Exception {
+                return ReturnT.SUCCESS;
+            }
+        }).get();
+
+        // open time passed, half-open probe
+        TimeUnit.MILLISECONDS.sleep(1100);
+        Assert.assertFalse(ExecutorCircuitBreaker.allow(address));
+        Assert.assertEquals("CLOSED", state(address));
+        Assert.assertTrue(ExecutorCircuitBreaker.allow(address));
+    }
+
+    @Test
+    public void reopenWhenHalfOpenProbeFail() throws Exception {
+        String address = "http://127.0.0.1:1/";     // connection refused
+        for (int i = 0; i < 3; i++) {
+            ExecutorCircuitBreaker.record(address, REMOTING_FAIL, 10);
+        }
+
+        TimeUnit.MILLISECONDS.sleep(1100);
+        Assert.assertFalse(ExecutorCircuitBreaker.allow(address));
+        Assert.assertEquals("OPEN", state(address));
+        Assert.assertFalse(ExecutorCircuitBreaker.allow(address));
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.xxl.job.admin.core.route.strategy;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * consistent hash route test
+ */
+public class ExecutorRouteConsistentHashTest {
+
+    private static List<String> addressList(int count) {
+        List<String> addressList = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            addressList.add("http://10.0.0." + i + ":9999/");
+        }
+        return addressList;
+    }
+
+    @Test
+    public void stableAndBalanced() {
+        ExecutorRouteConsistentHash router = new ExecutorRouteConsistentHash();
+        List<String> addressList = addressList(10);
+
+        Map<String, Integer> countMap = new HashMap<>();
+        for (int jobId = 1; jobId <= 10000; jobId++) {
+            String address = router.hashJob(jobId, addressList);
+            Assert.assertEquals(address, router.hashJob(jobId, new ArrayList<>(addressList)));
+            countMap.put(address, countMap.containsKey(address)?countMap.get(address)+1:1);
+        }
+
+        Assert.assertEquals(10, countMap.size());
+        for (int count : countMap.values()) {
+            Assert.assertTrue("unbalanced: " + countMap, count > 500 && count < 1500);
+        }
+    }
+
+    /**
+     * TreeMap ring of old version, job must stay on the same address after upgrade
+     */
+    private static String hashJobOld(int jobId, List<String> addressList) throws Exception {
+        TreeMap<Long, String> addressRing = new TreeMap<Long, String>();
+        for (String address: addressList) {
+            for (int i = 0; i < 100; i++) {
+                addressRing.put(md5Hash("SHARD-" + address + "-NODE-" + i), address);
+            }
+        }
+        SortedMap<Long, String> lastRing = addressRing.tailMap(md5Hash(String.valueOf(jobId)));
+        return !lastRing.isEmpty()?lastRing.get(lastRing.firstKey()):addressRing.firstEntry().getValue();
+    }
+
+    private static long md5Hash(String key) throws Exception {
+        byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes("UTF-8"));
+        long hashCode = ((long) (digest[3] & 0xFF) << 24) | ((long) (digest[2] & 0xFF) << 16) | ((long) (digest[1] & 0xFF) << 8) | (digest[0] & 0xFF);
+        return hashCode & 0xffffffffL;
+    }
+
+    @Test
+    public void sameAsOldVersion() throws Exception {
+        ExecutorRouteConsistentHash router = new ExecutorRouteConsistentHash();
+        for (int size : new int[]{1, 3, 10}) {
+            List<String> addressList = addressList(size);
+            for (int jobId = 1; jobId <= 2000; jobId++) {
+                Assert.assertEquals(hashJobOld(jobId, addressList), router.hashJob(jobId, addressList));
+            }
+        }
+    }
+
+    @Test
+    public void onlyRemovedAddressMoves() {
+        ExecutorRouteConsistentHash router = new ExecutorRouteConsistentHash();
+        List<String> addressList = addressList(10);
+        List<String> removedList = new ArrayList<>(addressList);
+        String removed = removedList.remove(3);
+
+        for (int jobId = 1; jobId <= 10000; jobId++) {
+            String before = router.hashJob(jobId, addressList);
+            String after = router.hashJob(jobId, removedList);
+            if (!before.equals(removed)) {
+                Assert.assertEquals(before, after);
+            } else {
+                Assert.assertNotEquals(removed, after);
+            }
+        }
+    }
+
+    @Test
+    public void routeCost() {
+        ExecutorRouteConsistentHash router = new ExecutorRouteConsistentHash();
+        List<String> addressList = addressList(50);
+
+        int count = 1000000;
+        String address = null;
+        for (int i = 0; i < count; i++) {
+            address = router.hashJob(i % 10000, addressList);       // warm up
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            address = router.hashJob(i % 10000, addressList);
+        }
+        long cost = System.nanoTime() - start;
+        System.out.println("consistent hash route, 50 address, avg cost(ns): " + (cost / count) + ", " + address);
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.xxl.job.admin.core.route.strategy;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * lfu route test
+ */
+public class ExecutorRouteLFUTest {
+
+    @Test
+    public void evenUnderConcurrency() throws InterruptedException {
+        final ExecutorRouteLFU router = new ExecutorRouteLFU();
+        final List<String> addressList = Arrays.asList("a1", "a2", "a3", "a4");
+        final Map<String, AtomicInteger> countMap = new ConcurrentHashMap<>();
+        for (String address : addressList) {
+            countMap.put(address, new AtomicInteger());
+        }
+
+        final int threads = 16;
+        final int perThread = 10000;
+        final CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < perThread; i++) {
+                        countMap.get(router.route(1001, addressList)).incrementAndGet();
+                    }
+                    latch.countDown();
+                }
+            }).start();
+        }
+        latch.await();
+
+        int expect = threads * perThread / addressList.size();
+        for (AtomicInteger count : countMap.values()) {
+            Assert.assertTrue("uneven: " + countMap, Math.abs(count.get() - expect) < expect / 10);
+        }
+    }
+
+    @Test
+    public void addressChanged() {
+        ExecutorRouteLFU router = new ExecutorRouteLFU();
+        for (int i = 0; i < 100; i++) {
+            router.route(1002, Arrays.asList("a1", "a2"));
+        }
+
+        // new address joins at least count, not routed 100 times in a row
+        List<String> addressList = Arrays.asList("a1", "a2", "a3");
+        int a3Count = 0;
+        for (int i = 0; i < 30; i++) {
+            if ("a3".equals(router.route(1002, addressList))) {
+                a3Count++;
+            }
+        }
+        Assert.assertTrue(a3Count >= 9 && a3Count <= 11);
+
+        // removed address never routed
+        for (int i = 0; i < 10; i++) {
+            Assert.assertNotEquals("a1", router.route(1002, Arrays.asList("a2", "a3")));
+        }
+    }
+
+    @Test
+    public void routeCost() throws InterruptedException {
+        final ExecutorRouteLFU router = new ExecutorRouteLFU();
+        final List<String> addressList = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            addressList.add("http://10.0.0." + i + ":9999/");
+        }
+
+        long cost = ExecutorRouteLRUTest.concurrentCost(32, 100000, new ExecutorRouteLRUTest.RouteCall() {
+            @Override
+            public void route(int jobId) {
+                router.route(jobId, addressList);
+            }
+        });
+        System.out.println("lfu route, 32 threads, 20 address, avg cost(ns): " + cost);
+    }
+
+}
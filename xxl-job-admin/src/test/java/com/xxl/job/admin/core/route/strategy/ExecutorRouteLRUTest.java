@@ -0,0 +1,114 @@
+package com.xxl.job.admin.core.route.strategy;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * lru route test
+ */
+public class ExecutorRouteLRUTest {
+
+    interface RouteCall {
+        void route(int jobId);
+    }
+
+    /**
+     * @return  avg cost of one route, ns (threads route concurrently, jobs 1~100)
+     */
+    static long concurrentCost(int threads, final int perThread, final RouteCall routeCall) throws InterruptedException {
+        for (int i = 0; i < perThread; i++) {
+            routeCall.route(i % 100);      // warm up
+        }
+
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch endLatch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        startLatch.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < perThread; i++) {
+                        routeCall.route(i % 100);
+                    }
+                    endLatch.countDown();
+                }
+            }).start();
+        }
+        long start = System.nanoTime();
+        startLatch.countDown();
+        endLatch.await();
+        return (System.nanoTime() - start) / ((long) threads * perThread);
+    }
+
+    @Test
+    public void leastRecentlyUsedInTurn() {
+        ExecutorRouteLRU router = new ExecutorRouteLRU();
+        List<String> addressList = Arrays.asList("a1", "a2", "a3");
+        for (int i = 0; i < 9; i++) {
+            Assert.assertEquals(addressList.get(i % 3), router.route(2001, addressList));
+        }
+
+        // new address is eldest
+        Assert.assertEquals("a4", router.route(2001, Arrays.asList("a1", "a2", "a3", "a4")));
+        Assert.assertEquals("a1", router.route(2001, Arrays.asList("a1", "a2", "a3", "a4")));
+
+        // removed address never routed
+        Assert.assertEquals("a3", router.route(2001, Arrays.asList("a3", "a4")));
+    }
+
+    @Test
+    public void noSameAddressInRound() throws InterruptedException {
+        final ExecutorRouteLRU router = new ExecutorRouteLRU();
+        final List<String> addressList = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            addressList.add("a" + i);
+        }
+
+        // 32 threads route once at the same time: each address once
+        final List<String> routed = new ArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(32);
+        for (int t = 0; t < 32; t++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    String address = router.route(2002, addressList);
+                    synchronized (routed) {
+                        routed.add(address);
+                    }
+                    latch.countDown();
+                }
+            }).start();
+        }
+        latch.await();
+        Assert.assertEquals(32, routed.size());
+        Assert.assertEquals(32, new HashSet<>(routed).size());
+    }
+
+    @Test
+    public void routeCost() throws InterruptedException {
+        final ExecutorRouteLRU router = new ExecutorRouteLRU();
+        final List<String> addressList = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            addressList.add("http://10.0.0." + i + ":9999/");
+        }
+
+        long cost = concurrentCost(32, 100000, new RouteCall() {
+            @Override
+            public void route(int jobId) {
+                router.route(jobId, addressList);
+            }
+        });
+        System.out.println("lru route, 32 threads, 20 address, avg cost(ns): " + cost);
+    }
+
+}
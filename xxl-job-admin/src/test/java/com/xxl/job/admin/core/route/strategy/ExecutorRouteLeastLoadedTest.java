@@ -0,0 +1,97 @@
+package com.xxl.job.admin.core.route.strategy;
+
+import com.xxl.job.admin.core.route.ExecutorLoadCache;
+import com.xxl.job.core.biz.model.RegistryLoad;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * least loaded route test
+ */
+public class ExecutorRouteLeastLoadedTest {
+
+    private static List<String> addressList(String prefix, int count) {
+        List<String> addressList = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            addressList.add("http://" + prefix + "." + i + ":9999/");
+        }
+        return addressList;
+    }
+
+    private static RegistryLoad registryLoad(int triggerQueueSize, double systemLoad) {
+        return RegistryLoad.parse("4,1," + triggerQueueSize + ",0,0," + systemLoad);
+    }
+
+    private static Map<String, Integer> routeCount(ExecutorRouteLeastLoaded router, List<String> addressList, int count) {
+        Map<String, Integer> countMap = new HashMap<>();
+        for (String address : addressList) {
+            countMap.put(address, 0);
+        }
+        for (int i = 0; i < count; i++) {
+            String address = router.route(addressList);
+            countMap.put(address, countMap.get(address) + 1);
+        }
+        return countMap;
+    }
+
+    @Test
+    public void registryLoadFormatAndParse() {
+        RegistryLoad registryLoad = RegistryLoad.parse(registryLoad(12, 0.456).format());
+        Assert.assertEquals(4, registryLoad.getJobThreadCount());
+        Assert.assertEquals(12, registryLoad.getTriggerQueueSize());
+        Assert.assertEquals(0.46, registryLoad.getSystemLoad(), 0.0001);
+        Assert.assertEquals(13, registryLoad.backlog());
+
+        Assert.assertNull(RegistryLoad.parse(null));
+        Assert.assertNull(RegistryLoad.parse("1,2,x"));
+    }
+
+    @Test
+    public void avoidLoadedExecutor() {
+        ExecutorRouteLeastLoaded router = new ExecutorRouteLeastLoaded();
+        List<String> addressList = addressList("10.1.0", 4);
+        long now = System.currentTimeMillis();
+        ExecutorLoadCache.fresh(addressList.get(0), registryLoad(1000, 0.5), now);
+        ExecutorLoadCache.fresh(addressList.get(1), registryLoad(0, 0.1), now);
+        ExecutorLoadCache.fresh(addressList.get(2), registryLoad(0, 0.2), now);
+        ExecutorLoadCache.fresh(addressList.get(3), registryLoad(0, 0.3), now);
+
+        Map<String, Integer> countMap = routeCount(router, addressList, 900);
+
+        // loaded executor never chosen, dispatched count spreads the others
+        Assert.assertEquals(0, (int) countMap.get(addressList.get(0)));
+        for (int i = 1; i < 4; i++) {
+            Assert.assertTrue("unbalanced: " + countMap, countMap.get(addressList.get(i)) > 200);
+        }
+    }
+
+    @Test
+    public void olderReportIgnored() {
+        String address = addressList("10.2.0", 1).get(0);
+        long now = System.currentTimeMillis();
+        ExecutorLoadCache.fresh(address, registryLoad(5, 0.1), now);
+        ExecutorLoadCache.fresh(address, registryLoad(50, 0.1), now - 1000);
+
+        Assert.assertEquals(6, ExecutorLoadCache.load(address).backlog());
+        Assert.assertNull(ExecutorLoadCache.load(addressList("10.2.1", 1).get(0)));
+    }
+
+    @Test
+    public void randomWhenLoadUnknown() {
+        ExecutorRouteLeastLoaded router = new ExecutorRouteLeastLoaded();
+        List<String> addressList = addressList("10.3.0", 4);
+        ExecutorLoadCache.fresh(addressList.get(0), registryLoad(1000, 0.5), System.currentTimeMillis() - 3600 * 1000);
+
+        Map<String, Integer> countMap = routeCount(router, addressList, 4000);
+
+        for (int count : countMap.values()) {
+            Assert.assertTrue("not random: " + countMap, count > 700 && count < 1300);
+        }
+    }
+
+}
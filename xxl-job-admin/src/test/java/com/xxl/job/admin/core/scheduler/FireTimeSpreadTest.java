@@ -0,0 +1,69 @@
+package com.xxl.job.admin.core.scheduler;
+
+import com.xxl.job.admin.core.model.XxlJobInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Date;
+
+/**
+ * fire-time spread test
+ */
+public class FireTimeSpreadTest {
+
+    private static XxlJobInfo job(int id, String cron, int spreadWindow) {
+        XxlJobInfo jobInfo = new XxlJobInfo();
+        jobInfo.setId(id);
+        jobInfo.setJobCron(cron);
+        jobInfo.setSpreadWindow(spreadWindow);
+        return jobInfo;
+    }
+
+    @Test
+    public void offsetInWindow() {
+        Assert.assertEquals(0, FireTimeSpread.offsetMs(1, 0));
+        for (int jobId = 1; jobId <= 10000; jobId++) {
+            long offset = FireTimeSpread.offsetMs(jobId, 30);
+            Assert.assertTrue(offset >= 0 && offset < 30 * 1000);
+            Assert.assertEquals(offset, FireTimeSpread.offsetMs(jobId, 30));
+        }
+        Assert.assertTrue(FireTimeSpread.offsetMs(1, 100000) < FireTimeSpread.MAX_SPREAD_WINDOW * 1000);
+    }
+
+    @Test
+    public void chainKeepsOffset() throws Exception {
+        XxlJobInfo jobInfo = job(42, "0 * * * * ?", 30);
+        long offset = FireTimeSpread.offsetMs(42, 30);
+
+        Date fireTime = new Date();
+        for (int i = 0; i < 100; i++) {
+            Date nextTime = FireTimeSpread.getNextValidTimeAfter(jobInfo, fireTime);
+            Assert.assertTrue(nextTime.after(fireTime));
+            Assert.assertEquals(offset, nextTime.getTime() % 60000);
+            Assert.assertTrue(i == 0 || nextTime.getTime() - fireTime.getTime() == 60000);
+            fireTime = nextTime;
+        }
+
+        // no window, same as cron
+        XxlJobInfo plainJob = job(42, "0 * * * * ?", 0);
+        Assert.assertEquals(0, FireTimeSpread.getNextValidTimeAfter(plainJob, new Date()).getTime() % 60000);
+    }
+
+    @Test
+    public void spreadTopOfMinute() throws Exception {
+        // 6000 jobs on "0 * * * * ?", 30s window: no second holds more than 2x the average
+        int jobCount = 6000;
+        int[] perSecond = new int[60];
+        Date fromTime = new Date();
+        for (int jobId = 1; jobId <= jobCount; jobId++) {
+            Date nextTime = FireTimeSpread.getNextValidTimeAfter(job(jobId, "0 * * * * ?", 30), fromTime);
+            perSecond[(int) (nextTime.getTime() / 1000 % 60)]++;
+        }
+        int peak = 0;
+        for (int count : perSecond) {
+            peak = Math.max(peak, count);
+        }
+        Assert.assertTrue("peak=" + peak, peak < 2 * jobCount / 30);
+    }
+
+}
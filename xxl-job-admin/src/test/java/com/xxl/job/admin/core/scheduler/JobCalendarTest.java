@@ -0,0 +1,95 @@
+package com.xxl.job.admin.core.scheduler;
+
+import com.xxl.job.admin.core.model.XxlJobCalendar;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.TimeZone;
+
+/**
+ * job calendar bitmap test
+ */
+public class JobCalendarTest {
+
+    private static final TimeZone TIME_ZONE = TimeZone.getTimeZone("Asia/Shanghai");
+
+    private static JobCalendar calendar(String excludeDays, String excludeTimes) {
+        XxlJobCalendar calendar = new XxlJobCalendar();
+        calendar.setId(1);
+        calendar.setExcludeDays(excludeDays);
+        calendar.setExcludeTimes(excludeTimes);
+        return JobCalendar.compile(calendar, TIME_ZONE);
+    }
+
+    private static long time(String localDateTime) {
+        return LocalDateTime.parse(localDateTime).atZone(ZoneId.of(TIME_ZONE.getID())).toInstant().toEpochMilli();
+    }
+
+    @Test
+    public void excludeDays() {
+        JobCalendar calendar = calendar("2020-10-01~2020-10-07,2021-01-01", null);
+        Assert.assertFalse(calendar.isExcluded(time("2020-09-30T23:59:59")));
+        Assert.assertTrue(calendar.isExcluded(time("2020-10-01T00:00:00")));
+        Assert.assertTrue(calendar.isExcluded(time("2020-10-07T23:59:59")));
+        Assert.assertFalse(calendar.isExcluded(time("2020-10-08T00:00:00")));
+        Assert.assertTrue(calendar.isExcluded(time("2021-01-01T12:00:00")));
+
+        Assert.assertEquals(time("2020-10-08T00:00:00"), calendar.nextIncluded(time("2020-10-03T10:00:00")));
+        Assert.assertEquals(time("2020-10-08T09:00:00"), calendar.nextIncluded(time("2020-10-08T09:00:00")));
+    }
+
+    @Test
+    public void excludeTimes() {
+        JobCalendar calendar = calendar(null, "02:00-04:00,23:30-00:30");
+        Assert.assertFalse(calendar.isExcluded(time("2020-10-18T01:59:59")));
+        Assert.assertTrue(calendar.isExcluded(time("2020-10-18T02:00:00")));
+        Assert.assertTrue(calendar.isExcluded(time("2020-10-18T03:59:59")));
+        Assert.assertFalse(calendar.isExcluded(time("2020-10-18T04:00:00")));
+        Assert.assertTrue(calendar.isExcluded(time("2020-10-18T23:45:00")));
+        Assert.assertTrue(calendar.isExcluded(time("2020-10-19T00:15:00")));
+
+        Assert.assertEquals(time("2020-10-18T04:00:00"), calendar.nextIncluded(time("2020-10-18T02:30:00")));
+        Assert.assertEquals(time("2020-10-19T00:30:00"), calendar.nextIncluded(time("2020-10-18T23:31:00")));
+    }
+
+    @Test
+    public void excludeDaysAndTimes() {
+        JobCalendar calendar = calendar("2020-10-19", "00:00-01:00");
+        Assert.assertEquals(time("2020-10-20T01:00:00"), calendar.nextIncluded(time("2020-10-18T23:00:00") + 3600 * 1000));
+
+        Assert.assertEquals(-1, calendar(null, "00:00-12:00,12:00-24:00").nextIncluded(time("2020-10-18T10:00:00")));
+        Assert.assertTrue(calendar(null, "00:00-12:00,12:00-24:00").isAllExcluded());
+    }
+
+    @Test
+    public void spaceAroundItems() {
+        JobCalendar calendar = calendar("2020-10-01 ~ 2020-10-03 , 2021-01-01", "02:00 - 04:00, 23:30-00:30");
+        Assert.assertTrue(calendar.isExcluded(time("2020-10-02T12:00:00")));
+        Assert.assertTrue(calendar.isExcluded(time("2021-01-01T12:00:00")));
+        Assert.assertTrue(calendar.isExcluded(time("2020-10-18T03:00:00")));
+        Assert.assertFalse(calendar.isExcluded(time("2020-10-18T04:00:00")));
+    }
+
+    @Test
+    public void unvalid() {
+        String[][] unvalids = new String[][]{
+                {"2020-13-01", null},
+                {"2020-10-07~2020-10-01", null},
+                {"2010-01-01,2030-01-01", null},
+                {null, "02:00"},
+                {null, "25:00-26:00"},
+                {null, "02:00-02:00"}
+        };
+        for (String[] unvalid : unvalids) {
+            try {
+                calendar(unvalid[0], unvalid[1]);
+                Assert.fail(unvalid[0] + " / " + unvalid[1]);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.xxl.job.admin.core.scheduler;
+
+import com.xxl.job.admin.core.model.XxlJobInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * schedule index test
+ */
+public class JobScheduleIndexTest {
+
+    private static XxlJobInfo job(int id, int triggerStatus, long triggerNextTime) {
+        XxlJobInfo jobInfo = new XxlJobInfo();
+        jobInfo.setId(id);
+        jobInfo.setJobCron("* * * * * ?");
+        jobInfo.setTriggerStatus(triggerStatus);
+        jobInfo.setTriggerNextTime(triggerNextTime);
+        return jobInfo;
+    }
+
+    @Test
+    public void pollDueInOrder() {
+        JobScheduleIndex scheduleIndex = new JobScheduleIndex();
+        Assert.assertTrue(scheduleIndex.put(job(1, 1, 3000)));
+        Assert.assertTrue(scheduleIndex.put(job(2, 1, 1000)));
+        Assert.assertTrue(scheduleIndex.put(job(3, 1, 2000)));
+        Assert.assertTrue(scheduleIndex.put(job(4, 1, 2000)));
+        Assert.assertFalse(scheduleIndex.put(job(5, 0, 500)));
+        Assert.assertEquals(4, scheduleIndex.size());
+        Assert.assertEquals(1000, scheduleIndex.firstNextTime());
+
+        List<XxlJobInfo> dueList = scheduleIndex.pollDue(2000);
+        Assert.assertEquals(3, dueList.size());
+        Assert.assertEquals(2, dueList.get(0).getId());
+        Assert.assertEquals(3, dueList.get(1).getId());
+        Assert.assertEquals(4, dueList.get(2).getId());
+        Assert.assertEquals(1, scheduleIndex.size());
+
+        // put back with next time, dirty
+        for (XxlJobInfo jobInfo : dueList) {
+            jobInfo.setTriggerNextTime(jobInfo.getTriggerNextTime() + 5000);
+            scheduleIndex.reschedule(jobInfo);
+        }
+        Assert.assertEquals(4, scheduleIndex.size());
+        Assert.assertEquals(3000, scheduleIndex.firstNextTime());
+        Assert.assertEquals(3, scheduleIndex.dirtySize());
+        Assert.assertEquals(3, scheduleIndex.drainDirty().size());
+        Assert.assertEquals(0, scheduleIndex.dirtySize());
+    }
+
+    @Test
+    public void putReplaceAndRetain() {
+        JobScheduleIndex scheduleIndex = new JobScheduleIndex();
+        scheduleIndex.put(job(1, 1, 1000));
+        scheduleIndex.put(job(2, 1, 2000));
+        scheduleIndex.put(job(3, 1, 3000));
+
+        // replace reorders
+        scheduleIndex.put(job(3, 1, 500));
+        Assert.assertEquals(3, scheduleIndex.size());
+        Assert.assertEquals(500, scheduleIndex.firstNextTime());
+
+        // stopped
+        scheduleIndex.put(job(1, 0, 0));
+        Assert.assertNull(scheduleIndex.get(1));
+
+        // deleted
+        scheduleIndex.retain(new HashSet<Integer>(Arrays.asList(3)));
+        Assert.assertEquals(1, scheduleIndex.size());
+        Assert.assertEquals(1, scheduleIndex.pollDue(Long.MAX_VALUE).size());
+        Assert.assertEquals(-1, scheduleIndex.firstNextTime());
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.xxl.job.admin.core.scheduler;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * timing wheel test, print firing-jitter distribution
+ */
+public class JobTimingWheelTest {
+
+    @Test
+    public void fireJitter() throws Exception {
+        final int jobCount = 50000;
+        final long windowMs = 3000;
+
+        long start = System.currentTimeMillis() + 200;
+        JobTimingWheel timingWheel = new JobTimingWheel(1, 64, System.currentTimeMillis());
+
+        // push 50k jobs, spread in window (ms resolution)
+        Random random = new Random(42);
+        final long[] fireTimes = new long[jobCount];
+        for (int i = 0; i < jobCount; i++) {
+            fireTimes[i] = start + random.nextInt((int) windowMs);
+            Assert.assertTrue(timingWheel.add(i, fireTimes[i]));
+        }
+        Assert.assertEquals(jobCount, timingWheel.size());
+
+        // fire
+        final long[] jitters = new long[jobCount];
+        final AtomicInteger fired = new AtomicInteger(0);
+        long end = start + windowMs + 2000;
+        while (fired.get() < jobCount && System.currentTimeMillis() < end) {
+            timingWheel.advance(100, new JobTimingWheel.FireHandler() {
+                @Override
+                public void fire(int jobId, long fireTime) {
+                    Assert.assertEquals(fireTimes[jobId], fireTime);
+                    jitters[fired.getAndIncrement()] = System.currentTimeMillis() - fireTime;
+                }
+            });
+        }
+        Assert.assertEquals(jobCount, fired.get());
+        Assert.assertEquals(0, timingWheel.size());
+
+        // jitter distribution
+        Arrays.sort(jitters);
+        System.out.println("jobs=" + jobCount
+                + ", jitter(ms) min=" + jitters[0]
+                + ", p50=" + jitters[jobCount / 2]
+                + ", p90=" + jitters[(int) (jobCount * 0.9)]
+                + ", p99=" + jitters[(int) (jobCount * 0.99)]
+                + ", p999=" + jitters[(int) (jobCount * 0.999)]
+                + ", max=" + jitters[jobCount - 1]);
+
+        // never fire early
+        Assert.assertTrue(jitters[0] >= 0);
+    }
+
+    @Test
+    public void overflowWheel() throws Exception {
+        long now = System.currentTimeMillis();
+        JobTimingWheel timingWheel = new JobTimingWheel(1, 4, now);
+
+        // already due
+        Assert.assertFalse(timingWheel.add(1, now - 1000));
+
+        // level-0 / overflow levels
+        Assert.assertTrue(timingWheel.add(2, now + 3));
+        Assert.assertTrue(timingWheel.add(3, now + 50));
+        Assert.assertTrue(timingWheel.add(4, now + 700));
+
+        final int[] order = new int[3];
+        final AtomicInteger fired = new AtomicInteger(0);
+        while (fired.get() < 3 && System.currentTimeMillis() < now + 3000) {
+            timingWheel.advance(100, new JobTimingWheel.FireHandler() {
+                @Override
+                public void fire(int jobId, long fireTime) {
+                    Assert.assertTrue(System.currentTimeMillis() >= fireTime);
+                    order[fired.getAndIncrement()] = jobId;
+                }
+            });
+        }
+        Assert.assertArrayEquals(new int[]{2, 3, 4}, order);
+    }
+
+}
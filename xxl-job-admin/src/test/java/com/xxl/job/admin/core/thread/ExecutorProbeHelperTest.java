@@ -0,0 +1,131 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.conf.AdminConfigTestHelper;
+import com.xxl.job.core.biz.model.ReturnT;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * executor probe test
+ */
+public class ExecutorProbeHelperTest {
+
+    private static final String DOWN = "http://10.0.0.1:9999/";
+    private static final String UP = "http://10.0.0.2:9999/";
+
+    @BeforeClass
+    public static void init() throws Exception {
+        AdminConfigTestHelper.install("triggerProbeTimeout", 500, "triggerProbeCacheTtl", 2000);
+
+        ExecutorProbeHelper.getInstance().start();
+    }
+
+    @AfterClass
+    public static void destroy() throws Exception {
+        ExecutorProbeHelper.getInstance().toStop();
+        AdminConfigTestHelper.restore();
+    }
+
+    /**
+     * address except UP hangs until timeout (client timeout 3s, or given probe timeout), UP reply at once
+     */
+    private static ExecutorProbeHelper.Probe probe(final AtomicInteger probeCount) {
+        return probe(probeCount, new AtomicInteger());
+    }
+
+    private static ExecutorProbeHelper.Probe probe(final AtomicInteger probeCount, final AtomicInteger probeEndCount) {
+        return new ExecutorProbeHelper.Probe() {
+            @Override
+            public ReturnT<String> probe(String address, int timeoutMillis) throws Exception {
+                probeCount.incrementAndGet();
+                try {
+                    if (!UP.equals(address)) {
+                        TimeUnit.MILLISECONDS.sleep(Math.min(3000, timeoutMillis));
+                        return new ReturnT<String>(ReturnT.FAIL_CODE, "read timeout");
+                    }
+                    return ReturnT.SUCCESS;
+                } finally {
+                    probeEndCount.incrementAndGet();
+                }
+            }
+        };
+    }
+
+    @Test
+    public void downAddressNotStall() {
+        AtomicInteger probeCount = new AtomicInteger();
+        List<String> addressList = Arrays.asList(DOWN, DOWN.replace(".1:", ".3:"), UP);
+
+        long start = System.currentTimeMillis();
+        ReturnT<String> result = ExecutorProbeHelper.getInstance().probeFirst(addressList, "stall", "beat", false, probe(probeCount));
+        long cost = System.currentTimeMillis() - start;
+
+        Assert.assertEquals(ReturnT.SUCCESS_CODE, result.getCode());
+        Assert.assertEquals(UP, result.getContent());
+        Assert.assertTrue("cost: " + cost, cost < 500);
+        Assert.assertEquals(3, probeCount.get());
+    }
+
+    @Test
+    public void failWhenDeadline() {
+        AtomicInteger probeCount = new AtomicInteger();
+        List<String> addressList = Arrays.asList(DOWN);
+
+        long start = System.currentTimeMillis();
+        ReturnT<String> result = ExecutorProbeHelper.getInstance().probeFirst(addressList, "deadline", "beat", false, probe(probeCount));
+        long cost = System.currentTimeMillis() - start;
+
+        Assert.assertEquals(ReturnT.FAIL_CODE, result.getCode());
+        Assert.assertTrue(result.getMsg().contains("probe timeout"));
+        Assert.assertTrue("cost: " + cost, cost >= 500 && cost < 1500);
+    }
+
+    @Test
+    public void hungProbeGiveUpAtDeadline() throws Exception {
+        AtomicInteger probeCount = new AtomicInteger();
+        AtomicInteger probeEndCount = new AtomicInteger();
+        List<String> addressList = Arrays.asList(DOWN);
+
+        ReturnT<String> result = ExecutorProbeHelper.getInstance().probeFirst(addressList, "giveUp", "beat", false, probe(probeCount, probeEndCount));
+        TimeUnit.MILLISECONDS.sleep(200);
+
+        // probe thread released soon after deadline, not held until client timeout
+        Assert.assertEquals(ReturnT.FAIL_CODE, result.getCode());
+        Assert.assertEquals(1, probeEndCount.get());
+    }
+
+    @Test
+    public void cachedReplyNotProbeAgain() {
+        AtomicInteger probeCount = new AtomicInteger();
+        List<String> addressList = Arrays.asList(DOWN, UP);
+
+        for (int i = 0; i < 100; i++) {
+            ReturnT<String> result = ExecutorProbeHelper.getInstance().probeFirst(addressList, "cache", "beat", false, probe(probeCount));
+            Assert.assertEquals(UP, result.getContent());
+        }
+
+        // down address probe in-flight, shared by all triggers
+        Assert.assertEquals(2, probeCount.get());
+    }
+
+    @Test
+    public void consumedReplyProbeAgain() {
+        AtomicInteger probeCount = new AtomicInteger();
+        List<String> addressList = Arrays.asList(UP);
+
+        for (int i = 0; i < 3; i++) {
+            ReturnT<String> result = ExecutorProbeHelper.getInstance().probeFirst(addressList, "idleBeat#1", "idleBeat", true, probe(probeCount));
+            Assert.assertEquals(UP, result.getContent());
+        }
+
+        Assert.assertEquals(3, probeCount.get());
+    }
+
+}
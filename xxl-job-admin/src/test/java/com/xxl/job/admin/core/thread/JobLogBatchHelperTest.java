@@ -0,0 +1,134 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.conf.AdminConfigTestHelper;
+import com.xxl.job.admin.core.model.XxlJobLog;
+import com.xxl.job.admin.dao.XxlJobLogDao;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * job log batch write test, dao in memory
+ */
+public class JobLogBatchHelperTest {
+
+    private static final Map<Long, Integer> rowMap = new ConcurrentHashMap<>();     // log id -> trigger code
+    private static final AtomicInteger insertCount = new AtomicInteger();
+    private static final AtomicInteger updateCount = new AtomicInteger();
+
+    @BeforeClass
+    public static void init() throws Exception {
+        XxlJobLogDao xxlJobLogDao = (XxlJobLogDao) Proxy.newProxyInstance(XxlJobLogDao.class.getClassLoader(), new Class[]{XxlJobLogDao.class}, new InvocationHandler() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("saveBatch".equals(method.getName())) {
+                    insertCount.incrementAndGet();
+                    TimeUnit.MILLISECONDS.sleep(20);        // slow insert, concurrent triggers queued meanwhile
+                    for (XxlJobLog jobLog : (List<XxlJobLog>) args[0]) {
+                        if (jobLog.getId() < 0) {
+                            throw new IllegalStateException("bad row");
+                        }
+                        rowMap.put(jobLog.getId(), jobLog.getTriggerCode());
+                    }
+                    return ((List) args[0]).size();
+                } else if ("updateTriggerResultBatch".equals(method.getName())) {
+                    updateCount.incrementAndGet();
+                    for (XxlJobLog jobLog : (List<XxlJobLog>) args[0]) {
+                        Assert.assertTrue("update before insert", rowMap.containsKey(jobLog.getId()));
+                        rowMap.put(jobLog.getId(), jobLog.getTriggerCode());
+                    }
+                    return ((List) args[0]).size();
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+
+        AdminConfigTestHelper.install("xxlJobLogDao", xxlJobLogDao);
+
+        JobLogBatchHelper.getInstance().start();
+    }
+
+    @AfterClass
+    public static void destroy() throws Exception {
+        JobLogBatchHelper.getInstance().toStop();
+        AdminConfigTestHelper.restore();
+    }
+
+    private static XxlJobLog jobLog(long id) {
+        XxlJobLog jobLog = new XxlJobLog();
+        jobLog.setId(id);
+        return jobLog;
+    }
+
+    @Test
+    public void insertBeforeRunAndUpdateAfter() throws Exception {
+        final int count = 100;
+        final CountDownLatch latch = new CountDownLatch(count);
+        final AtomicInteger insertedCount = new AtomicInteger();
+        final int insertCountBefore = insertCount.get();
+        for (int i = 0; i < count; i++) {
+            final long id = 1000 + i;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    XxlJobLog jobLog = jobLog(id);
+                    if (JobLogBatchHelper.getInstance().insert(jobLog)) {
+                        // row exists when executor run
+                        if (rowMap.containsKey(id)) {
+                            insertedCount.incrementAndGet();
+                        }
+                        jobLog.setTriggerCode(200);
+                        JobLogBatchHelper.getInstance().update(jobLog);
+                    }
+                    latch.countDown();
+                }
+            }).start();
+        }
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        JobLogBatchHelper.getInstance().flush();
+
+        Assert.assertEquals(count, insertedCount.get());
+        int batchCount = insertCount.get() - insertCountBefore;
+        Assert.assertTrue("not batched: " + batchCount, batchCount < count / 2);
+        for (int i = 0; i < count; i++) {
+            Assert.assertEquals(200, (int) rowMap.get(1000L + i));
+        }
+        Assert.assertTrue(updateCount.get() <= count);
+    }
+
+    @Test
+    public void insertAllTogether() {
+        List<XxlJobLog> shardLogList = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            shardLogList.add(jobLog(i!=250?5000 + i:-2));
+        }
+
+        boolean[] written = JobLogBatchHelper.getInstance().insertAll(shardLogList);
+
+        // bad row fails alone, others written
+        for (int i = 0; i < written.length; i++) {
+            Assert.assertEquals(i != 250, written[i]);
+            Assert.assertEquals(i != 250, rowMap.containsKey(shardLogList.get(i).getId()));
+        }
+    }
+
+    @Test
+    public void badRowNotWritten() {
+        Assert.assertFalse(JobLogBatchHelper.getInstance().insert(jobLog(-1)));
+        Assert.assertTrue(JobLogBatchHelper.getInstance().insert(jobLog(1)));
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.xxl.job.admin.core.thread;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * job trigger fair queue test
+ */
+public class JobTriggerFairQueueTest {
+
+    /**
+     * executor holds tasks, run by test one by one
+     */
+    private static class ManualExecutor implements Executor {
+        private final LinkedList<Runnable> taskList = new LinkedList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            taskList.add(command);
+        }
+
+        private boolean runOne() {
+            Runnable task = taskList.pollFirst();
+            if (task == null) {
+                return false;
+            }
+            task.run();
+            return true;
+        }
+    }
+
+    private static Runnable record(final List<Integer> runList, final int groupId) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                runList.add(groupId);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int groupRunning(JobTriggerFairQueue fairQueue, int groupId) {
+        Map<Integer, Object> groupStats = (Map<Integer, Object>) fairQueue.getQueueStats().get("groups");
+        return (Integer) ((Map<String, Object>) groupStats.get(groupId)).get("running");
+    }
+
+    @Test
+    public void groupMax() {
+        ManualExecutor executor = new ManualExecutor();
+        JobTriggerFairQueue fairQueue = new JobTriggerFairQueue(10, 1, 2, null, executor);
+        List<Integer> runList = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            fairQueue.execute(1, record(runList, 1));
+        }
+        fairQueue.execute(2, record(runList, 2));
+
+        // group 1 holds at most 2 threads, group 2 not blocked
+        Assert.assertEquals(3, executor.taskList.size());
+
+        while (executor.runOne()) {
+            Assert.assertTrue(groupRunning(fairQueue, 1) <= 2);
+        }
+        Assert.assertEquals(6, runList.size());
+        Assert.assertEquals(0, groupRunning(fairQueue, 1));
+    }
+
+    @Test
+    public void weighted() {
+        Map<Integer, int[]> groupConfMap = new HashMap<>();
+        groupConfMap.put(1, new int[]{3, 10});
+        ManualExecutor executor = new ManualExecutor();
+        JobTriggerFairQueue fairQueue = new JobTriggerFairQueue(1, 1, 10, groupConfMap, executor);
+        List<Integer> runList = new ArrayList<>();
+
+        for (int i = 0; i < 20; i++) {
+            fairQueue.execute(1, record(runList, 1));
+            fairQueue.execute(2, record(runList, 2));
+        }
+        for (int i = 0; i < 16; i++) {
+            Assert.assertTrue(executor.runOne());
+        }
+
+        // group 1 : group 2 = 3 : 1
+        int group1Count = 0;
+        for (Integer groupId : runList) {
+            if (groupId == 1) {
+                group1Count++;
+            }
+        }
+        Assert.assertEquals(16, runList.size());
+        Assert.assertEquals(12, group1Count);
+
+        // drain all
+        while (executor.runOne()) {
+        }
+        Assert.assertEquals(40, runList.size());
+    }
+
+    @Test
+    public void bulkhead() {
+        ManualExecutor executor = new ManualExecutor();
+        JobTriggerFairQueue fairQueue = new JobTriggerFairQueue(1, 1, 1, null, executor);
+        List<Integer> runList = new ArrayList<>();
+
+        // group 1 fills its queue (1 running)
+        for (int i = 0; i < JobTriggerFairQueue.GROUP_QUEUE_CAPACITY + 1; i++) {
+            fairQueue.execute(1, record(runList, 1));
+        }
+        try {
+            fairQueue.execute(1, record(runList, 1));
+            Assert.fail();
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+
+        // group 2 still accepted, and served in the next round
+        fairQueue.execute(2, record(runList, 2));
+        for (int i = 0; i < 3; i++) {
+            executor.runOne();
+        }
+        Assert.assertTrue(runList.contains(2));
+    }
+
+    @Test
+    public void parseGroupConf() {
+        Map<Integer, int[]> groupConfMap = JobTriggerFairQueue.parseGroupConf("1:2:50, 3:1:10");
+        Assert.assertEquals(2, groupConfMap.size());
+        Assert.assertArrayEquals(new int[]{2, 50}, groupConfMap.get(1));
+        Assert.assertArrayEquals(new int[]{1, 10}, groupConfMap.get(3));
+        Assert.assertTrue(JobTriggerFairQueue.parseGroupConf("").isEmpty());
+
+        for (String unvalid : new String[]{"1:2", "a:1:1", "1:0:1"}) {
+            try {
+                JobTriggerFairQueue.parseGroupConf(unvalid);
+                Assert.fail(unvalid);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+}
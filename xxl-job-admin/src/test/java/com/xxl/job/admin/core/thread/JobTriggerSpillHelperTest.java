@@ -0,0 +1,78 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.conf.AdminConfigTestHelper;
+import com.xxl.job.admin.core.trigger.TriggerTypeEnum;
+import com.xxl.job.admin.core.util.JacksonUtil;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * trigger spill replay test, left segment of last run
+ */
+public class JobTriggerSpillHelperTest {
+
+    private static File spillDir;
+
+    @BeforeClass
+    public static void init() throws Exception {
+        spillDir = Files.createTempDirectory("xxl-job-spill").toFile();
+        AdminConfigTestHelper.install("triggerPoolSpillPath", spillDir.getAbsolutePath(),
+                "triggerPoolSpillQps", 1000,
+                "triggerPoolSpillCronMaxAge", 60);
+    }
+
+    @AfterClass
+    public static void destroy() throws Exception {
+        JobTriggerSpillHelper.getInstance().toStop();
+        AdminConfigTestHelper.restore();
+        File[] files = spillDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                Files.delete(file.toPath());
+            }
+        }
+        Files.delete(spillDir.toPath());
+    }
+
+    @Test
+    public void replayFromOffsetAndDropExpired() throws Exception {
+        // left segment: 5 cron triggers spilled 1 hour ago, first 2 replayed before crash
+        List<String> lineList = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            JobTriggerSpillHelper.SpillTrigger spillTrigger = new JobTriggerSpillHelper.SpillTrigger();
+            spillTrigger.setJobId(i + 1);
+            spillTrigger.setTriggerType(TriggerTypeEnum.CRON);
+            spillTrigger.setFailRetryCount(-1);
+            spillTrigger.setSpillTime(System.currentTimeMillis() - 60 * 60 * 1000);
+            lineList.add(JacksonUtil.writeValueAsString(spillTrigger));
+        }
+        File segment = new File(spillDir, JobTriggerSpillHelper.SEGMENT_PREFIX + "1-000001" + JobTriggerSpillHelper.SEGMENT_SUFFIX);
+        File offset = new File(segment.getPath() + JobTriggerSpillHelper.OFFSET_SUFFIX);
+        Files.write(segment.toPath(), lineList, StandardCharsets.UTF_8);
+        Files.write(offset.toPath(), "2".getBytes(StandardCharsets.UTF_8));
+
+        JobTriggerSpillHelper.getInstance().start();
+        for (int i = 0; i < 50 && segment.exists(); i++) {
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+
+        // replayed 2 skipped, left 3 expired (never reach trigger pool)
+        Map<String, Object> stats = JobTriggerSpillHelper.getInstance().getSpillStats();
+        Assert.assertFalse(segment.exists());
+        Assert.assertFalse(offset.exists());
+        Assert.assertEquals(3L, stats.get("expiredCount"));
+        Assert.assertEquals(0L, stats.get("pendingCount"));
+        Assert.assertEquals(0L, stats.get("replayCount"));
+    }
+
+}
@@ -0,0 +1,198 @@
+package com.xxl.job.admin.core.thread;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * job trigger virtual pool test, benchmark runs on JDK 21+ only
+ */
+public class JobTriggerVirtualPoolTest {
+
+    @Test
+    public void groupMax() throws Exception {
+        JobTriggerVirtualPool virtualPool = new JobTriggerVirtualPool(Executors.newCachedThreadPool(), 3);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(20);
+
+        for (int i = 0; i < 20; i++) {
+            virtualPool.execute(1, new Runnable() {
+                @Override
+                public void run() {
+                    int now = running.incrementAndGet();
+                    maxRunning.accumulateAndGet(now, Math::max);
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        // ignore
+                    }
+                    running.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+
+        // group 1 blocked at its cap, group 2 not affected
+        final CountDownLatch group2Done = new CountDownLatch(1);
+        virtualPool.execute(2, new Runnable() {
+            @Override
+            public void run() {
+                group2Done.countDown();
+            }
+        });
+        Assert.assertTrue(group2Done.await(5, TimeUnit.SECONDS));
+
+        release.countDown();
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(3, maxRunning.get());
+        virtualPool.shutdownNow();
+    }
+
+    @Test
+    public void reject() throws Exception {
+        JobTriggerVirtualPool virtualPool = new JobTriggerVirtualPool(Executors.newCachedThreadPool(), 1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Runnable blockTask = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+            }
+        };
+
+        virtualPool.execute(1, blockTask);
+        for (int i = 0; i < JobTriggerVirtualPool.GROUP_PENDING_MAX - 1; i++) {
+            virtualPool.execute(1, blockTask);
+        }
+        // running one may not have taken its permit yet: fill up to the pending limit
+        try {
+            for (int i = 0; i < 2; i++) {
+                virtualPool.execute(1, blockTask);
+            }
+            Assert.fail();
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+
+        release.countDown();
+        virtualPool.shutdownNow();
+    }
+
+    // ---------------------- benchmark ----------------------
+
+    private static final int BENCH_GROUP = 4;               // group 0: slow executor
+    private static final int BENCH_TRIGGER = 4000;
+    private static final long SLOW_COST = 1000;             // ms
+    private static final long FAST_COST = 10;               // ms
+
+    /**
+     * classic fast pool vs virtual thread pool, under a slow executor (group 0)
+     */
+    @Test
+    public void benchmark() throws Exception {
+        ExecutorService virtualThreadExecutor = JobTriggerVirtualPool.newVirtualThreadExecutor();
+        Assume.assumeNotNull(virtualThreadExecutor);        // JDK 21+
+
+        // classic: same as fast trigger pool
+        final ThreadPoolExecutor classicPool = new ThreadPoolExecutor(10, 200, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(1000));
+        String classic = bench("classic", new BiConsumer<Integer, Runnable>() {
+            @Override
+            public void accept(Integer groupId, Runnable task) {
+                classicPool.execute(task);
+            }
+        });
+        classicPool.shutdownNow();
+
+        final JobTriggerVirtualPool virtualPool = new JobTriggerVirtualPool(virtualThreadExecutor, 100);
+        String virtual = bench("virtual", new BiConsumer<Integer, Runnable>() {
+            @Override
+            public void accept(Integer groupId, Runnable task) {
+                virtualPool.execute(groupId, task);
+            }
+        });
+        virtualPool.shutdownNow();
+
+        System.out.println(classic);
+        System.out.println(virtual);
+    }
+
+    private static String bench(String name, BiConsumer<Integer, Runnable> pool) throws Exception {
+        final long[] latency = new long[BENCH_TRIGGER];
+        Arrays.fill(latency, -1);
+        final CountDownLatch done = new CountDownLatch(BENCH_TRIGGER);
+        int rejectCount = 0;
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < BENCH_TRIGGER; i++) {
+            final int index = i;
+            final int groupId = i % BENCH_GROUP;
+            final long submitTime = System.currentTimeMillis();
+            try {
+                pool.accept(groupId, new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            // simulated blocking trigger, group 0 executor is slow
+                            TimeUnit.MILLISECONDS.sleep(groupId==0?SLOW_COST:FAST_COST);
+                        } catch (InterruptedException e) {
+                            // ignore
+                        }
+                        latency[index] = System.currentTimeMillis() - submitTime;
+                        done.countDown();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejectCount++;
+                done.countDown();
+            }
+            if (i % 2 == 1) {
+                TimeUnit.MILLISECONDS.sleep(1);     // ~2000 trigger/s
+            }
+        }
+        done.await(120, TimeUnit.SECONDS);
+        long cost = System.currentTimeMillis() - start;
+
+        long[] fastLatency = new long[BENCH_TRIGGER];
+        int fastCount = 0;
+        long[] allLatency = new long[BENCH_TRIGGER];
+        int allCount = 0;
+        for (int i = 0; i < BENCH_TRIGGER; i++) {
+            if (latency[i] < 0) {
+                continue;
+            }
+            allLatency[allCount++] = latency[i];
+            if (i % BENCH_GROUP != 0) {
+                fastLatency[fastCount++] = latency[i];
+            }
+        }
+        return String.format("%-8s done:%d, reject:%d, cost:%dms, throughput:%.0f/s, p99:%dms, p99(fast groups):%dms",
+                name, allCount, rejectCount, cost, allCount * 1000.0 / cost,
+                p99(allLatency, allCount), p99(fastLatency, fastCount));
+    }
+
+    private static long p99(long[] values, int count) {
+        if (count == 0) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(values, count);
+        Arrays.sort(sorted);
+        return sorted[Math.min(count - 1, (int) Math.ceil(count * 0.99) - 1)];
+    }
+
+}
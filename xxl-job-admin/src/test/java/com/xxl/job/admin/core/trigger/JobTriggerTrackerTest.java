@@ -0,0 +1,58 @@
+package com.xxl.job.admin.core.trigger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * job trigger tracker test
+ */
+public class JobTriggerTrackerTest {
+
+    @Test
+    public void hysteresis() {
+        JobTriggerTracker tracker = new JobTriggerTracker();
+        Assert.assertFalse(tracker.isSlow(1));
+
+        // enter slow
+        tracker.record(1, 100, true);
+        Assert.assertFalse(tracker.isSlow(1));
+        for (int i = 0; i < 5; i++) {
+            tracker.record(1, 3000, false);
+        }
+        Assert.assertTrue(tracker.isSlow(1));
+
+        // one fast trigger not enough to leave, stays slow between the thresholds
+        tracker.record(1, 10, true);
+        Assert.assertTrue(tracker.isSlow(1));
+
+        // leave slow
+        for (int i = 0; i < 20; i++) {
+            tracker.record(1, 10, true);
+        }
+        Assert.assertFalse(tracker.isSlow(1));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void manyJobs() {
+        JobTriggerTracker tracker = new JobTriggerTracker();
+        for (int jobId = 1; jobId <= 10000; jobId++) {
+            tracker.record(jobId, jobId % 100 == 0 ? 1000 : 10, true);
+        }
+        for (int jobId = 1; jobId <= 10000; jobId++) {
+            Assert.assertEquals(jobId % 100 == 0, tracker.isSlow(jobId));
+        }
+        Assert.assertFalse(tracker.isSlow(10001));
+
+        Map<String, Object> stats = tracker.getTrackerStats(10);
+        Assert.assertEquals(10000, stats.get("jobCount"));
+        Assert.assertEquals(100, stats.get("slowCount"));
+        List<Map<String, Object>> jobs = (List<Map<String, Object>>) stats.get("jobs");
+        Assert.assertEquals(10, jobs.size());
+        Assert.assertEquals(1000L, jobs.get(0).get("cost"));
+    }
+
+}
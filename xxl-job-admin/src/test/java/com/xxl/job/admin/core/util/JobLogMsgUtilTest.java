@@ -0,0 +1,164 @@
+package com.xxl.job.admin.core.util;
+
+import com.xxl.job.admin.core.conf.AdminConfigTestHelper;
+import com.xxl.job.admin.core.model.XxlJobLog;
+import com.xxl.job.admin.core.route.ExecutorRouteStrategyEnum;
+import com.xxl.job.admin.core.trigger.TriggerTypeEnum;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.enums.ExecutorBlockStrategyEnum;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class JobLogMsgUtilTest {
+
+    @BeforeClass
+    public static void initI18n() throws Exception {
+        // i18n without spring context
+        AdminConfigTestHelper.install("i18n", "zh_CN");
+    }
+
+    @AfterClass
+    public static void restoreConfig() throws Exception {
+        AdminConfigTestHelper.restore();
+    }
+
+    @Test
+    public void shouldBuildCompactTriggerMsg() {
+        //given
+        StringBuilder longMsg = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            longMsg.append("e");
+        }
+
+        //when
+        String triggerMsg = JobLogMsgUtil.buildTriggerMsg(TriggerTypeEnum.CRON, "127.0.0.1", 0, 200, 3,
+                ExecutorRouteStrategyEnum.ROUND, null, ExecutorBlockStrategyEnum.SERIAL_EXECUTION, 0, 1,
+                null, new ReturnT<String>(ReturnT.FAIL_CODE, longMsg.toString()));
+
+        //then
+        assertTrue(triggerMsg.startsWith(JobLogMsgUtil.MSG_PREFIX));
+        assertFalse(triggerMsg.contains("<br>"));
+        Map result = JacksonUtil.readValue(triggerMsg, Map.class);
+        assertEquals("CRON", result.get("type"));
+        assertEquals(3, result.get("regIndex"));
+        assertEquals(ReturnT.FAIL_CODE, result.get("code"));
+        assertEquals(JobLogMsgUtil.MSG_MAX, ((String) result.get("msg")).length());
+        assertFalse(result.containsKey("shard"));
+    }
+
+    @Test
+    public void shouldMarkRetry() {
+        //given
+        String triggerMsg = JobLogMsgUtil.buildTriggerMsg(TriggerTypeEnum.CRON, "127.0.0.1", 0, 1, 0,
+                ExecutorRouteStrategyEnum.FIRST, null, ExecutorBlockStrategyEnum.SERIAL_EXECUTION, 0, 1,
+                null, ReturnT.SUCCESS);
+
+        //when
+        String retriedMsg = JobLogMsgUtil.markRetry(triggerMsg);
+
+        //then
+        assertTrue(retriedMsg.startsWith(JobLogMsgUtil.MSG_PREFIX));
+        assertEquals(Boolean.TRUE, JacksonUtil.readValue(retriedMsg, Map.class).get("retried"));
+    }
+
+    @Test
+    public void shouldRenderTriggerMsg() {
+        //given
+        XxlJobLog jobLog = new XxlJobLog();
+        jobLog.setExecutorAddress("http://127.0.0.1:9999/");
+        jobLog.setTriggerMsg(JobLogMsgUtil.markRetry(JobLogMsgUtil.buildTriggerMsg(TriggerTypeEnum.MANUAL, "127.0.0.1", 0, 2, 1,
+                ExecutorRouteStrategyEnum.SHARDING_BROADCAST, "1/2", ExecutorBlockStrategyEnum.SERIAL_EXECUTION, 0, 0,
+                null, new ReturnT<String>(ReturnT.FAIL_CODE, "run fail"))));
+
+        //when
+        String html = JobLogMsgUtil.renderTriggerMsg(jobLog);
+
+        //then
+        assertTrue(html.contains(TriggerTypeEnum.MANUAL.getTitle()));
+        assertTrue(html.contains(ExecutorRouteStrategyEnum.SHARDING_BROADCAST.getTitle() + "(1/2)"));
+        assertTrue(html.contains("http://127.0.0.1:9999/ (2/2)"));
+        assertTrue(html.contains("msg：run fail"));
+        assertTrue(html.contains(I18nUtil.getString("jobconf_trigger_type_retry")));
+    }
+
+    @Test
+    public void shouldRenderLegacyMsgAsItIs() {
+        //given
+        XxlJobLog jobLog = new XxlJobLog();
+        jobLog.setTriggerMsg("legacy<br>trigger msg");
+        jobLog.setHandleMsg("kill by man");
+
+        //then
+        assertEquals("legacy<br>trigger msg", JobLogMsgUtil.renderTriggerMsg(jobLog));
+        assertEquals("kill by man", JobLogMsgUtil.renderHandleMsg(jobLog));
+    }
+
+    @Test
+    public void shouldBuildAndRenderHandleMsg() {
+        //given
+        XxlJobLog jobLog = new XxlJobLog();
+        jobLog.setHandleMsg(JobLogMsgUtil.buildHandleMsg(null, "handle fail", null));
+
+        //then
+        assertTrue(jobLog.getHandleMsg().startsWith(JobLogMsgUtil.MSG_PREFIX));
+        assertEquals("handle fail", JobLogMsgUtil.renderHandleMsg(jobLog));
+
+        //when child triggered
+        jobLog.setHandleMsg(JobLogMsgUtil.buildHandleMsg(null, "handle success", "2,x"));
+
+        //then
+        String html = JobLogMsgUtil.renderHandleMsg(jobLog);
+        assertTrue(html.startsWith("handle success"));
+        assertTrue(html.contains(I18nUtil.getString("jobconf_trigger_child_run")));
+        assertTrue(html.contains("2/2 [任务ID=x]"));
+    }
+
+    @Test
+    public void shouldNestCompactPrevHandleMsg() {
+        //given
+        StringBuilder longMsg = new StringBuilder();
+        for (int i = 0; i < 1500; i++) {
+            longMsg.append("e");
+        }
+        String prevHandleMsg = JobLogMsgUtil.buildHandleMsg("kill by man", longMsg.toString(), null);
+
+        //when
+        XxlJobLog jobLog = new XxlJobLog();
+        jobLog.setHandleMsg(JobLogMsgUtil.buildHandleMsg(prevHandleMsg, "handle fail", null));
+
+        //then
+        Map result = JacksonUtil.readValue(jobLog.getHandleMsg(), Map.class);
+        assertTrue(result.get("prev") instanceof Map);
+        assertEquals("kill by man<br>" + longMsg + "<br>handle fail", JobLogMsgUtil.renderHandleMsg(jobLog));
+    }
+
+    @Test
+    public void shouldDropOldestPrevHandleMsgOverTotalMax() {
+        //given
+        StringBuilder longMsg = new StringBuilder();
+        for (int i = 0; i < JobLogMsgUtil.HANDLE_MSG_MAX; i++) {
+            longMsg.append("e");
+        }
+
+        //when: callback on the same log again and again
+        String handleMsg = null;
+        for (int i = 0; i < 20; i++) {
+            handleMsg = JobLogMsgUtil.buildHandleMsg(handleMsg, i + longMsg.toString(), null);
+        }
+
+        //then: bounded, latest kept, oldest dropped
+        assertTrue(handleMsg.length() <= JobLogMsgUtil.HANDLE_MSG_TOTAL_MAX);
+        XxlJobLog jobLog = new XxlJobLog();
+        jobLog.setHandleMsg(handleMsg);
+        String html = JobLogMsgUtil.renderHandleMsg(jobLog);
+        assertTrue(html.startsWith(JobLogMsgUtil.PREV_DROPPED + "<br>"));
+        assertTrue(html.endsWith("19" + longMsg.substring(0, JobLogMsgUtil.HANDLE_MSG_MAX - 2)));
+        assertFalse(html.contains("<br>0e"));
+    }
+
+}
@@ -8,6 +8,9 @@ import com.xxl.job.core.glue.GlueTypeEnum;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * executor api test
  *
@@ -71,6 +74,35 @@ public class ExecutorBizTest {
         Assert.assertNotNull(retval);
     }
 
+    @Test
+    public void runBatch(){
+        ExecutorBiz executorBiz = new ExecutorBizClient(addressUrl, accessToken);
+
+        // trigger data
+        List<TriggerParam> triggerParamList = new ArrayList<TriggerParam>();
+        for (int i = 1; i <= 3; i++) {
+            final TriggerParam triggerParam = new TriggerParam();
+            triggerParam.setJobId(i);
+            triggerParam.setExecutorHandler("demoJobHandler");
+            triggerParam.setExecutorParams(null);
+            triggerParam.setExecutorBlockStrategy(ExecutorBlockStrategyEnum.COVER_EARLY.name());
+            triggerParam.setGlueType(GlueTypeEnum.BEAN.name());
+            triggerParam.setGlueSource(null);
+            triggerParam.setGlueUpdatetime(System.currentTimeMillis());
+            triggerParam.setLogId(i);
+            triggerParam.setLogDateTime(System.currentTimeMillis());
+            triggerParamList.add(triggerParam);
+        }
+
+        // Act
+        final ReturnT<List<ReturnT<String>>> retval = executorBiz.runBatch(triggerParamList);
+
+        // Assert result
+        Assert.assertNotNull(retval);
+        Assert.assertEquals(200, retval.getCode());
+        Assert.assertEquals(triggerParamList.size(), retval.getContent().size());
+    }
+
     @Test
     public void kill(){
         ExecutorBiz executorBiz = new ExecutorBizClient(addressUrl, accessToken);
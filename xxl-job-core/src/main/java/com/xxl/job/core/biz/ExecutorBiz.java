@@ -2,6 +2,9 @@ package com.xxl.job.core.biz;
 
 import com.xxl.job.core.biz.model.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Created by xuxueli on 17/3/1.
  */
@@ -13,6 +16,18 @@ public interface ExecutorBiz {
      */
     public ReturnT<String> beat();
 
+    /**
+     * beat, give up after timeout
+     *
+     *      default: beat without own timeout (implementation without it keeps working)
+     *
+     * @param timeoutMillis
+     * @return
+     */
+    public default ReturnT<String> beat(int timeoutMillis) {
+        return beat();
+    }
+
     /**
      * idle beat
      *
@@ -21,6 +36,19 @@ public interface ExecutorBiz {
      */
     public ReturnT<String> idleBeat(IdleBeatParam idleBeatParam);
 
+    /**
+     * idle beat, give up after timeout
+     *
+     *      default: idle beat without own timeout (implementation without it keeps working)
+     *
+     * @param idleBeatParam
+     * @param timeoutMillis
+     * @return
+     */
+    public default ReturnT<String> idleBeat(IdleBeatParam idleBeatParam, int timeoutMillis) {
+        return idleBeat(idleBeatParam);
+    }
+
     /**
      * run
      * @param triggerParam
@@ -28,6 +56,30 @@ public interface ExecutorBiz {
      */
     public ReturnT<String> run(TriggerParam triggerParam);
 
+    /**
+     * run batch, result of each trigger in the same order
+     *
+     *      default: run one by one, one fail not break others (implementation without batch api keeps working)
+     *
+     * @param triggerParamList
+     * @return
+     */
+    public default ReturnT<List<ReturnT<String>>> runBatch(List<TriggerParam> triggerParamList) {
+        List<ReturnT<String>> resultList = new ArrayList<ReturnT<String>>();
+        if (triggerParamList != null) {
+            for (TriggerParam triggerParam : triggerParamList) {
+                ReturnT<String> result;
+                try {
+                    result = run(triggerParam);
+                } catch (Exception e) {
+                    result = new ReturnT<String>(ReturnT.FAIL_CODE, "run error:" + e.getMessage());
+                }
+                resultList.add(result);
+            }
+        }
+        return new ReturnT<List<ReturnT<String>>>(resultList);
+    }
+
     /**
      * kill
      * @param killParam
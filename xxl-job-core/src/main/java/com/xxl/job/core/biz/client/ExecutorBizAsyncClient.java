@@ -0,0 +1,40 @@
+package com.xxl.job.core.biz.client;
+
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.biz.model.TriggerParam;
+import com.xxl.job.core.util.XxlJobAsyncHttpClient;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * executor api, async (run / runBatch only, the hot path of admin)
+ */
+public class ExecutorBizAsyncClient {
+
+    public ExecutorBizAsyncClient(String addressUrl, String accessToken, XxlJobAsyncHttpClient httpClient) {
+        this.addressUrl = addressUrl;
+        this.accessToken = accessToken;
+        this.httpClient = httpClient;
+
+        // valid
+        if (!this.addressUrl.endsWith("/")) {
+            this.addressUrl = this.addressUrl + "/";
+        }
+    }
+
+    private String addressUrl ;
+    private String accessToken;
+    private XxlJobAsyncHttpClient httpClient;
+    private int timeout = 3;
+
+
+    public CompletableFuture<ReturnT<String>> run(TriggerParam triggerParam) {
+        return httpClient.postBody(addressUrl + "run", accessToken, timeout, triggerParam, String.class);
+    }
+
+    public CompletableFuture<ReturnT<List<ReturnT<String>>>> runBatch(List<TriggerParam> triggerParamList) {
+        return httpClient.postBody(addressUrl + "runBatch", accessToken, timeout, triggerParamList, ExecutorBizClient.RUN_BATCH_RESULT_TYPE);
+    }
+
+}
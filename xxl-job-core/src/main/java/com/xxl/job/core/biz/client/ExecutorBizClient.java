@@ -2,8 +2,12 @@ package com.xxl.job.core.biz.client;
 
 import com.xxl.job.core.biz.ExecutorBiz;
 import com.xxl.job.core.biz.model.*;
+import com.xxl.job.core.util.GsonTool;
 import com.xxl.job.core.util.XxlJobRemotingUtil;
 
+import java.lang.reflect.Type;
+import java.util.List;
+
 /**
  * admin api test
  *
@@ -27,22 +31,42 @@ public class ExecutorBizClient implements ExecutorBiz {
     private String accessToken;
     private int timeout = 3;
 
+    // ReturnT<List<ReturnT<String>>>
+    public static final Type RUN_BATCH_RESULT_TYPE = new GsonTool.ParameterizedType4ReturnT(ReturnT.class, new Type[]{
+            new GsonTool.ParameterizedType4ReturnT(List.class, new Type[]{
+                    new GsonTool.ParameterizedType4ReturnT(ReturnT.class, new Type[]{String.class})})});
+
 
     @Override
     public ReturnT<String> beat() {
         return XxlJobRemotingUtil.postBody(addressUrl+"beat", accessToken, timeout, null, String.class);
     }
 
+    @Override
+    public ReturnT<String> beat(int timeoutMillis) {
+        return XxlJobRemotingUtil.postBodyMillis(addressUrl+"beat", accessToken, timeoutMillis, null, String.class);
+    }
+
     @Override
     public ReturnT<String> idleBeat(IdleBeatParam idleBeatParam){
         return XxlJobRemotingUtil.postBody(addressUrl+"idleBeat", accessToken, timeout, idleBeatParam, String.class);
     }
 
+    @Override
+    public ReturnT<String> idleBeat(IdleBeatParam idleBeatParam, int timeoutMillis){
+        return XxlJobRemotingUtil.postBodyMillis(addressUrl+"idleBeat", accessToken, timeoutMillis, idleBeatParam, String.class);
+    }
+
     @Override
     public ReturnT<String> run(TriggerParam triggerParam) {
         return XxlJobRemotingUtil.postBody(addressUrl + "run", accessToken, timeout, triggerParam, String.class);
     }
 
+    @Override
+    public ReturnT<List<ReturnT<String>>> runBatch(List<TriggerParam> triggerParamList) {
+        return XxlJobRemotingUtil.postBody(addressUrl + "runBatch", accessToken, timeout, triggerParamList, RUN_BATCH_RESULT_TYPE);
+    }
+
     @Override
     public ReturnT<String> kill(KillParam killParam) {
         return XxlJobRemotingUtil.postBody(addressUrl + "kill", accessToken, timeout, killParam, String.class);
@@ -0,0 +1,112 @@
+package com.xxl.job.core.biz.model;
+
+import java.io.Serializable;
+
+/**
+ * executor load, reported along with registry beat
+ *
+ *      compact format: "jobThreadCount,busyJobThreadCount,triggerQueueSize,bizActiveCount,bizQueueSize,systemLoad"
+ */
+public class RegistryLoad implements Serializable {
+    private static final long serialVersionUID = 42L;
+
+    private int jobThreadCount;         // JobThread count
+    private int busyJobThreadCount;     // JobThread running or with queued trigger
+    private int triggerQueueSize;       // queued trigger of all JobThread
+    private int bizActiveCount;         // EmbedServer bizThreadPool active thread
+    private int bizQueueSize;           // EmbedServer bizThreadPool queued request
+    private double systemLoad = -1;     // system load average per processor, -1 when not available
+
+    public int getJobThreadCount() {
+        return jobThreadCount;
+    }
+
+    public void setJobThreadCount(int jobThreadCount) {
+        this.jobThreadCount = jobThreadCount;
+    }
+
+    public int getBusyJobThreadCount() {
+        return busyJobThreadCount;
+    }
+
+    public void setBusyJobThreadCount(int busyJobThreadCount) {
+        this.busyJobThreadCount = busyJobThreadCount;
+    }
+
+    public int getTriggerQueueSize() {
+        return triggerQueueSize;
+    }
+
+    public void setTriggerQueueSize(int triggerQueueSize) {
+        this.triggerQueueSize = triggerQueueSize;
+    }
+
+    public int getBizActiveCount() {
+        return bizActiveCount;
+    }
+
+    public void setBizActiveCount(int bizActiveCount) {
+        this.bizActiveCount = bizActiveCount;
+    }
+
+    public int getBizQueueSize() {
+        return bizQueueSize;
+    }
+
+    public void setBizQueueSize(int bizQueueSize) {
+        this.bizQueueSize = bizQueueSize;
+    }
+
+    public double getSystemLoad() {
+        return systemLoad;
+    }
+
+    public void setSystemLoad(double systemLoad) {
+        this.systemLoad = systemLoad;
+    }
+
+    /**
+     * work waiting or running on executor
+     */
+    public int backlog() {
+        return busyJobThreadCount + triggerQueueSize + bizActiveCount + bizQueueSize;
+    }
+
+    public String format() {
+        return jobThreadCount + "," + busyJobThreadCount + "," + triggerQueueSize + ","
+                + bizActiveCount + "," + bizQueueSize + "," + (systemLoad<0?-1:Math.round(systemLoad * 100) / 100.0);
+    }
+
+    /**
+     * parse compact format
+     *
+     * @param value
+     * @return null when empty or illegal
+     */
+    public static RegistryLoad parse(String value) {
+        if (value==null || value.trim().length()==0) {
+            return null;
+        }
+        String[] items = value.split(",");
+        if (items.length < 6) {
+            return null;
+        }
+        try {
+            RegistryLoad registryLoad = new RegistryLoad();
+            registryLoad.setJobThreadCount(Integer.parseInt(items[0].trim()));
+            registryLoad.setBusyJobThreadCount(Integer.parseInt(items[1].trim()));
+            registryLoad.setTriggerQueueSize(Integer.parseInt(items[2].trim()));
+            registryLoad.setBizActiveCount(Integer.parseInt(items[3].trim()));
+            registryLoad.setBizQueueSize(Integer.parseInt(items[4].trim()));
+            registryLoad.setSystemLoad(Double.parseDouble(items[5].trim()));
+            return registryLoad;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RegistryLoad{" + format() + '}';
+    }
+}
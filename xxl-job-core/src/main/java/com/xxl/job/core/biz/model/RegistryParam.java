@@ -11,6 +11,7 @@ public class RegistryParam implements Serializable {
     private String registryGroup;
     private String registryKey;
     private String registryValue;
+    private RegistryLoad registryLoad;      // executor load, optional
 
     public RegistryParam(){}
     public RegistryParam(String registryGroup, String registryKey, String registryValue) {
@@ -43,12 +44,21 @@ public class RegistryParam implements Serializable {
         this.registryValue = registryValue;
     }
 
+    public RegistryLoad getRegistryLoad() {
+        return registryLoad;
+    }
+
+    public void setRegistryLoad(RegistryLoad registryLoad) {
+        this.registryLoad = registryLoad;
+    }
+
     @Override
     public String toString() {
         return "RegistryParam{" +
                 "registryGroup='" + registryGroup + '\'' +
                 ", registryKey='" + registryKey + '\'' +
                 ", registryValue='" + registryValue + '\'' +
+                ", registryLoad=" + registryLoad +
                 '}';
     }
 }
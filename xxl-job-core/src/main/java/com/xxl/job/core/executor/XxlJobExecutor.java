@@ -14,6 +14,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -211,5 +212,8 @@ public class XxlJobExecutor  {
         JobThread jobThread = jobThreadRepository.get(jobId);
         return jobThread;
     }
+    public static Collection<JobThread> loadJobThreadList(){
+        return jobThreadRepository.values();
+    }
 
 }
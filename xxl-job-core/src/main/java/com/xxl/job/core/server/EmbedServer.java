@@ -20,6 +20,8 @@ import io.netty.util.CharsetUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.Type;
+import java.util.List;
 import java.util.concurrent.*;
 
 /**
@@ -86,7 +88,7 @@ public class EmbedServer {
                     logger.info(">>>>>>>>>>> xxl-job remoting server start success, nettype = {}, port = {}", EmbedServer.class, port);
 
                     // start registry
-                    startRegistry(appname, address);
+                    startRegistry(appname, address, bizThreadPool);
 
                     // wait util stop
                     future.channel().closeFuture().sync();
@@ -138,6 +140,8 @@ public class EmbedServer {
     public static class EmbedHttpServerHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
         private static final Logger logger = LoggerFactory.getLogger(EmbedHttpServerHandler.class);
 
+        private static final Type TRIGGER_PARAM_LIST_TYPE = new GsonTool.ParameterizedType4ReturnT(List.class, new Type[]{TriggerParam.class});
+
         private ExecutorBiz executorBiz;
         private String accessToken;
         private ThreadPoolExecutor bizThreadPool;
@@ -199,6 +203,9 @@ public class EmbedServer {
                 } else if ("/run".equals(uri)) {
                     TriggerParam triggerParam = GsonTool.fromJson(requestData, TriggerParam.class);
                     return executorBiz.run(triggerParam);
+                } else if ("/runBatch".equals(uri)) {
+                    List<TriggerParam> triggerParamList = GsonTool.fromJson(requestData, TRIGGER_PARAM_LIST_TYPE);
+                    return executorBiz.runBatch(triggerParamList);
                 } else if ("/kill".equals(uri)) {
                     KillParam killParam = GsonTool.fromJson(requestData, KillParam.class);
                     return executorBiz.kill(killParam);
@@ -256,8 +263,15 @@ public class EmbedServer {
     // ---------------------- registry ----------------------
 
     public void startRegistry(final String appname, final String address) {
+        startRegistry(appname, address, null);
+    }
+
+    /**
+     * @param bizThreadPool     load of it reported along with registry beat, null: not reported
+     */
+    public void startRegistry(final String appname, final String address, final ThreadPoolExecutor bizThreadPool) {
         // start registry
-        ExecutorRegistryThread.getInstance().start(appname, address);
+        ExecutorRegistryThread.getInstance().start(appname, address, bizThreadPool);
     }
 
     public void stopRegistry() {
@@ -1,6 +1,7 @@
 package com.xxl.job.core.thread;
 
 import com.xxl.job.core.biz.AdminBiz;
+import com.xxl.job.core.biz.model.RegistryLoad;
 import com.xxl.job.core.biz.model.RegistryParam;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.enums.RegistryConfig;
@@ -8,6 +9,9 @@ import com.xxl.job.core.executor.XxlJobExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -24,6 +28,13 @@ public class ExecutorRegistryThread {
     private Thread registryThread;
     private volatile boolean toStop = false;
     public void start(final String appname, final String address){
+        start(appname, address, null);
+    }
+
+    /**
+     * @param bizThreadPool     load of it reported along with registry beat, null: not reported
+     */
+    public void start(final String appname, final String address, final ThreadPoolExecutor bizThreadPool){
 
         // valid
         if (appname==null || appname.trim().length()==0) {
@@ -43,6 +54,7 @@ public class ExecutorRegistryThread {
                 while (!toStop) {
                     try {
                         RegistryParam registryParam = new RegistryParam(RegistryConfig.RegistType.EXECUTOR.name(), appname, address);
+                        registryParam.setRegistryLoad(loadRegistryLoad(bizThreadPool));
                         for (AdminBiz adminBiz: XxlJobExecutor.getAdminBizList()) {
                             try {
                                 ReturnT<String> registryResult = adminBiz.registry(registryParam);
@@ -122,4 +134,44 @@ public class ExecutorRegistryThread {
         }
     }
 
+    /**
+     * executor load, piggyback on registry beat
+     *
+     * @param bizThreadPool
+     * @return
+     */
+    private RegistryLoad loadRegistryLoad(ThreadPoolExecutor bizThreadPool) {
+        RegistryLoad registryLoad = new RegistryLoad();
+
+        // job thread
+        int jobThreadCount = 0;
+        int busyJobThreadCount = 0;
+        int triggerQueueSize = 0;
+        for (JobThread jobThread: XxlJobExecutor.loadJobThreadList()) {
+            jobThreadCount++;
+            if (jobThread.isRunningOrHasQueue()) {
+                busyJobThreadCount++;
+            }
+            triggerQueueSize += jobThread.getTriggerQueueSize();
+        }
+        registryLoad.setJobThreadCount(jobThreadCount);
+        registryLoad.setBusyJobThreadCount(busyJobThreadCount);
+        registryLoad.setTriggerQueueSize(triggerQueueSize);
+
+        // biz thread pool
+        if (bizThreadPool != null) {
+            registryLoad.setBizActiveCount(bizThreadPool.getActiveCount());
+            registryLoad.setBizQueueSize(bizThreadPool.getQueue().size());
+        }
+
+        // system load
+        OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
+        double systemLoadAverage = osBean.getSystemLoadAverage();
+        if (systemLoadAverage >= 0) {
+            registryLoad.setSystemLoad(systemLoadAverage / osBean.getAvailableProcessors());
+        }
+
+        return registryLoad;
+    }
+
 }
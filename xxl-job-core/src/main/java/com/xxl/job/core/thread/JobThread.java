@@ -90,6 +90,14 @@ public class JobThread extends Thread{
         return running || triggerQueue.size()>0;
     }
 
+    /**
+     * queued trigger size
+     * @return
+     */
+    public int getTriggerQueueSize() {
+        return triggerQueue.size();
+    }
+
     @Override
 	public void run() {
 
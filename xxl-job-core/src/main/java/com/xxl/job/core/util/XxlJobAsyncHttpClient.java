@@ -0,0 +1,340 @@
+package com.xxl.job.core.util;
+
+import com.xxl.job.core.biz.model.ReturnT;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.pool.AbstractChannelPoolHandler;
+import io.netty.channel.pool.ChannelHealthChecker;
+import io.netty.channel.pool.FixedChannelPool;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import io.netty.util.AttributeKey;
+import io.netty.util.CharsetUtil;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.ScheduledFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * async http client (netty), non-blocking version of "XxlJobRemotingUtil.postBody"
+ *
+ *      a、one keep-alive connection pool per "scheme://host:port", at most "maxConnections" connections, requests beyond wait in pool (at most "maxPendingAcquires");
+ *      b、future is always completed with a ReturnT (never exceptionally), same as the blocking version;
+ *      c、future is completed on netty io thread: keep completion handler short, never block in it;
+ */
+public class XxlJobAsyncHttpClient {
+    private static Logger logger = LoggerFactory.getLogger(XxlJobAsyncHttpClient.class);
+
+    private static final AttributeKey<PendingRequest> PENDING_REQUEST = AttributeKey.valueOf("xxl-job-pending-request");
+    private static final int CONNECT_TIMEOUT = 3;      // s
+    private static final int ACQUIRE_TIMEOUT = 3;      // s, wait for pooled connection
+
+    private final int maxConnections;
+    private final int maxPendingAcquires;
+    private final EventLoopGroup group;
+    private final Bootstrap bootstrap;
+    private final ConcurrentMap<String, FixedChannelPool> poolMap = new ConcurrentHashMap<>();
+    private volatile SslContext sslContext;
+    private volatile boolean closed = false;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    public XxlJobAsyncHttpClient(int ioThreads, int maxConnections, int maxPendingAcquires) {
+        this.maxConnections = maxConnections;
+        this.maxPendingAcquires = maxPendingAcquires;
+        this.group = new NioEventLoopGroup(ioThreads, new ThreadFactory() {
+            private final AtomicInteger threadIndex = new AtomicInteger();
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "xxl-job, XxlJobAsyncHttpClient-io-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.bootstrap = new Bootstrap()
+                .group(group)
+                .channel(NioSocketChannel.class)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, CONNECT_TIMEOUT * 1000);
+    }
+
+    /**
+     * post, async
+     *
+     * @param url
+     * @param accessToken
+     * @param timeout               s, response timeout (after connection acquired, wait for connection at most ACQUIRE_TIMEOUT)
+     * @param requestObj
+     * @param returnTargClassOfT
+     * @return
+     */
+    public <T> CompletableFuture<ReturnT<T>> postBody(final String url, final String accessToken, final int timeout, final Object requestObj, final Class<T> returnTargClassOfT) {
+        return postBody(url, accessToken, timeout, requestObj, new GsonTool.ParameterizedType4ReturnT(ReturnT.class, new Class[]{returnTargClassOfT}));
+    }
+
+    /**
+     * post, async
+     *
+     * @param returnType        full type of result, like "ReturnT<List<ReturnT<String>>>"
+     */
+    public <T> CompletableFuture<ReturnT<T>> postBody(final String url, final String accessToken, final int timeout, final Object requestObj, final Type returnType) {
+        final CompletableFuture<ReturnT<T>> resultFuture = new CompletableFuture<>();
+        if (closed) {
+            resultFuture.complete(new ReturnT<T>(ReturnT.FAIL_CODE, "xxl-rpc remoting error(client closed), for url : " + url));
+            return resultFuture;
+        }
+
+        final URI uri;
+        final FixedChannelPool pool;
+        final String requestBody;
+        try {
+            uri = new URI(url);
+            pool = pool(uri);
+            requestBody = requestObj != null ? GsonTool.toJson(requestObj) : "";
+        } catch (Exception e) {
+            logger.error(e.getMessage(), e);
+            resultFuture.complete(new ReturnT<T>(ReturnT.FAIL_CODE, "xxl-rpc remoting error("+ e.getMessage() +"), for url : " + url));
+            return resultFuture;
+        }
+
+        inflight.incrementAndGet();
+        pool.acquire().addListener(new FutureListener<Channel>() {
+            @Override
+            public void operationComplete(Future<Channel> acquireFuture) throws Exception {
+                if (!acquireFuture.isSuccess()) {
+                    inflight.decrementAndGet();
+                    resultFuture.complete(new ReturnT<T>(ReturnT.FAIL_CODE, "xxl-rpc remoting error("+ acquireFuture.cause() +"), for url : " + url));
+                    return;
+                }
+
+                Channel channel = acquireFuture.getNow();
+                PendingRequest pending = new PendingRequest(url, returnType, resultFuture, pool, channel);
+                channel.attr(PENDING_REQUEST).set(pending);
+
+                pending.timeoutFuture = channel.eventLoop().schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        pending.fail("xxl-rpc remoting error(read timeout), for url : " + url);
+                    }
+                }, timeout, TimeUnit.SECONDS);
+
+                channel.writeAndFlush(buildRequest(uri, accessToken, requestBody)).addListener(new FutureListener<Void>() {
+                    @Override
+                    public void operationComplete(Future<Void> writeFuture) throws Exception {
+                        if (!writeFuture.isSuccess()) {
+                            pending.fail("xxl-rpc remoting error("+ writeFuture.cause() +"), for url : " + url);
+                        }
+                    }
+                });
+            }
+        });
+        return resultFuture;
+    }
+
+    private static FullHttpRequest buildRequest(URI uri, String accessToken, String requestBody) {
+        String path = (uri.getRawPath()==null || uri.getRawPath().length()==0)?"/":uri.getRawPath();
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, path, Unpooled.copiedBuffer(requestBody, CharsetUtil.UTF_8));
+        request.headers().set(HttpHeaderNames.HOST, uri.getHost() + ":" + port(uri));
+        request.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+        request.headers().set(HttpHeaderNames.CONTENT_TYPE, "application/json;charset=UTF-8");
+        request.headers().set(HttpHeaderNames.ACCEPT_CHARSET, "application/json;charset=UTF-8");
+        request.headers().set(HttpHeaderNames.CONTENT_LENGTH, request.content().readableBytes());
+        if (accessToken!=null && accessToken.trim().length()>0) {
+            request.headers().set(XxlJobRemotingUtil.XXL_JOB_ACCESS_TOKEN, accessToken);
+        }
+        return request;
+    }
+
+    private static int port(URI uri) {
+        if (uri.getPort() > 0) {
+            return uri.getPort();
+        }
+        return "https".equalsIgnoreCase(uri.getScheme())?443:80;
+    }
+
+    private FixedChannelPool pool(URI uri) throws Exception {
+        final String host = uri.getHost();
+        final int port = port(uri);
+        final boolean useHttps = "https".equalsIgnoreCase(uri.getScheme());
+        if (host == null) {
+            throw new IllegalArgumentException("host invalid");
+        }
+        final SslContext poolSslContext = useHttps?sslContext():null;
+
+        String poolKey = uri.getScheme() + "://" + host + ":" + port;
+        FixedChannelPool pool = poolMap.get(poolKey);
+        if (pool != null) {
+            return pool;
+        }
+        pool = new FixedChannelPool(bootstrap.clone().remoteAddress(host, port), new AbstractChannelPoolHandler() {
+            @Override
+            public void channelCreated(Channel channel) throws Exception {
+                if (poolSslContext != null) {
+                    channel.pipeline().addLast(poolSslContext.newHandler(channel.alloc(), host, port));
+                }
+                channel.pipeline()
+                        .addLast(new HttpClientCodec())
+                        .addLast(new HttpObjectAggregator(5 * 1024 * 1024))  // merge response to FULL
+                        .addLast(new ResponseHandler());
+            }
+        }, ChannelHealthChecker.ACTIVE, FixedChannelPool.AcquireTimeoutAction.FAIL, ACQUIRE_TIMEOUT * 1000, maxConnections, maxPendingAcquires);
+
+        FixedChannelPool existPool = poolMap.putIfAbsent(poolKey, pool);
+        if (existPool != null) {
+            pool.close();
+            return existPool;
+        }
+        return pool;
+    }
+
+    private SslContext sslContext() throws Exception {
+        if (sslContext == null) {
+            synchronized (this) {
+                if (sslContext == null) {
+                    // trust-https, same as blocking version
+                    sslContext = SslContextBuilder.forClient().trustManager(InsecureTrustManagerFactory.INSTANCE).build();
+                }
+            }
+        }
+        return sslContext;
+    }
+
+    /**
+     * requests waiting for connection or response
+     */
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public void close() {
+        closed = true;
+        for (FixedChannelPool pool : poolMap.values()) {
+            pool.close();
+        }
+        poolMap.clear();
+        group.shutdownGracefully(0, 3, TimeUnit.SECONDS).syncUninterruptibly();
+    }
+
+
+    // ---------------------- pending request ----------------------
+
+    private class PendingRequest {
+        private final String url;
+        private final Type returnType;
+        private final CompletableFuture resultFuture;
+        private final FixedChannelPool pool;
+        private final Channel channel;
+        private final AtomicBoolean done = new AtomicBoolean(false);
+        private volatile ScheduledFuture<?> timeoutFuture;
+
+        private PendingRequest(String url, Type returnType, CompletableFuture resultFuture, FixedChannelPool pool, Channel channel) {
+            this.url = url;
+            this.returnType = returnType;
+            this.resultFuture = resultFuture;
+            this.pool = pool;
+            this.channel = channel;
+        }
+
+        private void fail(String msg) {
+            // connection state unknown, not reuse
+            complete(new ReturnT<String>(ReturnT.FAIL_CODE, msg), false);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void complete(ReturnT returnT, boolean reuseChannel) {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            if (timeoutFuture != null) {
+                timeoutFuture.cancel(false);
+            }
+            channel.attr(PENDING_REQUEST).set(null);
+            if (!reuseChannel) {
+                channel.close();
+            }
+            pool.release(channel);
+            inflight.decrementAndGet();
+
+            resultFuture.complete(returnT);
+        }
+    }
+
+    private static class ResponseHandler extends SimpleChannelInboundHandler<FullHttpResponse> {
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, FullHttpResponse response) throws Exception {
+            PendingRequest pending = ctx.channel().attr(PENDING_REQUEST).get();
+            if (pending == null) {
+                return;
+            }
+
+            // valid StatusCode
+            int statusCode = response.status().code();
+            if (statusCode != 200) {
+                pending.fail("xxl-rpc remoting fail, StatusCode("+ statusCode +") invalid. for url : " + pending.url);
+                return;
+            }
+
+            // parse returnT
+            String resultJson = response.content().toString(CharsetUtil.UTF_8);
+            ReturnT returnT;
+            try {
+                returnT = GsonTool.fromJson(resultJson, pending.returnType);
+            } catch (Exception e) {
+                logger.error("xxl-rpc remoting (url="+pending.url+") response content invalid("+ resultJson +").", e);
+                returnT = new ReturnT<String>(ReturnT.FAIL_CODE, "xxl-rpc remoting (url="+pending.url+") response content invalid("+ resultJson +").");
+            }
+            pending.complete(returnT, HttpUtil.isKeepAlive(response));
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            PendingRequest pending = ctx.channel().attr(PENDING_REQUEST).get();
+            if (pending != null) {
+                pending.fail("xxl-rpc remoting error(connection closed), for url : " + pending.url);
+            }
+            super.channelInactive(ctx);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            PendingRequest pending = ctx.channel().attr(PENDING_REQUEST).get();
+            if (pending != null) {
+                logger.error(cause.getMessage(), cause);
+                pending.fail("xxl-rpc remoting error("+ cause.getMessage() +"), for url : " + pending.url);
+            }
+            ctx.close();
+        }
+    }
+
+}
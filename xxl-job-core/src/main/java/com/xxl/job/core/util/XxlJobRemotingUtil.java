@@ -9,6 +9,7 @@ import java.io.BufferedReader;
 import java.io.DataOutputStream;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
+import java.lang.reflect.Type;
 import java.net.URL;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
@@ -62,6 +63,38 @@ public class XxlJobRemotingUtil {
      * @return
      */
     public static ReturnT postBody(String url, String accessToken, int timeout, Object requestObj, Class returnTargClassOfT) {
+        return postBody(url, accessToken, timeout, requestObj, new GsonTool.ParameterizedType4ReturnT(ReturnT.class, new Class[]{returnTargClassOfT}));
+    }
+
+    /**
+     * post
+     *
+     * @param url
+     * @param accessToken
+     * @param timeout
+     * @param requestObj
+     * @param returnType        full type of result, like "ReturnT<List<ReturnT<String>>>"
+     * @return
+     */
+    public static ReturnT postBody(String url, String accessToken, int timeout, Object requestObj, Type returnType) {
+        return postBody(url, accessToken, timeout * 1000, 3 * 1000, requestObj, returnType);
+    }
+
+    /**
+     * post, timeout in millis (connect and read), like probe with a deadline
+     *
+     * @param url
+     * @param accessToken
+     * @param timeoutMillis
+     * @param requestObj
+     * @param returnTargClassOfT
+     * @return
+     */
+    public static ReturnT postBodyMillis(String url, String accessToken, int timeoutMillis, Object requestObj, Class returnTargClassOfT) {
+        return postBody(url, accessToken, timeoutMillis, Math.min(timeoutMillis, 3 * 1000), requestObj, new GsonTool.ParameterizedType4ReturnT(ReturnT.class, new Class[]{returnTargClassOfT}));
+    }
+
+    private static ReturnT postBody(String url, String accessToken, int readTimeoutMillis, int connectTimeoutMillis, Object requestObj, Type returnType) {
         HttpURLConnection connection = null;
         BufferedReader bufferedReader = null;
         try {
@@ -81,8 +114,8 @@ public class XxlJobRemotingUtil {
             connection.setDoOutput(true);
             connection.setDoInput(true);
             connection.setUseCaches(false);
-            connection.setReadTimeout(timeout * 1000);
-            connection.setConnectTimeout(3 * 1000);
+            connection.setReadTimeout(readTimeoutMillis);
+            connection.setConnectTimeout(connectTimeoutMillis);
             connection.setRequestProperty("connection", "Keep-Alive");
             connection.setRequestProperty("Content-Type", "application/json;charset=UTF-8");
             connection.setRequestProperty("Accept-Charset", "application/json;charset=UTF-8");
@@ -128,7 +161,7 @@ public class XxlJobRemotingUtil {
 
             // parse returnT
             try {
-                ReturnT returnT = GsonTool.fromJson(resultJson, ReturnT.class, returnTargClassOfT);
+                ReturnT returnT = GsonTool.fromJson(resultJson, returnType);
                 return returnT;
             } catch (Exception e) {
                 logger.error("xxl-rpc remoting (url="+url+") response content invalid("+ resultJson +").", e);